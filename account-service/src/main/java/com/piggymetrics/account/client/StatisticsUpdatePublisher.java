@@ -0,0 +1,57 @@
+package com.piggymetrics.account.client;
+
+import com.piggymetrics.account.domain.Account;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands account changes over to statistics-service through the message broker,
+ * so that saving an account doesn't wait for statistics recalculation.
+ *
+ * Falls back to the synchronous {@link StatisticsServiceClient} call if the
+ * broker is not available, or if asynchronous updates are disabled.
+ */
+@Component
+public class StatisticsUpdatePublisher {
+
+	public static final String ACCOUNT_NAME_HEADER = "accountName";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private RabbitTemplate rabbitTemplate;
+
+	@Autowired
+	private StatisticsServiceClient statisticsClient;
+
+	@Value("${statistics.updates.enabled:true}")
+	private boolean enabled;
+
+	@Value("${statistics.updates.exchange:statistics.updates}")
+	private String exchange;
+
+	@Value("${statistics.updates.routing-key:account}")
+	private String routingKey;
+
+	public void publish(String accountName, Account account) {
+
+		if (enabled) {
+			try {
+				rabbitTemplate.convertAndSend(exchange, routingKey, account, message -> {
+					message.getMessageProperties().setHeader(ACCOUNT_NAME_HEADER, accountName);
+					return message;
+				});
+				return;
+			} catch (AmqpException e) {
+				log.warn("can't publish statistics update for {}, updating synchronously", accountName, e);
+			}
+		}
+
+		statisticsClient.updateStatistics(accountName, account);
+	}
+}
@@ -1,20 +1,27 @@
 package com.piggymetrics.account.config;
 
+import com.piggymetrics.account.service.security.ClientTokenManager;
+import com.piggymetrics.account.service.security.AuthenticationCache;
 import com.piggymetrics.account.service.security.CustomUserInfoTokenServices;
+import com.piggymetrics.account.service.security.TokenKeySignatureVerifier;
 import feign.RequestInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.ResourceServerProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.security.oauth2.client.feign.OAuth2FeignRequestInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 import org.springframework.security.oauth2.client.token.grant.client.ClientCredentialsResourceDetails;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * @author cdov
@@ -25,6 +32,33 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 
     private final ResourceServerProperties sso;
 
+    @Value("${security.oauth2.token-cache.enabled:true}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${security.oauth2.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${security.oauth2.token-cache.time-to-live:60000}")
+    private long tokenCacheTimeToLive;
+
+    @Value("${security.oauth2.token-cache.negative-time-to-live:5000}")
+    private long tokenCacheNegativeTimeToLive;
+
+    @Value("${security.oauth2.jwt.enabled:false}")
+    private boolean jwtEnabled;
+
+    @Value("${security.oauth2.jwt.key-uri:}")
+    private String jwtKeyUri;
+
+    @Value("${security.oauth2.jwt.key-refresh-interval:60000}")
+    private long jwtKeyRefreshInterval;
+
+    @Value("${security.oauth2.client-token.refresh-before-expiry:60000}")
+    private long clientTokenRefreshBeforeExpiry;
+
+    @Value("${security.oauth2.client-token.retry-interval:5000}")
+    private long clientTokenRetryInterval;
+
     @Autowired
     public ResourceServerConfig(ResourceServerProperties sso) {
         this.sso = sso;
@@ -36,25 +70,51 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
         return new ClientCredentialsResourceDetails();
     }
 
+    @Bean
+    public ClientTokenManager clientTokenManager() {
+        return new ClientTokenManager(clientCredentialsResourceDetails(), clientTokenRefreshBeforeExpiry, clientTokenRetryInterval);
+    }
+
     @Bean
     public RequestInterceptor oauth2FeignRequestInterceptor(){
-        return new OAuth2FeignRequestInterceptor(new DefaultOAuth2ClientContext(), clientCredentialsResourceDetails());
+        return new OAuth2FeignRequestInterceptor(clientTokenManager().getClientContext(), clientCredentialsResourceDetails());
     }
 
     @Bean
     public OAuth2RestTemplate clientCredentialsRestTemplate() {
-        return new OAuth2RestTemplate(clientCredentialsResourceDetails());
+        return new OAuth2RestTemplate(clientCredentialsResourceDetails(), clientTokenManager().getClientContext());
     }
 
     @Bean
     public ResourceServerTokenServices tokenServices() {
-        return new CustomUserInfoTokenServices(sso.getUserInfoUri(), sso.getClientId());
+        if (jwtEnabled) {
+            return jwtTokenServices();
+        }
+
+        CustomUserInfoTokenServices tokenServices = new CustomUserInfoTokenServices(sso.getUserInfoUri(), sso.getClientId());
+        if (tokenCacheEnabled) {
+            tokenServices.setAuthenticationCache(new AuthenticationCache(tokenCacheMaximumSize,
+                    tokenCacheTimeToLive, tokenCacheNegativeTimeToLive));
+        }
+        return tokenServices;
+    }
+
+    /**
+     * Verifies signed tokens in-process, using the public key of auth-service
+     */
+    private ResourceServerTokenServices jwtTokenServices() {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setVerifier(new TokenKeySignatureVerifier(jwtKeyUri, new RestTemplate(), jwtKeyRefreshInterval));
+
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(new JwtTokenStore(converter));
+        return tokenServices;
     }
 
     @Override
     public void configure(HttpSecurity http) throws Exception {
         http.authorizeRequests()
-                .antMatchers("/" , "/demo").permitAll()
+                .antMatchers("/" , "/demo", "/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated();
     }
 }
@@ -0,0 +1,30 @@
+package com.piggymetrics.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exchange, which account changes are published to
+ * for statistics-service
+ */
+@Configuration
+public class StatisticsUpdatesConfig {
+
+    @Value("${statistics.updates.exchange:statistics.updates}")
+    private String exchange;
+
+    @Bean
+    public DirectExchange statisticsUpdatesExchange() {
+        return new DirectExchange(exchange);
+    }
+
+    @Bean
+    public MessageConverter statisticsUpdatesMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+}
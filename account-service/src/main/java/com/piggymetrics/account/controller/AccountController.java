@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.security.Principal;
+import java.util.List;
 
 @RestController
 public class AccountController {
@@ -22,6 +23,12 @@ public class AccountController {
 		return accountService.findByName(name);
 	}
 
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(path = "/batch", method = RequestMethod.POST)
+	public List<Account> getAccountsByNames(@RequestBody List<String> names) {
+		return accountService.findByNames(names);
+	}
+
 	@RequestMapping(path = "/current", method = RequestMethod.GET)
 	public Account getCurrentAccount(Principal principal) {
 		return accountService.findByName(principal.getName());
@@ -4,9 +4,14 @@ import com.piggymetrics.account.domain.Account;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AccountRepository extends CrudRepository<Account, String> {
 
 	Account findByName(String name);
 
+	List<Account> findByNameIn(Collection<String> names);
+
 }
@@ -3,6 +3,9 @@ package com.piggymetrics.account.service;
 import com.piggymetrics.account.domain.Account;
 import com.piggymetrics.account.domain.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface AccountService {
 
 	/**
@@ -13,6 +16,14 @@ public interface AccountService {
 	 */
 	Account findByName(String accountName);
 
+	/**
+	 * Finds accounts by given names, skipping names with no account
+	 *
+	 * @param accountNames
+	 * @return found accounts
+	 */
+	List<Account> findByNames(Collection<String> accountNames);
+
 	/**
 	 * Checks if account with the same name already exists
 	 * Invokes Auth Service user creation
@@ -25,7 +36,7 @@ public interface AccountService {
 
 	/**
 	 * Validates and applies incoming account updates
-	 * Invokes Statistics Service update
+	 * Publishes Statistics Service update
 	 *
 	 * @param name
 	 * @param update
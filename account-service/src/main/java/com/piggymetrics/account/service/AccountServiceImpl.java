@@ -1,9 +1,10 @@
 package com.piggymetrics.account.service;
 
 import com.piggymetrics.account.client.AuthServiceClient;
-import com.piggymetrics.account.client.StatisticsServiceClient;
+import com.piggymetrics.account.client.StatisticsUpdatePublisher;
 import com.piggymetrics.account.domain.Account;
 import com.piggymetrics.account.domain.Currency;
+import com.piggymetrics.account.domain.Item;
 import com.piggymetrics.account.domain.Saving;
 import com.piggymetrics.account.domain.User;
 import com.piggymetrics.account.repository.AccountRepository;
@@ -14,15 +15,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
+	private static final int MAX_BATCH_SIZE = 1000;
+
 	private final Logger log = LoggerFactory.getLogger(getClass());
 
 	@Autowired
-	private StatisticsServiceClient statisticsClient;
+	private StatisticsUpdatePublisher statisticsPublisher;
 
 	@Autowired
 	private AuthServiceClient authClient;
@@ -39,6 +47,16 @@ public class AccountServiceImpl implements AccountService {
 		return repository.findByName(accountName);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Account> findByNames(Collection<String> accountNames) {
+		Assert.notEmpty(accountNames, "account names must not be empty");
+		Assert.isTrue(accountNames.size() <= MAX_BATCH_SIZE, "can't find more than " + MAX_BATCH_SIZE + " accounts at once");
+		return repository.findByNameIn(accountNames);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -78,6 +96,9 @@ public class AccountServiceImpl implements AccountService {
 		Account account = repository.findByName(name);
 		Assert.notNull(account, "can't find account with name " + name);
 
+		// statistics keep one data point per day, so the first save of a day is published anyway
+		boolean statisticsChanged = hasStatisticsChanges(account, update) || !isToday(account.getLastSeen());
+
 		account.setIncomes(update.getIncomes());
 		account.setExpenses(update.getExpenses());
 		account.setSaving(update.getSaving());
@@ -87,6 +108,62 @@ public class AccountServiceImpl implements AccountService {
 
 		log.debug("account {} changes has been saved", name);
 
-		statisticsClient.updateStatistics(name, account);
+		if (statisticsChanged) {
+			statisticsPublisher.publish(name, account);
+		} else {
+			log.debug("account {} changes don't affect statistics", name);
+		}
+	}
+
+	/**
+	 * Checks whether the update changes anything statistics are computed from.
+	 * Notes and icons don't matter, amounts are compared regardless of scale.
+	 */
+	private boolean hasStatisticsChanges(Account account, Account update) {
+		return !isSameItems(account.getIncomes(), update.getIncomes())
+				|| !isSameItems(account.getExpenses(), update.getExpenses())
+				|| !isSameSaving(account.getSaving(), update.getSaving());
+	}
+
+	private boolean isSameItems(List<Item> items, List<Item> others) {
+
+		if (items == null || others == null) {
+			return items == others;
+		}
+
+		if (items.size() != others.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			Item other = others.get(i);
+
+			if (!Objects.equals(item.getTitle(), other.getTitle())
+					|| item.getCurrency() != other.getCurrency()
+					|| item.getPeriod() != other.getPeriod()
+					|| !isSameAmount(item.getAmount(), other.getAmount())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isSameSaving(Saving saving, Saving other) {
+
+		if (saving == null || other == null) {
+			return saving == other;
+		}
+
+		return saving.getCurrency() == other.getCurrency() && isSameAmount(saving.getAmount(), other.getAmount());
+	}
+
+	private boolean isSameAmount(BigDecimal amount, BigDecimal other) {
+		return amount == null ? other == null : other != null && amount.compareTo(other) == 0;
+	}
+
+	private boolean isToday(Date date) {
+		return date != null && date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().equals(LocalDate.now());
 	}
 }
@@ -4,18 +4,21 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.AuthoritiesExtractor;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.FixedAuthoritiesExtractor;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.client.OAuth2RestOperations;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 import org.springframework.security.oauth2.client.resource.BaseOAuth2ProtectedResourceDetails;
+import org.springframework.security.oauth2.client.resource.OAuth2AccessDeniedException;
 import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.OAuth2Request;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.*;
 
@@ -43,6 +46,8 @@ public class CustomUserInfoTokenServices implements ResourceServerTokenServices
 
 	private AuthoritiesExtractor authoritiesExtractor = new FixedAuthoritiesExtractor();
 
+	private AuthenticationCache authenticationCache;
+
 	public CustomUserInfoTokenServices(String userInfoEndpointUrl, String clientId) {
 		this.userInfoEndpointUrl = userInfoEndpointUrl;
 		this.clientId = clientId;
@@ -60,14 +65,29 @@ public class CustomUserInfoTokenServices implements ResourceServerTokenServices
 		this.authoritiesExtractor = authoritiesExtractor;
 	}
 
+	public void setAuthenticationCache(AuthenticationCache authenticationCache) {
+		this.authenticationCache = authenticationCache;
+	}
+
 	@Override
 	public OAuth2Authentication loadAuthentication(String accessToken)
 			throws AuthenticationException, InvalidTokenException {
+		if (this.authenticationCache != null) {
+			return this.authenticationCache.get(accessToken, () -> fetchAuthentication(accessToken));
+		}
+		return fetchAuthentication(accessToken);
+	}
+
+	private OAuth2Authentication fetchAuthentication(String accessToken) {
 		Map<String, Object> map = getMap(this.userInfoEndpointUrl, accessToken);
 		if (map.containsKey("error")) {
 			this.logger.debug("userinfo returned error: " + map.get("error"));
 			throw new InvalidTokenException(accessToken);
 		}
+		if (Boolean.FALSE.equals(map.get("active"))) {
+			this.logger.debug("token is not active");
+			throw new InvalidTokenException(accessToken);
+		}
 		return extractAuthentication(map);
 	}
 
@@ -91,11 +111,16 @@ public class CustomUserInfoTokenServices implements ResourceServerTokenServices
 		return "unknown";
 	}
 
+	/**
+	 * Supports both the compact token description of {@code /uaa/tokens/current}
+	 * ({@code client_id} and {@code scope} on the top level) and the serialized
+	 * principal of {@code /uaa/users/current}
+	 */
 	@SuppressWarnings({ "unchecked" })
 	private OAuth2Request getRequest(Map<String, Object> map) {
-		Map<String, Object> request = (Map<String, Object>) map.get("oauth2Request");
+		Map<String, Object> request = map.containsKey("client_id") ? map : (Map<String, Object>) map.get("oauth2Request");
 
-		String clientId = (String) request.get("clientId");
+		String clientId = (String) request.get(request == map ? "client_id" : "clientId");
 		Set<String> scope = new LinkedHashSet<>(request.containsKey("scope") ?
 				(Collection<String>) request.get("scope") : Collections.<String>emptySet());
 
@@ -116,7 +141,10 @@ public class CustomUserInfoTokenServices implements ResourceServerTokenServices
 			if (restTemplate == null) {
 				BaseOAuth2ProtectedResourceDetails resource = new BaseOAuth2ProtectedResourceDetails();
 				resource.setClientId(this.clientId);
-				restTemplate = new OAuth2RestTemplate(resource);
+				OAuth2RestTemplate template = new OAuth2RestTemplate(resource);
+				// a rejected token must not be replaced with a new one
+				template.setRetryBadAccessTokens(false);
+				restTemplate = template;
 			}
 			OAuth2AccessToken existingToken = restTemplate.getOAuth2ClientContext()
 					.getAccessToken();
@@ -131,8 +159,22 @@ public class CustomUserInfoTokenServices implements ResourceServerTokenServices
 		catch (Exception ex) {
 			this.logger.info("Could not fetch user details: " + ex.getClass() + ", "
 					+ ex.getMessage());
-			return Collections.<String, Object>singletonMap("error",
-					"Could not fetch user details");
+			if (isTokenRejected(ex)) {
+				return Collections.<String, Object>singletonMap("error",
+						"Could not fetch user details");
+			}
+			// not the token's fault, so it must not be remembered as invalid
+			throw new UserInfoUnavailableException("Could not fetch user details", ex);
 		}
 	}
+
+	/**
+	 * @return whether auth-service has responded, that the token is invalid
+	 */
+	private boolean isTokenRejected(Exception ex) {
+		return ex instanceof InvalidTokenException
+				|| ex instanceof OAuth2AccessDeniedException
+				|| (ex instanceof HttpClientErrorException
+						&& ((HttpClientErrorException) ex).getStatusCode() == HttpStatus.UNAUTHORIZED);
+	}
 }
@@ -0,0 +1,74 @@
+package com.piggymetrics.account.client;
+
+import com.piggymetrics.account.domain.Account;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class StatisticsUpdatePublisherTest {
+
+	@InjectMocks
+	private StatisticsUpdatePublisher publisher;
+
+	@Mock
+	private RabbitTemplate rabbitTemplate;
+
+	@Mock
+	private StatisticsServiceClient statisticsClient;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(publisher, "enabled", true);
+		ReflectionTestUtils.setField(publisher, "exchange", "statistics.updates");
+		ReflectionTestUtils.setField(publisher, "routingKey", "account");
+	}
+
+	@Test
+	public void shouldPublishUpdate() {
+
+		final Account account = new Account();
+		publisher.publish("test", account);
+
+		verify(rabbitTemplate).convertAndSend(eq("statistics.updates"), eq("account"), eq(account), any(MessagePostProcessor.class));
+		verify(statisticsClient, never()).updateStatistics("test", account);
+	}
+
+	@Test
+	public void shouldUpdateSynchronouslyWhenBrokerIsNotAvailable() {
+
+		final Account account = new Account();
+		doThrow(new AmqpConnectException(new ConnectException())).when(rabbitTemplate)
+				.convertAndSend(eq("statistics.updates"), eq("account"), eq(account), any(MessagePostProcessor.class));
+
+		publisher.publish("test", account);
+
+		verify(statisticsClient).updateStatistics("test", account);
+	}
+
+	@Test
+	public void shouldUpdateSynchronouslyWhenDisabled() {
+
+		ReflectionTestUtils.setField(publisher, "enabled", false);
+
+		final Account account = new Account();
+		publisher.publish("test", account);
+
+		verify(statisticsClient).updateStatistics("test", account);
+		verify(rabbitTemplate, never()).convertAndSend(any(String.class), any(String.class), any(Object.class), any(MessagePostProcessor.class));
+	}
+}
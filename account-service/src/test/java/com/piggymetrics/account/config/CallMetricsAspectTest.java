@@ -0,0 +1,99 @@
+package com.piggymetrics.account.config;
+
+import com.piggymetrics.account.client.AuthServiceClient;
+import com.piggymetrics.account.client.StatisticsServiceClient;
+import com.piggymetrics.account.domain.Account;
+import com.piggymetrics.account.domain.User;
+import com.piggymetrics.account.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class CallMetricsAspectTest {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final CallMetricsAspect aspect = new CallMetricsAspect();
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(aspect, "registry", registry);
+	}
+
+	@Test
+	public void shouldTimeClientCalls() {
+
+		AuthServiceClient client = proxy(AuthServiceClient.class, null);
+
+		client.createUser(new User());
+
+		Timer timer = registry.find("client.calls")
+				.tags("client", "AuthServiceClient", "method", "createUser", "exception", "None")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	public void shouldTagFailedClientCallsWithException() {
+
+		StatisticsServiceClient client = proxy(StatisticsServiceClient.class, new IllegalStateException());
+
+		try {
+			client.updateStatistics("test", new Account());
+		} catch (IllegalStateException expected) {
+		}
+
+		Timer timer = registry.find("client.calls")
+				.tags("client", "StatisticsServiceClient", "method", "updateStatistics", "exception", "IllegalStateException")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	public void shouldAttributeInheritedRepositoryMethodsToRepository() {
+
+		AccountRepository repository = proxy(AccountRepository.class, null);
+
+		repository.findById("test");
+
+		Timer timer = registry.find("repository.calls")
+				.tags("repository", "AccountRepository", "method", "findById", "exception", "None")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	/**
+	 * Interface proxy, like the ones Feign and Spring Data create,
+	 * advised with the aspect
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, RuntimeException failure) {
+
+		Object target = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+			if (failure != null) {
+				throw failure;
+			}
+			return null;
+		});
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(aspect);
+
+		return (T) factory.getProxy();
+	}
+}
@@ -18,6 +18,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.util.Date;
+import java.util.List;
 
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -58,6 +59,22 @@ public class AccountControllerTest {
 				.andExpect(status().isOk());
 	}
 
+	@Test
+	public void shouldGetAccountsByNames() throws Exception {
+
+		final Account account = new Account();
+		account.setName("test");
+
+		final List<String> names = ImmutableList.of("test", "missing");
+
+		when(accountService.findByNames(names)).thenReturn(ImmutableList.of(account));
+
+		mockMvc.perform(post("/batch").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(names)))
+				.andExpect(jsonPath("$[0].name").value(account.getName()))
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(status().isOk());
+	}
+
 	@Test
 	public void shouldGetCurrentAccount() throws Exception {
 
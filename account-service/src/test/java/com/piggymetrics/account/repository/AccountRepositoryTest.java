@@ -14,6 +14,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -37,6 +38,17 @@ public class AccountRepositoryTest {
 		assertEquals(stub.getExpenses().size(), found.getExpenses().size());
 	}
 
+	@Test
+	public void shouldFindAccountsByNames() {
+
+		Account stub = getStubAccount();
+		repository.save(stub);
+
+		List<Account> found = repository.findByNameIn(Arrays.asList(stub.getName(), "missing"));
+		assertEquals(1, found.size());
+		assertEquals(stub.getName(), found.get(0).getName());
+	}
+
 	private Account getStubAccount() {
 
 		Saving saving = new Saving();
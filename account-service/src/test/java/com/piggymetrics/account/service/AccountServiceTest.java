@@ -1,7 +1,7 @@
 package com.piggymetrics.account.service;
 
 import com.piggymetrics.account.client.AuthServiceClient;
-import com.piggymetrics.account.client.StatisticsServiceClient;
+import com.piggymetrics.account.client.StatisticsUpdatePublisher;
 import com.piggymetrics.account.domain.*;
 import com.piggymetrics.account.repository.AccountRepository;
 import org.junit.Before;
@@ -10,7 +10,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -23,7 +29,7 @@ public class AccountServiceTest {
 	private AccountServiceImpl accountService;
 
 	@Mock
-	private StatisticsServiceClient statisticsClient;
+	private StatisticsUpdatePublisher statisticsPublisher;
 
 	@Mock
 	private AuthServiceClient authClient;
@@ -53,6 +59,25 @@ public class AccountServiceTest {
 		accountService.findByName("");
 	}
 
+	@Test
+	public void shouldFindByNames() {
+
+		final Account account = new Account();
+		account.setName("test");
+
+		final List<String> names = Arrays.asList("test", "missing");
+
+		when(repository.findByNameIn(names)).thenReturn(Collections.singletonList(account));
+		List<Account> found = accountService.findByNames(names);
+
+		assertEquals(Collections.singletonList(account), found);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenNamesAreEmpty() {
+		accountService.findByNames(Collections.emptyList());
+	}
+
 	@Test
 	public void shouldCreateAccountWithGivenUser() {
 
@@ -134,7 +159,53 @@ public class AccountServiceTest {
 		assertEquals(update.getIncomes().get(0).getIcon(), account.getIncomes().get(0).getIcon());
 		
 		verify(repository, times(1)).save(account);
-		verify(statisticsClient, times(1)).updateStatistics("test", account);
+		verify(statisticsPublisher, times(1)).publish("test", account);
+	}
+
+	@Test
+	public void shouldNotPublishWhenOnlyNoteHasChangedToday() {
+
+		final Account account = getStubAccountWithStatistics();
+		account.setLastSeen(new Date());
+
+		final Account update = getStubAccountWithStatistics();
+		update.setNote("new note");
+		update.getExpenses().get(0).setAmount(new BigDecimal("10.00"));
+		update.getExpenses().get(0).setIcon("cart");
+
+		when(accountService.findByName("test")).thenReturn(account);
+		accountService.saveChanges("test", update);
+
+		assertEquals("new note", account.getNote());
+		verify(repository, times(1)).save(account);
+		verify(statisticsPublisher, never()).publish(anyString(), any(Account.class));
+	}
+
+	@Test
+	public void shouldPublishUnchangedAccountOnceADay() {
+
+		final Account account = getStubAccountWithStatistics();
+		account.setLastSeen(Date.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+		when(accountService.findByName("test")).thenReturn(account);
+		accountService.saveChanges("test", getStubAccountWithStatistics());
+
+		verify(statisticsPublisher, times(1)).publish("test", account);
+	}
+
+	@Test
+	public void shouldPublishWhenAmountHasChanged() {
+
+		final Account account = getStubAccountWithStatistics();
+		account.setLastSeen(new Date());
+
+		final Account update = getStubAccountWithStatistics();
+		update.getSaving().setAmount(new BigDecimal(2000));
+
+		when(accountService.findByName("test")).thenReturn(account);
+		accountService.saveChanges("test", update);
+
+		verify(statisticsPublisher, times(1)).publish("test", account);
 	}
 
 	@Test(expected = IllegalArgumentException.class)
@@ -146,4 +217,29 @@ public class AccountServiceTest {
 		when(accountService.findByName("test")).thenReturn(null);
 		accountService.saveChanges("test", update);
 	}
+
+	private Account getStubAccountWithStatistics() {
+
+		Item grocery = new Item();
+		grocery.setTitle("Grocery");
+		grocery.setAmount(new BigDecimal(10));
+		grocery.setCurrency(Currency.USD);
+		grocery.setPeriod(TimePeriod.DAY);
+		grocery.setIcon("meal");
+
+		Saving saving = new Saving();
+		saving.setAmount(new BigDecimal(1500));
+		saving.setCurrency(Currency.USD);
+		saving.setInterest(new BigDecimal("3.32"));
+		saving.setDeposit(true);
+		saving.setCapitalization(false);
+
+		Account account = new Account();
+		account.setName("test");
+		account.setIncomes(new ArrayList<>());
+		account.setExpenses(new ArrayList<>(Arrays.asList(grocery)));
+		account.setSaving(saving);
+
+		return account;
+	}
 }
@@ -0,0 +1,156 @@
+package com.piggymetrics.account.service.security;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class AuthenticationCacheTest {
+
+	@Test
+	public void shouldResolveTokenOnlyOnce() {
+
+		AuthenticationCache cache = new AuthenticationCache(100, 60_000, 5_000);
+		AtomicInteger calls = new AtomicInteger();
+		OAuth2Authentication authentication = getStubAuthentication(null);
+
+		OAuth2Authentication first = cache.get("token", () -> {
+			calls.incrementAndGet();
+			return authentication;
+		});
+
+		OAuth2Authentication second = cache.get("token", () -> {
+			calls.incrementAndGet();
+			return authentication;
+		});
+
+		assertSame(authentication, first);
+		assertSame(authentication, second);
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void shouldRememberRejectedToken() {
+
+		AuthenticationCache cache = new AuthenticationCache(100, 60_000, 5_000);
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				cache.get("invalid", () -> {
+					calls.incrementAndGet();
+					throw new InvalidTokenException("invalid");
+				});
+			} catch (InvalidTokenException expected) {
+				// rejected token is rethrown on every call
+			}
+		}
+
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void shouldNotRememberFailedResolution() {
+
+		AuthenticationCache cache = new AuthenticationCache(100, 60_000, 5_000);
+		AtomicInteger calls = new AtomicInteger();
+		OAuth2Authentication authentication = getStubAuthentication(null);
+
+		try {
+			cache.get("token", () -> {
+				calls.incrementAndGet();
+				throw new IllegalStateException("auth-service is unavailable");
+			});
+			fail("expected the failure to be propagated");
+		} catch (IllegalStateException expected) {
+			// the token is neither resolved nor rejected
+		}
+
+		OAuth2Authentication result = cache.get("token", () -> {
+			calls.incrementAndGet();
+			return authentication;
+		});
+
+		assertSame(authentication, result);
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void shouldResolveTokenAgainWhenItHasExpired() {
+
+		AuthenticationCache cache = new AuthenticationCache(100, 60_000, 5_000);
+		AtomicInteger calls = new AtomicInteger();
+
+		long expiredAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) - 1;
+		OAuth2Authentication authentication = getStubAuthentication(expiredAt);
+
+		cache.get("token", () -> {
+			calls.incrementAndGet();
+			return authentication;
+		});
+
+		cache.get("token", () -> {
+			calls.incrementAndGet();
+			return authentication;
+		});
+
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void shouldCoalesceConcurrentLookups() throws Exception {
+
+		AuthenticationCache cache = new AuthenticationCache(100, 60_000, 5_000);
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		OAuth2Authentication authentication = getStubAuthentication(null);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(() -> cache.get("token", () -> {
+					calls.incrementAndGet();
+					release.await();
+					return authentication;
+				}));
+			}
+
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<?> future : futures) {
+				assertSame(authentication, future.get(1, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, calls.get());
+	}
+
+	private OAuth2Authentication getStubAuthentication(Long expiration) {
+
+		UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken("test", "N/A", Collections.emptyList());
+		user.setDetails(expiration == null ? Collections.emptyMap() : ImmutableMap.of("exp", expiration));
+
+		OAuth2Request request = new OAuth2Request(null, "browser", null, true, Collections.singleton("ui"),
+				null, null, null, null);
+
+		return new OAuth2Authentication(request, user);
+	}
+}
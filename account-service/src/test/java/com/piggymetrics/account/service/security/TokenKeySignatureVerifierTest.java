@@ -0,0 +1,97 @@
+package com.piggymetrics.account.service.security;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.springframework.security.jwt.crypto.sign.InvalidSignatureException;
+import org.springframework.security.jwt.crypto.sign.RsaSigner;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.web.client.RestOperations;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class TokenKeySignatureVerifierTest {
+
+	private static final String KEY_URI = "http://auth-service/uaa/oauth/token_key";
+
+	private static final byte[] CONTENT = "content".getBytes();
+
+	@Mock
+	private RestOperations restTemplate;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+	}
+
+	@Test
+	public void shouldFetchKeyOnlyOnce() throws Exception {
+
+		KeyPair keyPair = generateKeyPair();
+		when(restTemplate.getForObject(eq(KEY_URI), eq(Map.class))).thenReturn(getTokenKey(keyPair));
+
+		TokenKeySignatureVerifier verifier = new TokenKeySignatureVerifier(KEY_URI, restTemplate, 60_000);
+
+		verifier.verify(CONTENT, sign(keyPair, CONTENT));
+		verifier.verify(CONTENT, sign(keyPair, CONTENT));
+
+		verify(restTemplate, times(1)).getForObject(KEY_URI, Map.class);
+	}
+
+	@Test
+	public void shouldFetchKeyAgainWhenItHasBeenRotated() throws Exception {
+
+		KeyPair oldKeyPair = generateKeyPair();
+		KeyPair newKeyPair = generateKeyPair();
+		when(restTemplate.getForObject(eq(KEY_URI), eq(Map.class)))
+				.thenReturn(getTokenKey(oldKeyPair), getTokenKey(newKeyPair));
+
+		TokenKeySignatureVerifier verifier = new TokenKeySignatureVerifier(KEY_URI, restTemplate, 0);
+
+		verifier.verify(CONTENT, sign(oldKeyPair, CONTENT));
+		verifier.verify(CONTENT, sign(newKeyPair, CONTENT));
+
+		verify(restTemplate, times(2)).getForObject(KEY_URI, Map.class);
+	}
+
+	@Test(expected = InvalidSignatureException.class)
+	public void shouldRejectForeignSignatureWithoutFetchingKeyAgain() throws Exception {
+
+		KeyPair keyPair = generateKeyPair();
+		when(restTemplate.getForObject(eq(KEY_URI), eq(Map.class))).thenReturn(getTokenKey(keyPair));
+
+		TokenKeySignatureVerifier verifier = new TokenKeySignatureVerifier(KEY_URI, restTemplate, 60_000);
+		verifier.verify(CONTENT, sign(keyPair, CONTENT));
+
+		try {
+			verifier.verify(CONTENT, sign(generateKeyPair(), CONTENT));
+		} finally {
+			verify(restTemplate, times(1)).getForObject(KEY_URI, Map.class);
+		}
+	}
+
+	private KeyPair generateKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(1024);
+		return generator.generateKeyPair();
+	}
+
+	private Map<String, String> getTokenKey(KeyPair keyPair) {
+		JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+		converter.setKeyPair(keyPair);
+		return converter.getKey();
+	}
+
+	private byte[] sign(KeyPair keyPair, byte[] content) {
+		return new RsaSigner((RSAPrivateKey) keyPair.getPrivate()).sign(content);
+	}
+}
@@ -0,0 +1,66 @@
+package com.piggymetrics.auth.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of repository calls, published as {@code repository.calls} timer
+ * with percentile histograms. Along with {@code http.server.requests} of each
+ * controller method, it shows whether the storage dominates request latency.
+ */
+@Aspect
+@Component
+public class CallMetricsAspect {
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object timeRepositoryCall(ProceedingJoinPoint point) throws Throwable {
+		return time("repository.calls", "repository", point);
+	}
+
+	private Object time(String name, String typeTag, ProceedingJoinPoint point) throws Throwable {
+
+		long start = System.nanoTime();
+		String exception = "None";
+
+		try {
+			return point.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			Timer.builder(name)
+					.tag(typeTag, getType(point))
+					.tag("method", point.getSignature().getName())
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.register(registry)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Repositories are interface proxies, inherited methods
+	 * like {@code save} would be attributed to the base interface otherwise
+	 */
+	private static String getType(ProceedingJoinPoint point) {
+
+		Object target = point.getTarget();
+		if (target != null && Proxy.isProxyClass(target.getClass())) {
+			return AopProxyUtils.proxiedUserInterfaces(target)[0].getSimpleName();
+		}
+
+		return point.getSignature().getDeclaringType().getSimpleName();
+	}
+}
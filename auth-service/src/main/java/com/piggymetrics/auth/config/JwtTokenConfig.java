@@ -0,0 +1,64 @@
+package com.piggymetrics.auth.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.KeyStoreKeyFactory;
+import org.springframework.util.StringUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Signed (JWT) token mode. Resource servers verify such tokens locally
+ * with the public key served by {@code /oauth/token_key} endpoint,
+ * so auth-service doesn't have to keep issued tokens in memory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "security.oauth2.jwt.enabled", havingValue = "true")
+public class JwtTokenConfig {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Value("${security.oauth2.jwt.key-store:}")
+    private String keyStore;
+
+    @Value("${security.oauth2.jwt.key-store-password:}")
+    private String keyStorePassword;
+
+    @Value("${security.oauth2.jwt.key-alias:jwt}")
+    private String keyAlias;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Bean
+    public JwtAccessTokenConverter accessTokenConverter() throws NoSuchAlgorithmException {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setKeyPair(getKeyPair());
+        return converter;
+    }
+
+    private KeyPair getKeyPair() throws NoSuchAlgorithmException {
+
+        if (StringUtils.hasText(keyStore)) {
+            KeyStoreKeyFactory factory = new KeyStoreKeyFactory(resourceLoader.getResource(keyStore),
+                    keyStorePassword.toCharArray());
+            return factory.getKeyPair(keyAlias);
+        }
+
+        log.warn("security.oauth2.jwt.key-store is not set, generating a key pair. Tokens won't survive a restart " +
+                "and can't be shared between auth-service instances");
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,57 @@
+package com.piggymetrics.auth.controller;
+
+import com.piggymetrics.auth.domain.TokenIntrospection;
+import com.piggymetrics.auth.service.TokenIntrospectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Lightweight alternative to {@code /users/current} for token validation
+ * by resource servers: returns only username, client id, scope, authorities
+ * and expiration
+ */
+@RestController
+@RequestMapping("/tokens")
+public class TokenController {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private TokenIntrospectionService introspectionService;
+
+	/**
+	 * Describes the bearer token of the request itself,
+	 * suitable as {@code security.oauth2.resource.user-info-uri}
+	 */
+	@RequestMapping(value = "/current", method = RequestMethod.GET)
+	public TokenIntrospection getCurrentToken(OAuth2Authentication authentication) {
+		return introspectionService.describe(authentication);
+	}
+
+	/**
+	 * Describes a batch of tokens at once, in the order they are given
+	 */
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(value = "/introspect", method = RequestMethod.POST)
+	public List<TokenIntrospection> introspect(@RequestBody List<String> tokens) {
+		return introspectionService.introspect(tokens);
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public void processValidationError(IllegalArgumentException e) {
+		log.info("Returning HTTP 400 Bad Request: {}", e.getMessage());
+	}
+}
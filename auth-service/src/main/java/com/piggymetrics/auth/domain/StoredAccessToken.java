@@ -0,0 +1,109 @@
+package com.piggymetrics.auth.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Issued access token along with the authentication it has been issued for,
+ * both serialized the same way {@code JdbcTokenStore} does.
+ *
+ * Documents are removed by the TTL index once the token expires.
+ */
+@Document(collection = "access_tokens")
+@CompoundIndex(name = "client_username", def = "{'clientId': 1, 'username': 1}")
+public class StoredAccessToken {
+
+	/**
+	 * Hash of the token value
+	 */
+	@Id
+	private String id;
+
+	private byte[] token;
+
+	@Indexed
+	private String authenticationId;
+
+	private String username;
+
+	private String clientId;
+
+	private byte[] authentication;
+
+	/**
+	 * Hash of the refresh token value
+	 */
+	@Indexed
+	private String refreshToken;
+
+	@Indexed(expireAfterSeconds = 0)
+	private Date expiresAt;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public byte[] getToken() {
+		return token;
+	}
+
+	public void setToken(byte[] token) {
+		this.token = token;
+	}
+
+	public String getAuthenticationId() {
+		return authenticationId;
+	}
+
+	public void setAuthenticationId(String authenticationId) {
+		this.authenticationId = authenticationId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public String getClientId() {
+		return clientId;
+	}
+
+	public void setClientId(String clientId) {
+		this.clientId = clientId;
+	}
+
+	public byte[] getAuthentication() {
+		return authentication;
+	}
+
+	public void setAuthentication(byte[] authentication) {
+		this.authentication = authentication;
+	}
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
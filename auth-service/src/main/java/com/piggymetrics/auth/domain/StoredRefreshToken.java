@@ -0,0 +1,62 @@
+package com.piggymetrics.auth.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Issued refresh token along with the authentication it has been issued for.
+ *
+ * Documents of expiring tokens are removed by the TTL index once the token
+ * expires, non-expiring tokens are kept until they're removed explicitly.
+ */
+@Document(collection = "refresh_tokens")
+public class StoredRefreshToken {
+
+	/**
+	 * Hash of the token value
+	 */
+	@Id
+	private String id;
+
+	private byte[] token;
+
+	private byte[] authentication;
+
+	@Indexed(expireAfterSeconds = 0)
+	private Date expiresAt;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public byte[] getToken() {
+		return token;
+	}
+
+	public void setToken(byte[] token) {
+		this.token = token;
+	}
+
+	public byte[] getAuthentication() {
+		return authentication;
+	}
+
+	public void setAuthentication(byte[] authentication) {
+		this.authentication = authentication;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
@@ -0,0 +1,74 @@
+package com.piggymetrics.auth.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Set;
+
+/**
+ * Compact description of an access token, in the spirit of RFC 7662.
+ * Inactive (unknown, expired or revoked) tokens have only {@code active: false}.
+ *
+ * For client-only tokens {@code username} is the client id, same as
+ * the principal name such tokens are resolved to. {@code authorities}
+ * are the ones of the user, or of the client for client-only tokens.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+
+	private static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, null, null, null, null);
+
+	private final boolean active;
+
+	private final String username;
+
+	@JsonProperty("client_id")
+	private final String clientId;
+
+	private final Set<String> scope;
+
+	private final Set<String> authorities;
+
+	/**
+	 * Expiration time, in seconds since epoch
+	 */
+	private final Long exp;
+
+	public TokenIntrospection(boolean active, String username, String clientId, Set<String> scope,
+							  Set<String> authorities, Long exp) {
+		this.active = active;
+		this.username = username;
+		this.clientId = clientId;
+		this.scope = scope;
+		this.authorities = authorities;
+		this.exp = exp;
+	}
+
+	public static TokenIntrospection inactive() {
+		return INACTIVE;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getClientId() {
+		return clientId;
+	}
+
+	public Set<String> getScope() {
+		return scope;
+	}
+
+	public Set<String> getAuthorities() {
+		return authorities;
+	}
+
+	public Long getExp() {
+		return exp;
+	}
+}
@@ -0,0 +1,20 @@
+package com.piggymetrics.auth.repository;
+
+import com.piggymetrics.auth.domain.StoredAccessToken;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccessTokenRepository extends CrudRepository<StoredAccessToken, String> {
+
+	StoredAccessToken findFirstByAuthenticationId(String authenticationId);
+
+	List<StoredAccessToken> findByClientIdAndUsername(String clientId, String username);
+
+	List<StoredAccessToken> findByClientId(String clientId);
+
+	List<StoredAccessToken> findByRefreshToken(String refreshToken);
+
+}
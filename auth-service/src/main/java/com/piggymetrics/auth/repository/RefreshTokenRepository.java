@@ -0,0 +1,10 @@
+package com.piggymetrics.auth.repository;
+
+import com.piggymetrics.auth.domain.StoredRefreshToken;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<StoredRefreshToken, String> {
+
+}
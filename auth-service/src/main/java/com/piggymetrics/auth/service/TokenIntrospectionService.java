@@ -0,0 +1,33 @@
+package com.piggymetrics.auth.service;
+
+import com.piggymetrics.auth.domain.TokenIntrospection;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.util.List;
+
+public interface TokenIntrospectionService {
+
+	/**
+	 * @return description of the token, or {@link TokenIntrospection#inactive()}
+	 * if it's unknown, expired or revoked
+	 */
+	TokenIntrospection introspect(String token);
+
+	/**
+	 * Describes the token a request has been authenticated with, without
+	 * resolving its authentication again
+	 *
+	 * @param authentication authentication of the request, with {@link
+	 * org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails}
+	 * @return description of the token, or {@link TokenIntrospection#inactive()}
+	 * if it has been revoked meanwhile
+	 */
+	TokenIntrospection describe(OAuth2Authentication authentication);
+
+	/**
+	 * @return descriptions in the order of given tokens
+	 * @throws IllegalArgumentException if there are more tokens than allowed in a batch
+	 */
+	List<TokenIntrospection> introspect(List<String> tokens);
+
+}
@@ -0,0 +1,89 @@
+package com.piggymetrics.auth.service;
+
+import com.piggymetrics.auth.domain.TokenIntrospection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerEndpointsConfiguration;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+	@Value("${security.oauth2.introspection.max-batch-size:100}")
+	private int maxBatchSize;
+
+	@Autowired
+	private AuthorizationServerEndpointsConfiguration endpoints;
+
+	@Override
+	public TokenIntrospection introspect(String token) {
+
+		if (!StringUtils.hasText(token)) {
+			return TokenIntrospection.inactive();
+		}
+
+		OAuth2Authentication authentication;
+		try {
+			authentication = getTokenServices().loadAuthentication(token);
+		} catch (InvalidTokenException | AuthenticationException e) {
+			return TokenIntrospection.inactive();
+		}
+
+		return describe(authentication, token);
+	}
+
+	@Override
+	public TokenIntrospection describe(OAuth2Authentication authentication) {
+		OAuth2AuthenticationDetails details = (OAuth2AuthenticationDetails) authentication.getDetails();
+		return describe(authentication, details.getTokenValue());
+	}
+
+	@Override
+	public List<TokenIntrospection> introspect(List<String> tokens) {
+
+		Assert.isTrue(tokens.size() <= maxBatchSize, "no more than " + maxBatchSize + " tokens are allowed in a batch");
+
+		List<TokenIntrospection> result = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			result.add(introspect(token));
+		}
+
+		return result;
+	}
+
+	private TokenIntrospection describe(OAuth2Authentication authentication, String token) {
+
+		OAuth2AccessToken accessToken = getTokenServices().readAccessToken(token);
+		if (authentication == null || accessToken == null || accessToken.isExpired()) {
+			return TokenIntrospection.inactive();
+		}
+
+		Long exp = accessToken.getExpiration() == null ? null
+				: TimeUnit.MILLISECONDS.toSeconds(accessToken.getExpiration().getTime());
+
+		return new TokenIntrospection(true, authentication.getName(),
+				authentication.getOAuth2Request().getClientId(), accessToken.getScope(),
+				AuthorityUtils.authorityListToSet(authentication.getAuthorities()), exp);
+	}
+
+	/**
+	 * @return same token services as {@code /oauth/check_token}, so expired
+	 * and revoked tokens are rejected the same way
+	 */
+	private ResourceServerTokenServices getTokenServices() {
+		return endpoints.getEndpointsConfigurer().getResourceServerTokenServices();
+	}
+}
@@ -6,4 +6,11 @@ public interface UserService {
 
 	void create(User user);
 
+	/**
+	 * Replaces the password of an existing user with the hash of the given one
+	 *
+	 * @throws IllegalArgumentException if the user doesn't exist
+	 */
+	void changePassword(String username, String password);
+
 }
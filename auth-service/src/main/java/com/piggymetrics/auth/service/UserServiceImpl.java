@@ -2,10 +2,11 @@ package com.piggymetrics.auth.service;
 
 import com.piggymetrics.auth.domain.User;
 import com.piggymetrics.auth.repository.UserRepository;
+import com.piggymetrics.auth.service.security.MongoUserDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -16,11 +17,15 @@ public class UserServiceImpl implements UserService {
 
 	private final Logger log = LoggerFactory.getLogger(getClass());
 
-	private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-
 	@Autowired
 	private UserRepository repository;
 
+	@Autowired
+	private PasswordEncoder encoder;
+
+	@Autowired
+	private MongoUserDetailsService userDetailsService;
+
 	@Override
 	public void create(User user) {
 
@@ -31,7 +36,21 @@ public class UserServiceImpl implements UserService {
 		user.setPassword(hash);
 
 		repository.save(user);
+		userDetailsService.evict(user.getUsername());
 
 		log.info("new user has been created: {}", user.getUsername());
 	}
+
+	@Override
+	public void changePassword(String username, String password) {
+
+		User user = repository.findById(username)
+				.orElseThrow(() -> new IllegalArgumentException("user doesn't exist: " + username));
+
+		user.setPassword(encoder.encode(password));
+		repository.save(user);
+		userDetailsService.evict(username);
+
+		log.debug("password has been changed: {}", username);
+	}
 }
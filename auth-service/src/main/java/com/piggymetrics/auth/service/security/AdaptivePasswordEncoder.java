@@ -0,0 +1,158 @@
+package com.piggymetrics.auth.service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt {@link PasswordEncoder} with a configurable work factor, running
+ * on a bounded pool of hashing threads.
+ *
+ * Hashing is limited to {@code security.password.hashing.threads}, so a login
+ * burst can't take all the cores from token validation. When more than
+ * {@code security.password.hashing.queue-capacity} hashes are waiting, new ones
+ * are rejected with {@link PasswordHashingRejectedException} instead of piling up.
+ *
+ * Hashes made with a different work factor still match, {@link #upgradeEncoding(String)}
+ * tells if the password should be rehashed.
+ */
+@Component
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+	private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2a?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Value("${security.password.strength:10}")
+	private int strength;
+
+	@Value("${security.password.hashing.threads:0}")
+	private int threads;
+
+	@Value("${security.password.hashing.queue-capacity:50}")
+	private int queueCapacity;
+
+	@Value("${security.password.target-hashing-time:250}")
+	private long targetHashingTime;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private BCryptPasswordEncoder encoder;
+
+	private ThreadPoolExecutor executor;
+
+	private Timer hashing;
+
+	private Counter rejected;
+
+	@PostConstruct
+	public void init() {
+
+		encoder = new BCryptPasswordEncoder(strength);
+
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+		threadFactory.setDaemon(true);
+
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+		new ExecutorServiceMetrics(executor, "auth.password.hashing", Tags.empty()).bindTo(registry);
+		hashing = registry.timer("auth.password.hashing");
+		rejected = registry.counter("auth.password.hashing.rejected");
+
+		benchmark();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> encoder.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> encoder.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * @return true if the hash was made with a different work factor than the configured one
+	 */
+	public boolean upgradeEncoding(String encodedPassword) {
+
+		if (encodedPassword == null) {
+			return false;
+		}
+
+		Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+	}
+
+	private <T> T submit(Callable<T> task) {
+
+		Future<T> future;
+		try {
+			future = executor.submit(() -> hashing.recordCallable(task));
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new PasswordHashingRejectedException("too many password hashing requests, try again later");
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Measures a single hash with the configured work factor, so its cost
+	 * is visible in the logs before the first login
+	 */
+	private void benchmark() {
+
+		long start = System.nanoTime();
+		encoder.encode("benchmark");
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		if (elapsed > targetHashingTime) {
+			log.warn("password hashing with strength {} takes {} ms, more than {} ms target", strength, elapsed, targetHashingTime);
+		} else {
+			log.info("password hashing with strength {} takes {} ms", strength, elapsed);
+		}
+	}
+}
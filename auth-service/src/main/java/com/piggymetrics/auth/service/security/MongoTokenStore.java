@@ -0,0 +1,339 @@
+package com.piggymetrics.auth.service.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.piggymetrics.auth.domain.StoredAccessToken;
+import com.piggymetrics.auth.domain.StoredRefreshToken;
+import com.piggymetrics.auth.repository.AccessTokenRepository;
+import com.piggymetrics.auth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.SerializationUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.AuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.DefaultAuthenticationKeyGenerator;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenStore} backed by auth-mongodb, so issued tokens survive restarts
+ * and are shared between auth-service instances. Tokens and authentications are
+ * serialized the same way {@code JdbcTokenStore} does, token values are stored
+ * hashed.
+ *
+ * Recently used access tokens are kept in a bounded in-process cache for
+ * {@code security.oauth2.token-store.cache-time-to-live}, so token validation
+ * doesn't query Mongo each time. Note, that a token revoked by another instance
+ * stays valid for this one until the cached entry expires.
+ *
+ * Expired tokens are removed by TTL indexes. Expired access tokens discovered
+ * on read are removed in batches, instead of a delete per read.
+ */
+@Component
+@ConditionalOnProperty(name = "security.oauth2.jwt.enabled", havingValue = "false", matchIfMissing = true)
+public class MongoTokenStore implements TokenStore {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final AuthenticationKeyGenerator authenticationKeyGenerator = new DefaultAuthenticationKeyGenerator();
+
+	private final Set<String> expired = ConcurrentHashMap.newKeySet();
+
+	@Value("${security.oauth2.token-store.cache-size:10000}")
+	private long cacheSize;
+
+	@Value("${security.oauth2.token-store.cache-time-to-live:30000}")
+	private long cacheTimeToLive;
+
+	@Value("${security.oauth2.token-store.cleanup-batch-size:500}")
+	private int cleanupBatchSize;
+
+	@Autowired
+	private AccessTokenRepository accessTokens;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokens;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private Cache<String, CachedToken> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(cacheTimeToLive, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+		GuavaCacheMetrics.monitor(registry, cache, "oauth2.tokens");
+	}
+
+	@Override
+	public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+		return readAuthentication(token.getValue());
+	}
+
+	@Override
+	public OAuth2Authentication readAuthentication(String tokenValue) {
+		CachedToken cached = read(tokenValue);
+		return cached == null ? null : cached.authentication;
+	}
+
+	@Override
+	public OAuth2AccessToken readAccessToken(String tokenValue) {
+		CachedToken cached = read(tokenValue);
+		return cached == null ? null : cached.token;
+	}
+
+	@Override
+	public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+
+		StoredAccessToken stored = new StoredAccessToken();
+		stored.setId(extractTokenKey(token.getValue()));
+		stored.setToken(SerializationUtils.serialize(token));
+		stored.setAuthenticationId(authenticationKeyGenerator.extractKey(authentication));
+		stored.setUsername(authentication.isClientOnly() ? null : authentication.getName());
+		stored.setClientId(authentication.getOAuth2Request().getClientId());
+		stored.setAuthentication(SerializationUtils.serialize(authentication));
+		stored.setExpiresAt(token.getExpiration());
+
+		if (token.getRefreshToken() != null) {
+			stored.setRefreshToken(extractTokenKey(token.getRefreshToken().getValue()));
+		}
+
+		accessTokens.save(stored);
+		cache.put(token.getValue(), new CachedToken(token, authentication));
+	}
+
+	@Override
+	public void removeAccessToken(OAuth2AccessToken token) {
+
+		cache.invalidate(token.getValue());
+
+		String id = extractTokenKey(token.getValue());
+
+		if (token.isExpired()) {
+			// nobody can use it anyway, so it's removed with the next batch
+			expired.add(id);
+		} else {
+			accessTokens.deleteById(id);
+		}
+	}
+
+	@Override
+	public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+
+		StoredRefreshToken stored = new StoredRefreshToken();
+		stored.setId(extractTokenKey(refreshToken.getValue()));
+		stored.setToken(SerializationUtils.serialize(refreshToken));
+		stored.setAuthentication(SerializationUtils.serialize(authentication));
+
+		if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+			stored.setExpiresAt(((ExpiringOAuth2RefreshToken) refreshToken).getExpiration());
+		}
+
+		refreshTokens.save(stored);
+	}
+
+	@Override
+	public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+		return refreshTokens.findById(extractTokenKey(tokenValue))
+				.map(stored -> this.<OAuth2RefreshToken>deserialize(stored.getToken()))
+				.orElse(null);
+	}
+
+	@Override
+	public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+		return refreshTokens.findById(extractTokenKey(token.getValue()))
+				.map(stored -> this.<OAuth2Authentication>deserialize(stored.getAuthentication()))
+				.orElse(null);
+	}
+
+	@Override
+	public void removeRefreshToken(OAuth2RefreshToken token) {
+		refreshTokens.deleteById(extractTokenKey(token.getValue()));
+	}
+
+	@Override
+	public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+
+		List<StoredAccessToken> stored = accessTokens.findByRefreshToken(extractTokenKey(refreshToken.getValue()));
+
+		for (OAuth2AccessToken token : deserializeTokens(stored)) {
+			cache.invalidate(token.getValue());
+		}
+
+		accessTokens.deleteAll(stored);
+	}
+
+	/**
+	 * Client-only authentications never get their existing token back, so services
+	 * renewing their {@code client_credentials} token ahead of expiration get a new one
+	 * (the previous one stays valid until it expires)
+	 */
+	@Override
+	public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+
+		if (authentication.isClientOnly()) {
+			return null;
+		}
+
+		String key = authenticationKeyGenerator.extractKey(authentication);
+
+		StoredAccessToken stored = accessTokens.findFirstByAuthenticationId(key);
+		if (stored == null) {
+			return null;
+		}
+
+		OAuth2AccessToken token = deserialize(stored.getToken());
+		if (token == null) {
+			return null;
+		}
+
+		// keep the stored authentication up to date, same as JdbcTokenStore does
+		OAuth2Authentication current = readAuthentication(token.getValue());
+		if (current == null || !key.equals(authenticationKeyGenerator.extractKey(current))) {
+			removeAccessToken(token);
+			storeAccessToken(token, authentication);
+		}
+
+		return token;
+	}
+
+	@Override
+	public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+		return deserializeTokens(accessTokens.findByClientIdAndUsername(clientId, userName));
+	}
+
+	@Override
+	public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+		return deserializeTokens(accessTokens.findByClientId(clientId));
+	}
+
+	/**
+	 * Removes expired access tokens discovered since the previous run,
+	 * with a single query per batch
+	 */
+	@Scheduled(fixedDelayString = "${security.oauth2.token-store.cleanup-interval:10000}")
+	public void removeExpired() {
+
+		while (!expired.isEmpty()) {
+
+			List<String> batch = new ArrayList<>(cleanupBatchSize);
+			Iterator<String> iterator = expired.iterator();
+
+			while (iterator.hasNext() && batch.size() < cleanupBatchSize) {
+				batch.add(iterator.next());
+				iterator.remove();
+			}
+
+			mongoTemplate.remove(Query.query(Criteria.where("_id").in(batch)), StoredAccessToken.class);
+			log.debug("{} expired access tokens have been removed", batch.size());
+		}
+	}
+
+	private CachedToken read(String tokenValue) {
+
+		CachedToken cached = cache.getIfPresent(tokenValue);
+		if (cached != null) {
+			return cached;
+		}
+
+		StoredAccessToken stored = accessTokens.findById(extractTokenKey(tokenValue)).orElse(null);
+		if (stored == null) {
+			return null;
+		}
+
+		OAuth2AccessToken token = deserialize(stored.getToken());
+		OAuth2Authentication authentication = deserialize(stored.getAuthentication());
+
+		if (token == null || authentication == null) {
+			accessTokens.deleteById(stored.getId());
+			return null;
+		}
+
+		cached = new CachedToken(token, authentication);
+		cache.put(tokenValue, cached);
+
+		return cached;
+	}
+
+	private List<OAuth2AccessToken> deserializeTokens(List<StoredAccessToken> stored) {
+
+		List<OAuth2AccessToken> tokens = new ArrayList<>(stored.size());
+		for (StoredAccessToken item : stored) {
+			OAuth2AccessToken token = deserialize(item.getToken());
+			if (token != null) {
+				tokens.add(token);
+			}
+		}
+
+		return tokens;
+	}
+
+	/**
+	 * @return deserialized object, or null if it's incompatible with the current classes
+	 */
+	private <T> T deserialize(byte[] bytes) {
+		try {
+			return SerializationUtils.deserialize(bytes);
+		} catch (IllegalArgumentException e) {
+			log.warn("failed to deserialize stored token", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Same key as {@code JdbcTokenStore} uses
+	 */
+	private String extractTokenKey(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			byte[] bytes = digest.digest(value.getBytes("UTF-8"));
+			return String.format("%032x", new BigInteger(1, bytes));
+		} catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+			throw new IllegalStateException("MD5 algorithm or UTF-8 encoding is not available", e);
+		}
+	}
+
+	private static class CachedToken {
+
+		private final OAuth2AccessToken token;
+
+		private final OAuth2Authentication authentication;
+
+		CachedToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+			this.token = token;
+			this.authentication = authentication;
+		}
+	}
+}
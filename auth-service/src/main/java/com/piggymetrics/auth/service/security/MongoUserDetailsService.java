@@ -1,21 +1,72 @@
 package com.piggymetrics.auth.service.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.piggymetrics.auth.domain.User;
 import com.piggymetrics.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads users from auth-mongodb, keeping recently loaded ones in a bounded
+ * near-cache for {@code security.users.cache-time-to-live}. Writers must
+ * {@link #evict(String)} the user after changing it, other instances see
+ * the change when their cached entry expires.
+ */
 @Service
 public class MongoUserDetailsService implements UserDetailsService {
 
+	@Value("${security.users.cache-size:10000}")
+	private long cacheSize;
+
+	@Value("${security.users.cache-time-to-live:60000}")
+	private long cacheTimeToLive;
+
 	@Autowired
 	private UserRepository repository;
 
+	@Autowired
+	private MeterRegistry registry;
+
+	private Cache<String, User> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.expireAfterWrite(cacheTimeToLive, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+		GuavaCacheMetrics.monitor(registry, cache, "auth.users");
+	}
+
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-		return repository.findById(username).orElseThrow(()->new UsernameNotFoundException(username));
+		User user = cache.getIfPresent(username);
+		if (user != null) {
+			return user;
+		}
+
+		user = repository.findById(username).orElseThrow(()->new UsernameNotFoundException(username));
+		cache.put(username, user);
+
+		return user;
+	}
+
+	/**
+	 * Removes the user from the near-cache, so the next lookup reads it from auth-mongodb
+	 */
+	public void evict(String username) {
+		cache.invalidate(username);
 	}
 }
@@ -0,0 +1,28 @@
+package com.piggymetrics.auth.service.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing queue is full. Results in
+ * {@code 503 temporarily_unavailable} instead of a slow response,
+ * so clients can retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingRejectedException extends OAuth2Exception {
+
+	public PasswordHashingRejectedException(String msg) {
+		super(msg);
+	}
+
+	@Override
+	public String getOAuth2ErrorCode() {
+		return "temporarily_unavailable";
+	}
+
+	@Override
+	public int getHttpErrorCode() {
+		return HttpStatus.SERVICE_UNAVAILABLE.value();
+	}
+}
@@ -0,0 +1,48 @@
+package com.piggymetrics.auth.service.security;
+
+import com.piggymetrics.auth.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Authenticates users with {@link AdaptivePasswordEncoder} and rehashes
+ * passwords hashed with an outdated work factor on successful login,
+ * while the raw password is known.
+ *
+ * Rehashing is best effort: the login succeeds even if it fails.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final AdaptivePasswordEncoder encoder;
+
+	private final UserService userService;
+
+	public RehashingAuthenticationProvider(UserDetailsService userDetailsService,
+										   AdaptivePasswordEncoder encoder, UserService userService) {
+		this.encoder = encoder;
+		this.userService = userService;
+		setUserDetailsService(userDetailsService);
+		setPasswordEncoder(encoder);
+	}
+
+	@Override
+	protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+
+		if (authentication.getCredentials() != null && encoder.upgradeEncoding(user.getPassword())) {
+			try {
+				userService.changePassword(user.getUsername(), authentication.getCredentials().toString());
+				log.info("password has been rehashed: {}", user.getUsername());
+			} catch (RuntimeException e) {
+				log.warn("failed to rehash password: {}", user.getUsername(), e);
+			}
+		}
+
+		return super.createSuccessAuthentication(principal, authentication, user);
+	}
+}
@@ -0,0 +1,80 @@
+package com.piggymetrics.auth.config;
+
+import com.piggymetrics.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class CallMetricsAspectTest {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final CallMetricsAspect aspect = new CallMetricsAspect();
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(aspect, "registry", registry);
+	}
+
+	@Test
+	public void shouldTimeRepositoryCalls() {
+
+		UserRepository repository = proxy(UserRepository.class, null);
+
+		repository.existsById("test");
+
+		Timer timer = registry.find("repository.calls")
+				.tags("repository", "UserRepository", "method", "existsById", "exception", "None")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	public void shouldTagFailedRepositoryCallsWithException() {
+
+		UserRepository repository = proxy(UserRepository.class, new IllegalStateException());
+
+		try {
+			repository.findById("test");
+		} catch (IllegalStateException expected) {
+		}
+
+		Timer timer = registry.find("repository.calls")
+				.tags("repository", "UserRepository", "method", "findById", "exception", "IllegalStateException")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	/**
+	 * Interface proxy, like the ones Spring Data creates,
+	 * advised with the aspect
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, RuntimeException failure) {
+
+		Object target = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+			if (failure != null) {
+				throw failure;
+			}
+			return method.getReturnType() == boolean.class ? false : null;
+		});
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(aspect);
+
+		return (T) factory.getProxy();
+	}
+}
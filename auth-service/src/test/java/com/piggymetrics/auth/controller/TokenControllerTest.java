@@ -0,0 +1,102 @@
+package com.piggymetrics.auth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.piggymetrics.auth.domain.TokenIntrospection;
+import com.piggymetrics.auth.service.TokenIntrospectionService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TokenControllerTest {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@InjectMocks
+	private TokenController tokenController;
+
+	@Mock
+	private TokenIntrospectionService introspectionService;
+
+	private MockMvc mockMvc;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		this.mockMvc = MockMvcBuilders.standaloneSetup(tokenController).build();
+	}
+
+	@Test
+	public void shouldIntrospectBatchOfTokens() throws Exception {
+
+		List<String> tokens = ImmutableList.of("active", "revoked");
+
+		when(introspectionService.introspect(tokens)).thenReturn(ImmutableList.of(
+				new TokenIntrospection(true, "test", "browser", ImmutableSet.of("ui"), ImmutableSet.of("ROLE_USER"), 1500000000L),
+				TokenIntrospection.inactive()));
+
+		mockMvc.perform(post("/tokens/introspect").contentType(MediaType.APPLICATION_JSON)
+				.content(mapper.writeValueAsString(tokens)))
+				.andExpect(jsonPath("$[0].active").value(true))
+				.andExpect(jsonPath("$[0].username").value("test"))
+				.andExpect(jsonPath("$[0].client_id").value("browser"))
+				.andExpect(jsonPath("$[0].scope[0]").value("ui"))
+				.andExpect(jsonPath("$[0].authorities[0]").value("ROLE_USER"))
+				.andExpect(jsonPath("$[0].exp").value(1500000000L))
+				.andExpect(jsonPath("$[1].active").value(false))
+				.andExpect(jsonPath("$[1].username").doesNotExist())
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void shouldDescribeCurrentTokenFromRequestAuthentication() throws Exception {
+
+		OAuth2Request request = new OAuth2Request(null, "browser", null, true, ImmutableSet.of("ui"),
+				null, null, null, null);
+		OAuth2Authentication authentication = new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken("test", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+		when(introspectionService.describe(authentication)).thenReturn(
+				new TokenIntrospection(true, "test", "browser", ImmutableSet.of("ui"), ImmutableSet.of("ROLE_USER"), 1500000000L));
+
+		mockMvc.perform(get("/tokens/current").principal(authentication))
+				.andExpect(jsonPath("$.active").value(true))
+				.andExpect(jsonPath("$.username").value("test"))
+				.andExpect(jsonPath("$.authorities[0]").value("ROLE_USER"))
+				.andExpect(status().isOk());
+
+		verify(introspectionService).describe(authentication);
+		verify(introspectionService, never()).introspect(anyString());
+	}
+
+	@Test
+	public void shouldFailWhenBatchIsTooLarge() throws Exception {
+
+		when(introspectionService.introspect(anyList())).thenThrow(new IllegalArgumentException("too many tokens"));
+
+		mockMvc.perform(post("/tokens/introspect").contentType(MediaType.APPLICATION_JSON).content("[\"token\"]"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,148 @@
+package com.piggymetrics.auth.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.piggymetrics.auth.domain.TokenIntrospection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerEndpointsConfiguration;
+import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class TokenIntrospectionServiceTest {
+
+	@InjectMocks
+	private TokenIntrospectionServiceImpl introspectionService;
+
+	@Mock
+	private AuthorizationServerEndpointsConfiguration endpoints;
+
+	@Mock
+	private DefaultTokenServices tokenServices;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(introspectionService, "maxBatchSize", 2);
+
+		when(endpoints.getEndpointsConfigurer()).thenReturn(new AuthorizationServerEndpointsConfigurer().tokenServices(tokenServices));
+	}
+
+	@Test
+	public void shouldDescribeActiveToken() {
+
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("active");
+		token.setExpiration(new Date(System.currentTimeMillis() + 60000));
+		token.setScope(ImmutableSet.of("ui"));
+
+		when(tokenServices.loadAuthentication("active")).thenReturn(getAuthentication());
+		when(tokenServices.readAccessToken("active")).thenReturn(token);
+
+		TokenIntrospection introspection = introspectionService.introspect("active");
+
+		assertTrue(introspection.isActive());
+		assertEquals("test", introspection.getUsername());
+		assertEquals("browser", introspection.getClientId());
+		assertEquals(ImmutableSet.of("ui"), introspection.getScope());
+		assertEquals(ImmutableSet.of("ROLE_USER"), introspection.getAuthorities());
+		assertEquals(token.getExpiration().getTime() / 1000, introspection.getExp().longValue());
+	}
+
+	@Test
+	public void shouldDescribeTokenOfAuthenticatedRequestWithoutLoadingItAgain() {
+
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("current");
+		token.setScope(ImmutableSet.of("ui"));
+		when(tokenServices.readAccessToken("current")).thenReturn(token);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(OAuth2AuthenticationDetails.ACCESS_TOKEN_VALUE, "current");
+
+		OAuth2Authentication authentication = getAuthentication();
+		authentication.setDetails(new OAuth2AuthenticationDetails(request));
+
+		TokenIntrospection introspection = introspectionService.describe(authentication);
+
+		assertTrue(introspection.isActive());
+		assertEquals("test", introspection.getUsername());
+		assertEquals(ImmutableSet.of("ROLE_USER"), introspection.getAuthorities());
+		verify(tokenServices, never()).loadAuthentication(anyString());
+	}
+
+	@Test
+	public void shouldDescribeTokenRevokedAfterAuthenticationAsInactive() {
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(OAuth2AuthenticationDetails.ACCESS_TOKEN_VALUE, "revoked");
+
+		OAuth2Authentication authentication = getAuthentication();
+		authentication.setDetails(new OAuth2AuthenticationDetails(request));
+
+		assertFalse(introspectionService.describe(authentication).isActive());
+	}
+
+	@Test
+	public void shouldDescribeRejectedTokenAsInactive() {
+
+		when(tokenServices.loadAuthentication("revoked")).thenThrow(new InvalidTokenException("revoked"));
+
+		TokenIntrospection introspection = introspectionService.introspect("revoked");
+
+		assertFalse(introspection.isActive());
+		assertNull(introspection.getUsername());
+		assertFalse(introspectionService.introspect("").isActive());
+	}
+
+	@Test
+	public void shouldIntrospectBatchInOrder() {
+
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("active");
+
+		when(tokenServices.loadAuthentication("active")).thenReturn(getAuthentication());
+		when(tokenServices.readAccessToken("active")).thenReturn(token);
+		when(tokenServices.loadAuthentication("revoked")).thenThrow(new InvalidTokenException("revoked"));
+
+		List<TokenIntrospection> result = introspectionService.introspect(ImmutableList.of("revoked", "active"));
+
+		assertFalse(result.get(0).isActive());
+		assertTrue(result.get(1).isActive());
+		assertNull(result.get(1).getExp());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailWhenBatchIsTooLarge() {
+		introspectionService.introspect(ImmutableList.of("first", "second", "third"));
+	}
+
+	private OAuth2Authentication getAuthentication() {
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "browser", Collections.emptyList(),
+				true, Collections.singleton("ui"), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+		return new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken("test", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+	}
+}
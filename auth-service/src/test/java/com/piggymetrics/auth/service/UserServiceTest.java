@@ -2,13 +2,16 @@ package com.piggymetrics.auth.service;
 
 import com.piggymetrics.auth.domain.User;
 import com.piggymetrics.auth.repository.UserRepository;
+import com.piggymetrics.auth.service.security.MongoUserDetailsService;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -20,9 +23,16 @@ public class UserServiceTest {
 	@Mock
 	private UserRepository repository;
 
+	@Mock
+	private PasswordEncoder encoder;
+
+	@Mock
+	private MongoUserDetailsService userDetailsService;
+
 	@Before
 	public void setup() {
 		initMocks(this);
+		when(encoder.encode("password")).thenReturn("hash");
 	}
 
 	@Test
@@ -34,6 +44,8 @@ public class UserServiceTest {
 
 		userService.create(user);
 		verify(repository, times(1)).save(user);
+		verify(userDetailsService, times(1)).evict("name");
+		assertEquals("hash", user.getPassword());
 	}
 
 	@Test(expected = IllegalArgumentException.class)
@@ -46,4 +58,25 @@ public class UserServiceTest {
 		when(repository.findById(user.getUsername())).thenReturn(Optional.of(new User()));
 		userService.create(user);
 	}
+
+	@Test
+	public void shouldChangePassword() {
+
+		User user = new User();
+		user.setUsername("name");
+		user.setPassword("outdated");
+
+		when(repository.findById(user.getUsername())).thenReturn(Optional.of(user));
+		userService.changePassword("name", "password");
+
+		verify(repository, times(1)).save(user);
+		verify(userDetailsService, times(1)).evict("name");
+		assertEquals("hash", user.getPassword());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToChangePasswordWhenUserDoesNotExist() {
+		when(repository.findById("name")).thenReturn(Optional.empty());
+		userService.changePassword("name", "password");
+	}
 }
@@ -0,0 +1,103 @@
+package com.piggymetrics.auth.service.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class AdaptivePasswordEncoderTest {
+
+	@InjectMocks
+	private AdaptivePasswordEncoder encoder;
+
+	@Spy
+	private MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(encoder, "strength", 4);
+		ReflectionTestUtils.setField(encoder, "threads", 1);
+		ReflectionTestUtils.setField(encoder, "queueCapacity", 1);
+		ReflectionTestUtils.setField(encoder, "targetHashingTime", 250L);
+		encoder.init();
+	}
+
+	@After
+	public void shutdown() {
+		encoder.shutdown();
+	}
+
+	@Test
+	public void shouldEncodeWithConfiguredStrength() {
+
+		String hash = encoder.encode("password");
+
+		assertTrue(hash.startsWith("$2a$04$"));
+		assertTrue(encoder.matches("password", hash));
+		assertFalse(encoder.matches("wrong", hash));
+		assertEquals(3, registry.timer("auth.password.hashing").count());
+	}
+
+	@Test
+	public void shouldMatchAndUpgradeHashWithOutdatedStrength() {
+
+		String outdated = new BCryptPasswordEncoder(5).encode("password");
+
+		assertTrue(encoder.matches("password", outdated));
+		assertTrue(encoder.upgradeEncoding(outdated));
+		assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+		assertFalse(encoder.upgradeEncoding("not a bcrypt hash"));
+		assertFalse(encoder.upgradeEncoding(null));
+	}
+
+	@Test
+	public void shouldRejectWhenQueueIsFull() throws Exception {
+
+		ReflectionTestUtils.setField(encoder, "strength", 12);
+		encoder.shutdown();
+		encoder.init();
+
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		CountDownLatch started = new CountDownLatch(2);
+
+		try {
+			// one hash is running, the other one is queued
+			Future<?> running = callers.submit(() -> { started.countDown(); return encoder.encode("first"); });
+			Future<?> queued = callers.submit(() -> { started.countDown(); return encoder.encode("second"); });
+			started.await();
+			TimeUnit.MILLISECONDS.sleep(50);
+
+			try {
+				encoder.encode("third");
+				fail("should be rejected");
+			} catch (PasswordHashingRejectedException e) {
+				assertEquals(503, e.getHttpErrorCode());
+			}
+
+			assertEquals(1, registry.counter("auth.password.hashing.rejected").count(), 0);
+
+			running.get();
+			queued.get();
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+}
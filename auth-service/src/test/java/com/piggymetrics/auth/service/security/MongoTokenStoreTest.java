@@ -0,0 +1,189 @@
+package com.piggymetrics.auth.service.security;
+
+import com.piggymetrics.auth.domain.StoredAccessToken;
+import com.piggymetrics.auth.repository.AccessTokenRepository;
+import com.piggymetrics.auth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class MongoTokenStoreTest {
+
+	@InjectMocks
+	private MongoTokenStore store;
+
+	@Mock
+	private AccessTokenRepository accessTokens;
+
+	@Mock
+	private RefreshTokenRepository refreshTokens;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Spy
+	private MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(store, "cacheSize", 100L);
+		ReflectionTestUtils.setField(store, "cacheTimeToLive", 60000L);
+		ReflectionTestUtils.setField(store, "cleanupBatchSize", 2);
+		store.init();
+	}
+
+	@Test
+	public void shouldStoreTokenHashedWithItsAuthentication() {
+
+		DefaultOAuth2AccessToken token = getToken("value", 60000);
+		token.setRefreshToken(new DefaultOAuth2RefreshToken("refresh"));
+		OAuth2Authentication authentication = getAuthentication();
+
+		store.storeAccessToken(token, authentication);
+
+		ArgumentCaptor<StoredAccessToken> stored = ArgumentCaptor.forClass(StoredAccessToken.class);
+		verify(accessTokens).save(stored.capture());
+
+		assertEquals(32, stored.getValue().getId().length());
+		assertEquals("user", stored.getValue().getUsername());
+		assertEquals("browser", stored.getValue().getClientId());
+		assertEquals(token.getExpiration(), stored.getValue().getExpiresAt());
+		assertEquals(32, stored.getValue().getRefreshToken().length());
+	}
+
+	@Test
+	public void shouldReadTokenFromMongoOnceWhileCached() {
+
+		StoredAccessToken stored = storeAndCapture(getToken("value", 60000));
+		store = newStore();
+
+		when(accessTokens.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+		assertEquals("value", store.readAccessToken("value").getValue());
+		assertEquals("user", store.readAuthentication("value").getName());
+
+		verify(accessTokens, times(1)).findById(stored.getId());
+	}
+
+	@Test
+	public void shouldReturnNullWhenTokenIsUnknown() {
+		when(accessTokens.findById(anyString())).thenReturn(Optional.empty());
+		assertNull(store.readAccessToken("unknown"));
+	}
+
+	@Test
+	public void shouldRemoveValidTokenImmediately() {
+
+		OAuth2AccessToken token = getToken("value", 60000);
+		store.storeAccessToken(token, getAuthentication());
+
+		store.removeAccessToken(token);
+
+		verify(accessTokens).deleteById(anyString());
+		when(accessTokens.findById(anyString())).thenReturn(Optional.empty());
+		assertNull(store.readAccessToken("value"));
+	}
+
+	@Test
+	public void shouldRemoveExpiredTokensInBatches() {
+
+		for (String value : new String[]{"first", "second", "third"}) {
+			store.removeAccessToken(getToken(value, -1000));
+		}
+
+		verify(accessTokens, never()).deleteById(anyString());
+
+		store.removeExpired();
+
+		verify(mongoTemplate, times(2)).remove(any(Query.class), eq(StoredAccessToken.class));
+	}
+
+	@Test
+	public void shouldRemoveAccessTokensUsingRefreshToken() {
+
+		StoredAccessToken stored = storeAndCapture(getToken("value", 60000));
+		when(accessTokens.findByRefreshToken(anyString())).thenReturn(Collections.singletonList(stored));
+
+		store.removeAccessTokenUsingRefreshToken(new DefaultOAuth2RefreshToken("refresh"));
+
+		verify(accessTokens).deleteAll(Collections.singletonList(stored));
+	}
+
+	@Test
+	public void shouldNotReturnExistingTokenForClientOnlyAuthentication() {
+
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "account-service", Collections.emptyList(),
+				true, Collections.singleton("server"), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+
+		assertNull(store.getAccessToken(new OAuth2Authentication(request, null)));
+		verify(accessTokens, never()).findFirstByAuthenticationId(anyString());
+	}
+
+	private StoredAccessToken storeAndCapture(OAuth2AccessToken token) {
+
+		store.storeAccessToken(token, getAuthentication());
+
+		ArgumentCaptor<StoredAccessToken> stored = ArgumentCaptor.forClass(StoredAccessToken.class);
+		verify(accessTokens).save(stored.capture());
+
+		return stored.getValue();
+	}
+
+	/**
+	 * @return store with the same mocks and an empty cache
+	 */
+	private MongoTokenStore newStore() {
+		MongoTokenStore other = new MongoTokenStore();
+		ReflectionTestUtils.setField(other, "accessTokens", accessTokens);
+		ReflectionTestUtils.setField(other, "refreshTokens", refreshTokens);
+		ReflectionTestUtils.setField(other, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(other, "registry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(other, "cacheSize", 100L);
+		ReflectionTestUtils.setField(other, "cacheTimeToLive", 60000L);
+		other.init();
+		return other;
+	}
+
+	private DefaultOAuth2AccessToken getToken(String value, long expiresIn) {
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+		token.setExpiration(new Date(System.currentTimeMillis() + expiresIn));
+		return token;
+	}
+
+	private OAuth2Authentication getAuthentication() {
+		OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "browser", Collections.emptyList(),
+				true, Collections.singleton("ui"), Collections.emptySet(), null, Collections.emptySet(), Collections.emptyMap());
+		return new OAuth2Authentication(request,
+				new UsernamePasswordAuthenticationToken("user", null, Collections.emptyList()));
+	}
+}
@@ -2,17 +2,23 @@ package com.piggymetrics.auth.service.security;
 
 import com.piggymetrics.auth.domain.User;
 import com.piggymetrics.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -24,9 +30,15 @@ public class MongoUserDetailsServiceTest {
 	@Mock
 	private UserRepository repository;
 
+	@Spy
+	private MeterRegistry registry = new SimpleMeterRegistry();
+
 	@Before
 	public void setup() {
 		initMocks(this);
+		ReflectionTestUtils.setField(service, "cacheSize", 100L);
+		ReflectionTestUtils.setField(service, "cacheTimeToLive", 60000L);
+		service.init();
 	}
 
 	@Test
@@ -44,4 +56,20 @@ public class MongoUserDetailsServiceTest {
 	public void shouldFailToLoadByUsernameWhenUserNotExists() {
 		service.loadUserByUsername("name");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void shouldLoadFromCacheUntilEvicted() {
+
+		final User user = new User();
+
+		when(repository.findById("name")).thenReturn(Optional.of(user));
+
+		service.loadUserByUsername("name");
+		service.loadUserByUsername("name");
+		verify(repository, times(1)).findById("name");
+
+		service.evict("name");
+		service.loadUserByUsername("name");
+		verify(repository, times(2)).findById("name");
+	}
+}
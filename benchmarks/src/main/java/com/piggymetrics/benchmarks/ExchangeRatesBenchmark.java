@@ -0,0 +1,83 @@
+package com.piggymetrics.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.client.ExchangeRatesClient;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.domain.Item;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
+import com.piggymetrics.statistics.service.ExchangeRatesServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ExchangeRatesServiceImpl} conversions with rates
+ * obtained from a stubbed provider
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRatesBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int itemCount;
+
+	private ExchangeRatesServiceImpl ratesService;
+
+	private List<Item> items;
+
+	@Setup
+	public void setup() {
+
+		ExchangeRatesContainer container = new ExchangeRatesContainer();
+		container.setBase(Currency.getBase());
+		container.setRates(ImmutableMap.of(
+				Currency.EUR.name(), Fixtures.RATES.get(Currency.EUR),
+				Currency.RUB.name(), Fixtures.RATES.get(Currency.RUB)
+		));
+
+		ExchangeRatesClient client = mock(ExchangeRatesClient.class);
+		when(client.getRates(Currency.getBase())).thenReturn(container);
+
+		ratesService = new ExchangeRatesServiceImpl();
+		ReflectionTestUtils.setField(ratesService, "client", client);
+		ReflectionTestUtils.setField(ratesService, "repository", mock(ExchangeRatesRepository.class));
+		ratesService.refresh();
+
+		items = Fixtures.items("Item", itemCount, new Random(itemCount));
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+		for (Item item : items) {
+			blackhole.consume(ratesService.convert(item.getCurrency(), Currency.getBase(), item.getAmount()));
+		}
+	}
+
+	@Benchmark
+	public List<BigDecimal> convertAll() {
+		return ratesService.convertAll(items, Item::getCurrency, Item::getAmount, Currency.getBase());
+	}
+}
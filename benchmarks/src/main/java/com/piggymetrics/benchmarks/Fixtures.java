@@ -0,0 +1,74 @@
+package com.piggymetrics.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.domain.Account;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.Item;
+import com.piggymetrics.statistics.domain.Saving;
+import com.piggymetrics.statistics.domain.TimePeriod;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the benchmarks
+ */
+final class Fixtures {
+
+	static final Map<Currency, BigDecimal> RATES = ImmutableMap.of(
+			Currency.USD, BigDecimal.ONE,
+			Currency.EUR, new BigDecimal("0.8563"),
+			Currency.RUB, new BigDecimal("62.7371")
+	);
+
+	private Fixtures() {
+	}
+
+	/**
+	 * @return account with the given number of incomes and expenses each,
+	 * in all currencies and time periods
+	 */
+	static Account account(int itemCount) {
+
+		Random random = new Random(itemCount);
+
+		Saving saving = new Saving();
+		saving.setAmount(amount(random));
+		saving.setCurrency(Currency.EUR);
+		saving.setInterest(new BigDecimal("3.2"));
+		saving.setDeposit(true);
+		saving.setCapitalization(false);
+
+		Account account = new Account();
+		account.setIncomes(items("Income", itemCount, random));
+		account.setExpenses(items("Expense", itemCount, random));
+		account.setSaving(saving);
+
+		return account;
+	}
+
+	static List<Item> items(String prefix, int count, Random random) {
+
+		Currency[] currencies = Currency.values();
+		TimePeriod[] periods = TimePeriod.values();
+
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Item item = new Item();
+			item.setTitle(prefix + " " + i);
+			item.setAmount(amount(random));
+			item.setCurrency(currencies[i % currencies.length]);
+			item.setPeriod(periods[i % periods.length]);
+			items.add(item);
+		}
+
+		return items;
+	}
+
+	private static BigDecimal amount(Random random) {
+		return BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+	}
+}
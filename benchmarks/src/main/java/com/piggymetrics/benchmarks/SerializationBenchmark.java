@@ -0,0 +1,91 @@
+package com.piggymetrics.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.piggymetrics.statistics.domain.Account;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.service.CurrencyConverter;
+import com.piggymetrics.statistics.service.DataPointWriter;
+import com.piggymetrics.statistics.service.ExchangeRatesService;
+import com.piggymetrics.statistics.service.StatisticsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Jackson (de)serialization of the account update requests and of the
+ * data points returned by the statistics API. Data points are only
+ * serialized, the API never reads them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int itemCount;
+
+	private ObjectReader accountReader;
+
+	private ObjectWriter writer;
+
+	private Account account;
+
+	private byte[] accountJson;
+
+	private DataPoint dataPoint;
+
+	@Setup
+	public void setup() throws IOException {
+
+		ObjectMapper mapper = new ObjectMapper();
+		accountReader = mapper.readerFor(Account.class);
+		writer = mapper.writer();
+
+		account = Fixtures.account(itemCount);
+		accountJson = writer.writeValueAsBytes(account);
+
+		ExchangeRatesService ratesService = mock(ExchangeRatesService.class);
+		when(ratesService.getCurrentConverter()).thenReturn(new CurrencyConverter(Fixtures.RATES));
+
+		StatisticsServiceImpl statisticsService = new StatisticsServiceImpl();
+		ReflectionTestUtils.setField(statisticsService, "ratesService", ratesService);
+		ReflectionTestUtils.setField(statisticsService, "writer", mock(DataPointWriter.class));
+
+		dataPoint = statisticsService.save("benchmark", account);
+	}
+
+	@Benchmark
+	public byte[] serializeAccount() throws IOException {
+		return writer.writeValueAsBytes(account);
+	}
+
+	@Benchmark
+	public Account deserializeAccount() throws IOException {
+		return accountReader.readValue(accountJson);
+	}
+
+	@Benchmark
+	public byte[] serializeDataPoint() throws IOException {
+		return writer.writeValueAsBytes(dataPoint);
+	}
+}
@@ -0,0 +1,127 @@
+package com.piggymetrics.benchmarks;
+
+import com.piggymetrics.statistics.domain.Account;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.Item;
+import com.piggymetrics.statistics.domain.Money;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.service.CurrencyConverter;
+import com.piggymetrics.statistics.service.DataPointWriter;
+import com.piggymetrics.statistics.service.ExchangeRatesService;
+import com.piggymetrics.statistics.service.StatisticsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Data point computation of {@link StatisticsServiceImpl#save(String, Account)},
+ * with the storage stubbed out.
+ *
+ * {@link #metricsWithBigDecimal()} repeats the metrics computation the way
+ * it was done before the fixed-point {@link Money}, to compare it with
+ * {@link #metricsWithMoney()}. Run with {@code -prof gc} to see the
+ * allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int itemCount;
+
+	private StatisticsServiceImpl statisticsService;
+
+	private CurrencyConverter converter;
+
+	private Account account;
+
+	@Setup
+	public void setup() {
+
+		converter = new CurrencyConverter(Fixtures.RATES);
+		account = Fixtures.account(itemCount);
+
+		ExchangeRatesService ratesService = mock(ExchangeRatesService.class);
+		when(ratesService.getCurrentConverter()).thenReturn(converter);
+
+		statisticsService = new StatisticsServiceImpl();
+		ReflectionTestUtils.setField(statisticsService, "ratesService", ratesService);
+		ReflectionTestUtils.setField(statisticsService, "writer", mock(DataPointWriter.class));
+	}
+
+	@Benchmark
+	public DataPoint save() {
+		return statisticsService.save("benchmark", account);
+	}
+
+	@Benchmark
+	public BigDecimal[] metricsWithMoney() {
+
+		Money incomes = sumWithMoney(account.getIncomes());
+		Money expenses = sumWithMoney(account.getExpenses());
+		Money saving = converter.convert(Money.of(account.getSaving().getAmount(), account.getSaving().getCurrency()),
+				Currency.getBase());
+
+		return new BigDecimal[]{incomes.toBigDecimal(), expenses.toBigDecimal(), saving.toBigDecimal()};
+	}
+
+	@Benchmark
+	public BigDecimal[] metricsWithBigDecimal() {
+
+		BigDecimal incomes = sumWithBigDecimal(account.getIncomes());
+		BigDecimal expenses = sumWithBigDecimal(account.getExpenses());
+		BigDecimal saving = converter.convert(account.getSaving().getCurrency(), Currency.getBase(),
+				account.getSaving().getAmount());
+
+		return new BigDecimal[]{incomes, expenses, saving};
+	}
+
+	private Money sumWithMoney(List<Item> items) {
+
+		long total = 0;
+		for (Item item : items) {
+			total += converter.convert(Money.of(item.getAmount(), item.getCurrency()),
+					Currency.getBase(), item.getPeriod().getBaseRatioUnits()).getUnits();
+		}
+
+		return Money.ofUnits(total, Currency.getBase());
+	}
+
+	/**
+	 * The former computation, including the base ratio created on every call
+	 */
+	private BigDecimal sumWithBigDecimal(List<Item> items) {
+
+		List<BigDecimal> amounts = converter.convertAll(items, Item::getCurrency, Item::getAmount, Currency.getBase());
+		List<BigDecimal> normalized = new ArrayList<>(items.size());
+
+		for (int i = 0; i < items.size(); i++) {
+			BigDecimal ratio = new BigDecimal(items.get(i).getPeriod().getBaseRatio().doubleValue());
+			normalized.add(amounts.get(i).divide(ratio, 4, RoundingMode.HALF_UP));
+		}
+
+		return normalized.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+}
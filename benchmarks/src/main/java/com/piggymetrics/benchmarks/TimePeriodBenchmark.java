@@ -0,0 +1,66 @@
+package com.piggymetrics.benchmarks;
+
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.Item;
+import com.piggymetrics.statistics.domain.Money;
+import com.piggymetrics.statistics.domain.TimePeriod;
+import com.piggymetrics.statistics.service.CurrencyConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalization of item amounts to {@link TimePeriod#getBase()},
+ * with fixed-point and {@link BigDecimal} arithmetic
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimePeriodBenchmark {
+
+	@Param({"1", "10", "100"})
+	private int itemCount;
+
+	private CurrencyConverter converter;
+
+	private List<Item> items;
+
+	@Setup
+	public void setup() {
+		converter = new CurrencyConverter(Fixtures.RATES);
+		items = Fixtures.items("Item", itemCount, new Random(itemCount));
+	}
+
+	@Benchmark
+	public void normalizeWithMoney(Blackhole blackhole) {
+		for (Item item : items) {
+			Money amount = Money.of(item.getAmount(), item.getCurrency());
+			blackhole.consume(converter.convert(amount, item.getCurrency(), item.getPeriod().getBaseRatioUnits()));
+		}
+	}
+
+	@Benchmark
+	public void normalizeWithBigDecimal(Blackhole blackhole) {
+		for (Item item : items) {
+			blackhole.consume(item.getAmount().divide(item.getPeriod().getBaseRatio(), Money.SCALE, RoundingMode.HALF_UP));
+		}
+	}
+}
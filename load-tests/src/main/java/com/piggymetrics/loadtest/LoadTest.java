@@ -0,0 +1,119 @@
+package com.piggymetrics.loadtest;
+
+import com.piggymetrics.loadtest.report.Report;
+import com.piggymetrics.loadtest.report.RouteStats;
+import com.piggymetrics.loadtest.scenario.GatewayClient;
+import com.piggymetrics.loadtest.scenario.Route;
+import com.piggymetrics.loadtest.scenario.UserScenario;
+import com.piggymetrics.loadtest.stub.RatesStub;
+import com.piggymetrics.loadtest.stub.SmtpSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test entry point.
+ *
+ * {@code stand-ins} starts the local SMTP sink and rates stub, which the
+ * services use with the 'loadtest' profile, and keeps them running.
+ * {@code run} runs the user scenarios against the gateway and prints
+ * throughput and latency percentiles of each route. With
+ * {@code --stand-ins=true} it starts the stand-ins within the same process.
+ */
+public class LoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+	public static void main(String[] args) throws Exception {
+
+		String mode = args.length > 0 ? args[0] : "run";
+		LoadTestSettings settings = new LoadTestSettings(args);
+
+		switch (mode) {
+			case "stand-ins":
+				startStandIns(settings);
+				Thread.currentThread().join();
+				break;
+			case "run":
+				run(settings);
+				break;
+			default:
+				System.err.println("usage: (stand-ins | run) [--name=value ...]");
+				System.exit(1);
+		}
+	}
+
+	private static void run(LoadTestSettings settings) throws Exception {
+
+		AutoCloseable[] standIns = settings.isStandInsEnabled() ? startStandIns(settings) : new AutoCloseable[0];
+
+		Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+		for (Route route : Route.values()) {
+			stats.put(route, new RouteStats(route.getTitle()));
+		}
+
+		int users = settings.getUsers();
+		String prefix = "lt-" + Long.toString(System.currentTimeMillis() / 1000, 36) + "-";
+		long staggerMillis = settings.getRampUpMillis() / Math.max(users, 1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(users);
+		Running running = new Running();
+
+		try (GatewayClient client = new GatewayClient(settings.getGatewayUrl(), users, stats)) {
+
+			log.info("starting {} users against {} within {} ms", users, settings.getGatewayUrl(), settings.getRampUpMillis());
+
+			for (int i = 0; i < users; i++) {
+				executor.execute(new UserScenario(client, prefix + i, settings.getThinkTimeMillis(), running::get));
+				Thread.sleep(staggerMillis);
+			}
+
+			stats.values().forEach(RouteStats::reset);
+			long start = System.currentTimeMillis();
+
+			log.info("measuring for {} ms", settings.getDurationMillis());
+			Thread.sleep(settings.getDurationMillis());
+
+			Report report = new Report(stats.values(), System.currentTimeMillis() - start);
+			report.print(System.out);
+			if (settings.getReportFile() != null) {
+				report.write(settings.getReportFile());
+			}
+
+			running.stop();
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+
+		} finally {
+			executor.shutdownNow();
+			for (AutoCloseable standIn : standIns) {
+				standIn.close();
+			}
+		}
+	}
+
+	private static AutoCloseable[] startStandIns(LoadTestSettings settings) throws Exception {
+		return new AutoCloseable[]{
+				new SmtpSink(settings.getSmtpPort()),
+				new RatesStub(settings.getRatesPort())
+		};
+	}
+
+	private static class Running {
+
+		private volatile boolean running = true;
+
+		boolean get() {
+			return running;
+		}
+
+		void stop() {
+			running = false;
+		}
+	}
+}
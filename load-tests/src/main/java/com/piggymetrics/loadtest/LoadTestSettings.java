@@ -0,0 +1,86 @@
+package com.piggymetrics.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test options, given as {@code --name=value} arguments
+ * or {@code loadtest.name} system properties
+ */
+public class LoadTestSettings {
+
+	private final Map<String, String> options = new HashMap<>();
+
+	public LoadTestSettings(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith("--") && arg.contains("=")) {
+				options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+			}
+		}
+	}
+
+	/**
+	 * Gateway base url, the scenarios are run against
+	 */
+	public String getGatewayUrl() {
+		return get("gateway", "http://localhost");
+	}
+
+	/**
+	 * Number of concurrent virtual users
+	 */
+	public int getUsers() {
+		return getInt("users", 50);
+	}
+
+	/**
+	 * Test duration, after the ramp-up
+	 */
+	public long getDurationMillis() {
+		return getInt("duration", 60) * 1000L;
+	}
+
+	/**
+	 * Time within which virtual users are started evenly
+	 */
+	public long getRampUpMillis() {
+		return getInt("ramp-up", 10) * 1000L;
+	}
+
+	/**
+	 * Pause between the steps of a virtual user
+	 */
+	public long getThinkTimeMillis() {
+		return getInt("think-time", 0);
+	}
+
+	/**
+	 * Whether the stand-ins are started within the load test process
+	 */
+	public boolean isStandInsEnabled() {
+		return Boolean.parseBoolean(get("stand-ins", "false"));
+	}
+
+	public int getSmtpPort() {
+		return getInt("smtp-port", 2525);
+	}
+
+	public int getRatesPort() {
+		return getInt("rates-port", 8089);
+	}
+
+	/**
+	 * CSV file the report is written to, in addition to the console
+	 */
+	public String getReportFile() {
+		return get("report", null);
+	}
+
+	private String get(String name, String defaultValue) {
+		return options.getOrDefault(name, System.getProperty("loadtest." + name, defaultValue));
+	}
+
+	private int getInt(String name, int defaultValue) {
+		return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+	}
+}
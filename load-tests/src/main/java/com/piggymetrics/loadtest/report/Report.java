@@ -0,0 +1,72 @@
+package com.piggymetrics.loadtest.report;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Throughput and latency percentiles of each route
+ */
+public class Report {
+
+	private static final String[] COLUMNS = {"route", "requests", "errors", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"};
+
+	private final Collection<RouteStats> routes;
+
+	private final double seconds;
+
+	/**
+	 * @param elapsedMillis time the requests have been recorded within
+	 */
+	public Report(Collection<RouteStats> routes, long elapsedMillis) {
+		this.routes = routes;
+		this.seconds = Math.max(elapsedMillis, 1) / 1000.0;
+	}
+
+	public void print(PrintStream out) {
+
+		out.println(String.format(Locale.ROOT, "%-24s %10s %8s %10s %9s %9s %9s %9s %9s", (Object[]) COLUMNS));
+
+		for (RouteStats route : routes) {
+			Histogram histogram = route.getHistogram();
+			out.println(String.format(Locale.ROOT, "%-24s %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f",
+					route.getRoute(), histogram.getTotalCount(), route.getErrors(),
+					histogram.getTotalCount() / seconds,
+					millis(histogram.getValueAtPercentile(50)),
+					millis(histogram.getValueAtPercentile(90)),
+					millis(histogram.getValueAtPercentile(99)),
+					millis(histogram.getValueAtPercentile(99.9)),
+					millis(histogram.getMaxValue())));
+		}
+	}
+
+	public void write(String file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8))) {
+
+			out.println(String.join(",", COLUMNS));
+
+			for (RouteStats route : routes) {
+				Histogram histogram = route.getHistogram();
+				out.println(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+						route.getRoute(), histogram.getTotalCount(), route.getErrors(),
+						histogram.getTotalCount() / seconds,
+						millis(histogram.getValueAtPercentile(50)),
+						millis(histogram.getValueAtPercentile(90)),
+						millis(histogram.getValueAtPercentile(99)),
+						millis(histogram.getValueAtPercentile(99.9)),
+						millis(histogram.getMaxValue())));
+			}
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,60 @@
+package com.piggymetrics.loadtest.report;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histogram and error count of a single gateway route.
+ * Safe to record from many virtual users concurrently.
+ */
+public class RouteStats {
+
+	private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+	private final String route;
+
+	private final Recorder recorder = new Recorder(MAX_LATENCY, 3);
+
+	private final Histogram total = new Histogram(MAX_LATENCY, 3);
+
+	private final AtomicLong errors = new AtomicLong();
+
+	public RouteStats(String route) {
+		this.route = route;
+	}
+
+	public String getRoute() {
+		return route;
+	}
+
+	public void record(long latencyNanos, boolean success) {
+		recorder.recordValue(Math.min(latencyNanos, MAX_LATENCY));
+		if (!success) {
+			errors.incrementAndGet();
+		}
+	}
+
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * Drops everything recorded so far, such as the ramp-up requests
+	 */
+	public synchronized void reset() {
+		recorder.reset();
+		total.reset();
+		errors.set(0);
+	}
+
+	/**
+	 * @return all latencies recorded so far, in nanoseconds
+	 */
+	public synchronized Histogram getHistogram() {
+		total.add(recorder.getIntervalHistogram());
+		return total.copy();
+	}
+}
@@ -0,0 +1,173 @@
+package com.piggymetrics.loadtest.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piggymetrics.loadtest.report.RouteStats;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls gateway routes the same way the UI does,
+ * recording latency and outcome of each call
+ */
+public class GatewayClient implements AutoCloseable {
+
+	/**
+	 * Basic credentials of the 'browser' client without a secret
+	 */
+	private static final String BROWSER_CREDENTIALS = "Basic YnJvd3Nlcjo=";
+
+	private static final int TIMEOUT = 30_000;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final String gatewayUrl;
+
+	private final Map<Route, RouteStats> stats;
+
+	private final CloseableHttpClient client;
+
+	public GatewayClient(String gatewayUrl, int connections, Map<Route, RouteStats> stats) {
+
+		this.gatewayUrl = gatewayUrl.replaceAll("/+$", "");
+		this.stats = stats;
+		this.client = HttpClients.custom()
+				.setMaxConnTotal(connections)
+				.setMaxConnPerRoute(connections)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(TIMEOUT)
+						.setSocketTimeout(TIMEOUT)
+						.build())
+				.build();
+	}
+
+	public boolean register(String username, String password) {
+
+		Map<String, String> user = new HashMap<>();
+		user.put("username", username);
+		user.put("password", password);
+
+		HttpPost request = new HttpPost(gatewayUrl + "/accounts/");
+		request.setEntity(json(user));
+
+		return execute(Route.REGISTER, request) != null;
+	}
+
+	/**
+	 * @return access token, or null if the login has failed
+	 */
+	public String login(String username, String password) {
+
+		List<NameValuePair> form = Arrays.asList(
+				new BasicNameValuePair("scope", "ui"),
+				new BasicNameValuePair("username", username),
+				new BasicNameValuePair("password", password),
+				new BasicNameValuePair("grant_type", "password"));
+
+		HttpPost request = new HttpPost(gatewayUrl + "/uaa/oauth/token");
+		request.setHeader(HttpHeaders.AUTHORIZATION, BROWSER_CREDENTIALS);
+		request.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+
+		String body = execute(Route.LOGIN, request);
+		if (body == null) {
+			return null;
+		}
+
+		try {
+			JsonNode token = mapper.readTree(body).get("access_token");
+			return token == null ? null : token.asText();
+		} catch (IOException e) {
+			log.debug("unexpected token response: {}", body);
+			return null;
+		}
+	}
+
+	public boolean saveAccount(String token, Object account) {
+
+		HttpPut request = new HttpPut(gatewayUrl + "/accounts/current");
+		request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		request.setEntity(json(account));
+
+		return execute(Route.SAVE_ACCOUNT, request) != null;
+	}
+
+	public boolean getAccount(String token) {
+		return get(Route.GET_ACCOUNT, "/accounts/current", token);
+	}
+
+	public boolean getStatistics(String token) {
+		return get(Route.GET_STATISTICS, "/statistics/current", token);
+	}
+
+	@Override
+	public void close() throws IOException {
+		client.close();
+	}
+
+	private boolean get(Route route, String path, String token) {
+
+		HttpGet request = new HttpGet(gatewayUrl + path);
+		request.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+
+		return execute(route, request) != null;
+	}
+
+	/**
+	 * @return response body of a successful call, or null
+	 */
+	private String execute(Route route, HttpUriRequest request) {
+
+		long start = System.nanoTime();
+		String body = null;
+
+		try (CloseableHttpResponse response = client.execute(request)) {
+
+			String content = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+			int status = response.getStatusLine().getStatusCode();
+
+			if (status >= 200 && status < 300) {
+				body = content;
+			} else {
+				log.debug("{} failed with {}: {}", route.getTitle(), status, content);
+			}
+		} catch (IOException e) {
+			log.debug("{} failed", route.getTitle(), e);
+		}
+
+		stats.get(route).record(System.nanoTime() - start, body != null);
+
+		return body;
+	}
+
+	private ByteArrayEntity json(Object value) {
+		try {
+			return new ByteArrayEntity(mapper.writeValueAsBytes(value), ContentType.APPLICATION_JSON);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.piggymetrics.loadtest.scenario;
+
+/**
+ * Gateway routes the scenarios go through
+ */
+public enum Route {
+
+	REGISTER("POST /accounts/"),
+	LOGIN("POST /uaa/oauth/token"),
+	SAVE_ACCOUNT("PUT /accounts/current"),
+	GET_ACCOUNT("GET /accounts/current"),
+	GET_STATISTICS("GET /statistics/current");
+
+	private final String title;
+
+	Route(String title) {
+		this.title = title;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+}
@@ -0,0 +1,119 @@
+package com.piggymetrics.loadtest.scenario;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Virtual user, which registers, logs in, and then keeps saving
+ * its account and viewing the account and statistics, the way
+ * the UI does, until the test is stopped
+ */
+public class UserScenario implements Runnable {
+
+	private static final String[] CURRENCIES = {"USD", "EUR", "RUB"};
+
+	private static final String[] PERIODS = {"YEAR", "QUARTER", "MONTH", "DAY", "HOUR"};
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final GatewayClient client;
+
+	private final String username;
+
+	private final String password;
+
+	private final long thinkTimeMillis;
+
+	private final BooleanSupplier running;
+
+	private final Random random;
+
+	public UserScenario(GatewayClient client, String username, long thinkTimeMillis, BooleanSupplier running) {
+		this.client = client;
+		this.username = username;
+		this.password = username + "-password";
+		this.thinkTimeMillis = thinkTimeMillis;
+		this.running = running;
+		this.random = new Random(username.hashCode());
+	}
+
+	@Override
+	public void run() {
+
+		boolean registered = false;
+		String token = null;
+
+		while (running.getAsBoolean()) {
+			try {
+				if (!registered) {
+					// registered once, the account may exist already
+					client.register(username, password);
+					registered = true;
+				} else if (token == null) {
+					token = client.login(username, password);
+				} else if (!client.saveAccount(token, createAccount())
+						|| !client.getAccount(token)
+						|| !client.getStatistics(token)) {
+					// the token may have expired
+					token = null;
+				}
+
+				if (thinkTimeMillis > 0) {
+					Thread.sleep(thinkTimeMillis);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.debug("scenario step of {} failed", username, e);
+			}
+		}
+	}
+
+	private Map<String, Object> createAccount() {
+
+		Map<String, Object> saving = new HashMap<>();
+		saving.put("amount", amount());
+		saving.put("currency", "USD");
+		saving.put("interest", new BigDecimal("3.5"));
+		saving.put("deposit", true);
+		saving.put("capitalization", false);
+
+		Map<String, Object> account = new HashMap<>();
+		account.put("incomes", createItems("Income", 1 + random.nextInt(5)));
+		account.put("expenses", createItems("Expense", 1 + random.nextInt(15)));
+		account.put("saving", saving);
+		account.put("note", "load test");
+
+		return account;
+	}
+
+	private List<Map<String, Object>> createItems(String prefix, int count) {
+
+		List<Map<String, Object>> items = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> item = new HashMap<>();
+			item.put("title", prefix + " " + i);
+			item.put("amount", amount());
+			item.put("currency", CURRENCIES[random.nextInt(CURRENCIES.length)]);
+			item.put("period", PERIODS[random.nextInt(PERIODS.length)]);
+			item.put("icon", "wallet");
+			items.add(item);
+		}
+
+		return items;
+	}
+
+	private BigDecimal amount() {
+		return BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+	}
+}
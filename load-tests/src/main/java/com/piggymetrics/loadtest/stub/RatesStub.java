@@ -0,0 +1,104 @@
+package com.piggymetrics.loadtest.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stands in for the public exchange rates API, which statistics-service
+ * requests with {@code rates.url}. Serves the same fixed rates for
+ * {@code /latest} and for each day of {@code /history}.
+ */
+public class RatesStub implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(RatesStub.class);
+
+	private static final String RATES = "{\"EUR\":0.8563,\"RUB\":62.7371,\"USD\":1.0}";
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final HttpServer server;
+
+	public RatesStub(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext("/latest", this::latest);
+		server.createContext("/history", this::history);
+		server.setExecutor(executor);
+		server.start();
+		log.info("rates stub is listening on port {}", server.getAddress().getPort());
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void latest(HttpExchange exchange) throws IOException {
+
+		Map<String, String> params = getParams(exchange.getRequestURI());
+
+		respond(exchange, "{\"base\":\"" + params.getOrDefault("base", "USD") + "\","
+				+ "\"date\":\"" + LocalDate.now() + "\","
+				+ "\"rates\":" + RATES + "}");
+	}
+
+	private void history(HttpExchange exchange) throws IOException {
+
+		Map<String, String> params = getParams(exchange.getRequestURI());
+
+		LocalDate to = params.containsKey("end_at") ? LocalDate.parse(params.get("end_at")) : LocalDate.now();
+		LocalDate day = params.containsKey("start_at") ? LocalDate.parse(params.get("start_at")) : to;
+
+		StringBuilder rates = new StringBuilder();
+		for (; !day.isAfter(to); day = day.plusDays(1)) {
+			rates.append(rates.length() == 0 ? "" : ",").append('"').append(day).append("\":").append(RATES);
+		}
+
+		respond(exchange, "{\"base\":\"" + params.getOrDefault("base", "USD") + "\","
+				+ "\"rates\":{" + rates + "}}");
+	}
+
+	private static Map<String, String> getParams(URI uri) {
+
+		Map<String, String> params = new HashMap<>();
+		if (uri.getQuery() != null) {
+			for (String param : uri.getQuery().split("&")) {
+				int i = param.indexOf('=');
+				if (i > 0) {
+					params.put(param.substring(0, i), param.substring(i + 1));
+				}
+			}
+		}
+
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.piggymetrics.loadtest.stub;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server, which accepts any message
+ * without authentication and discards it, counting messages
+ * and bytes received. Stands in for the mail provider
+ * notification-service sends reminders and backups through.
+ */
+public class SmtpSink implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(SmtpSink.class);
+
+	private final AtomicLong messages = new AtomicLong();
+
+	private final AtomicLong bytes = new AtomicLong();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final ServerSocket serverSocket;
+
+	public SmtpSink(int port) throws IOException {
+		this.serverSocket = new ServerSocket(port);
+		executor.execute(this::accept);
+		log.info("smtp sink is listening on port {}", serverSocket.getLocalPort());
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	public long getMessages() {
+		return messages.get();
+	}
+
+	public long getBytes() {
+		return bytes.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdownNow();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> serve(socket));
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					log.warn("failed to accept smtp connection", e);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (Socket client = socket;
+			 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+			 OutputStream out = client.getOutputStream()) {
+
+			reply(out, "220 smtp sink ready");
+
+			String line;
+			while ((line = in.readLine()) != null) {
+
+				String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+
+				switch (command) {
+					case "DATA":
+						reply(out, "354 end data with <CR><LF>.<CR><LF>");
+						readData(in);
+						messages.incrementAndGet();
+						reply(out, "250 accepted");
+						break;
+					case "QUIT":
+						reply(out, "221 bye");
+						return;
+					default:
+						reply(out, "250 OK");
+				}
+			}
+		} catch (IOException e) {
+			log.debug("smtp connection failed", e);
+		}
+	}
+
+	private void readData(BufferedReader in) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null && !line.equals(".")) {
+			bytes.addAndGet(line.length() + 2);
+		}
+	}
+
+	private static void reply(OutputStream out, String reply) throws IOException {
+		out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+}
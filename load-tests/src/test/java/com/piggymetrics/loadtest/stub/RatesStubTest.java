@@ -0,0 +1,37 @@
+package com.piggymetrics.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+
+public class RatesStubTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void shouldServeLatestRates() throws Exception {
+		try (RatesStub stub = new RatesStub(0)) {
+
+			JsonNode rates = mapper.readTree(new URL("http://localhost:" + stub.getPort() + "/latest?base=USD"));
+
+			assertEquals("USD", rates.get("base").asText());
+			assertEquals(62.7371, rates.get("rates").get("RUB").asDouble(), 0);
+		}
+	}
+
+	@Test
+	public void shouldServeRatesForEachDayOfHistory() throws Exception {
+		try (RatesStub stub = new RatesStub(0)) {
+
+			JsonNode history = mapper.readTree(new URL("http://localhost:" + stub.getPort()
+					+ "/history?start_at=2018-06-01&end_at=2018-06-03&base=USD"));
+
+			assertEquals(3, history.get("rates").size());
+			assertEquals(0.8563, history.get("rates").get("2018-06-02").get("EUR").asDouble(), 0);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.piggymetrics.loadtest.stub;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SmtpSinkTest {
+
+	@Test
+	public void shouldAcceptMessage() throws Exception {
+
+		try (SmtpSink sink = new SmtpSink(0);
+			 Socket socket = new Socket("localhost", sink.getPort());
+			 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			 OutputStream out = socket.getOutputStream()) {
+
+			assertTrue(in.readLine().startsWith("220"));
+
+			send(out, "EHLO localhost");
+			assertTrue(in.readLine().startsWith("250"));
+			send(out, "MAIL FROM:<noreply@piggymetrics.com>");
+			assertTrue(in.readLine().startsWith("250"));
+			send(out, "RCPT TO:<test@test.com>");
+			assertTrue(in.readLine().startsWith("250"));
+			send(out, "DATA");
+			assertTrue(in.readLine().startsWith("354"));
+			send(out, "Subject: test\r\n\r\nhello\r\n.");
+			assertTrue(in.readLine().startsWith("250"));
+			send(out, "QUIT");
+			assertTrue(in.readLine().startsWith("221"));
+
+			assertEquals(1, sink.getMessages());
+			assertEquals(24, sink.getBytes());
+		}
+	}
+
+	private void send(OutputStream out, String line) throws Exception {
+		out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+}
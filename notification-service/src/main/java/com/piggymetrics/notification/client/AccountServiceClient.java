@@ -3,13 +3,19 @@ package com.piggymetrics.notification.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.List;
+
 @FeignClient(name = "account-service")
 public interface AccountServiceClient {
 
 	@RequestMapping(method = RequestMethod.GET, value = "/accounts/{accountName}", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
 	String getAccount(@PathVariable("accountName") String accountName);
 
+	@RequestMapping(method = RequestMethod.POST, value = "/accounts/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	String getAccounts(@RequestBody List<String> accountNames);
+
 }
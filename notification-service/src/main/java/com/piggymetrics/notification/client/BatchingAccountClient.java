@@ -0,0 +1,65 @@
+package com.piggymetrics.notification.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches accounts from account-service in chunks, with a single
+ * request per chunk instead of a request per account
+ */
+@Component
+public class BatchingAccountClient {
+
+	/**
+	 * Keeps amounts exactly as account-service has written them
+	 */
+	private static final ObjectMapper mapper = new ObjectMapper()
+			.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+			.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+	@Autowired
+	private AccountServiceClient client;
+
+	@Value("${notification.account-batch-size:100}")
+	private int batchSize;
+
+	/**
+	 * Fetches accounts by given names. Names with no account
+	 * are absent in the result.
+	 *
+	 * @param accountNames
+	 * @return account json by account name
+	 */
+	public Map<String, String> getAccounts(List<String> accountNames) {
+
+		Map<String, String> accounts = new HashMap<>();
+
+		for (int from = 0; from < accountNames.size(); from += batchSize) {
+			List<String> chunk = accountNames.subList(from, Math.min(from + batchSize, accountNames.size()));
+			for (JsonNode account : readTree(client.getAccounts(chunk))) {
+				accounts.put(account.get("name").asText(), account.toString());
+			}
+		}
+
+		return accounts;
+	}
+
+	private JsonNode readTree(String json) {
+		try {
+			return mapper.readTree(json);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
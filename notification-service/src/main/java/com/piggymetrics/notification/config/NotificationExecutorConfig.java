@@ -0,0 +1,131 @@
+package com.piggymetrics.notification.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor for notification sending, so that blocking email and account-service
+ * calls don't occupy the common fork-join pool.
+ *
+ * Queue depth, active threads, task latency and rejections are published
+ * as {@code notification.executor*} metrics. On shutdown, already submitted
+ * notifications are given {@code notification.executor.shutdown-timeout}
+ * to complete.
+ */
+@Configuration
+@EnableConfigurationProperties(NotificationExecutorProperties.class)
+public class NotificationExecutorConfig {
+
+    private static final String METRIC_NAME = "notification.executor";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private NotificationExecutorProperties properties;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private ExecutorService executorService;
+
+    @Bean(destroyMethod = "")
+    public Executor notificationExecutor() {
+        executorService = ExecutorServiceMetrics.monitor(registry, createExecutorService(), METRIC_NAME);
+        return new InstrumentedExecutor(executorService,
+                registry.timer(METRIC_NAME + ".latency"),
+                registry.counter(METRIC_NAME + ".rejected"));
+    }
+
+    @EventListener
+    public void drain(ContextClosedEvent event) throws InterruptedException {
+
+        if (event.getApplicationContext() != context || executorService == null) {
+            return;
+        }
+
+        executorService.shutdown();
+
+        if (!executorService.awaitTermination(properties.getShutdownTimeout(), TimeUnit.MILLISECONDS)) {
+            List<Runnable> dropped = executorService.shutdownNow();
+            log.warn("notification executor hasn't been drained in {} ms, {} queued notifications are dropped",
+                    properties.getShutdownTimeout(), dropped.size());
+        }
+    }
+
+    private ExecutorService createExecutorService() {
+
+        if (properties.getType() == NotificationExecutorProperties.Type.VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("virtual threads are not supported by this runtime, falling back to platform threads");
+            }
+        }
+
+        return new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("notification-"));
+    }
+
+    /**
+     * Records time from submission to completion of each task,
+     * and counts rejected submissions
+     */
+    private static class InstrumentedExecutor implements Executor {
+
+        private final Executor delegate;
+
+        private final Timer latency;
+
+        private final Counter rejected;
+
+        InstrumentedExecutor(Executor delegate, Timer latency, Counter rejected) {
+            this.delegate = delegate;
+            this.latency = latency;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+
+            final long submittedAt = System.nanoTime();
+
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        latency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.piggymetrics.notification.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the executor, which sends notifications
+ */
+@ConfigurationProperties(prefix = "notification.executor")
+public class NotificationExecutorProperties {
+
+    public enum Type {
+
+        /**
+         * Fixed pool of platform threads with a bounded queue
+         */
+        PLATFORM,
+
+        /**
+         * Virtual thread per task. Requires Java 21, falls back
+         * to {@link #PLATFORM} otherwise
+         */
+        VIRTUAL
+    }
+
+    private Type type = Type.PLATFORM;
+
+    /**
+     * Number of platform threads
+     */
+    private int threads = 8;
+
+    /**
+     * Capacity of platform executor queue
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Time to wait for submitted notifications on shutdown, in milliseconds
+     */
+    private long shutdownTimeout = 30000;
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(long shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -1,15 +1,24 @@
 package com.piggymetrics.notification.config;
 
+import com.piggymetrics.notification.service.security.ClientTokenManager;
+import com.piggymetrics.notification.service.security.TokenKeySignatureVerifier;
 import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.security.oauth2.client.feign.OAuth2FeignRequestInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.oauth2.client.OAuth2RestTemplate;
 import org.springframework.security.oauth2.client.token.grant.client.ClientCredentialsResourceDetails;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * @author cdov
@@ -17,18 +26,59 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.R
 @Configuration
 @EnableResourceServer
 public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
+
+    @Value("${security.oauth2.jwt.key-uri:}")
+    private String jwtKeyUri;
+
+    @Value("${security.oauth2.jwt.key-refresh-interval:60000}")
+    private long jwtKeyRefreshInterval;
+
+    @Value("${security.oauth2.client-token.refresh-before-expiry:60000}")
+    private long clientTokenRefreshBeforeExpiry;
+
+    @Value("${security.oauth2.client-token.retry-interval:5000}")
+    private long clientTokenRetryInterval;
+
     @Bean
     @ConfigurationProperties(prefix = "security.oauth2.client")
     public ClientCredentialsResourceDetails clientCredentialsResourceDetails() {
         return new ClientCredentialsResourceDetails();
     }
+
+    @Bean
+    public ClientTokenManager clientTokenManager() {
+        return new ClientTokenManager(clientCredentialsResourceDetails(), clientTokenRefreshBeforeExpiry, clientTokenRetryInterval);
+    }
+
     @Bean
     public RequestInterceptor oauth2FeignRequestInterceptor(){
-        return new OAuth2FeignRequestInterceptor(new DefaultOAuth2ClientContext(), clientCredentialsResourceDetails());
+        return new OAuth2FeignRequestInterceptor(clientTokenManager().getClientContext(), clientCredentialsResourceDetails());
     }
 
     @Bean
     public OAuth2RestTemplate clientCredentialsRestTemplate() {
-        return new OAuth2RestTemplate(clientCredentialsResourceDetails());
+        return new OAuth2RestTemplate(clientCredentialsResourceDetails(), clientTokenManager().getClientContext());
+    }
+
+    /**
+     * Verifies signed tokens in-process, using the public key of auth-service.
+     * Otherwise tokens are resolved by user-info-uri
+     */
+    @Bean
+    @ConditionalOnProperty(name = "security.oauth2.jwt.enabled", havingValue = "true")
+    public ResourceServerTokenServices tokenServices() {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setVerifier(new TokenKeySignatureVerifier(jwtKeyUri, new RestTemplate(), jwtKeyRefreshInterval));
+
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(new JwtTokenStore(converter));
+        return tokenServices;
+    }
+
+    @Override
+    public void configure(HttpSecurity http) throws Exception {
+        http.authorizeRequests()
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .anyRequest().authenticated();
     }
 }
@@ -13,6 +13,8 @@ public class NotificationSettings {
 
 	private Date lastNotified;
 
+	private Date nextNotifyAt;
+
 	public Boolean getActive() {
 		return active;
 	}
@@ -36,4 +38,12 @@ public class NotificationSettings {
 	public void setLastNotified(Date lastNotified) {
 		this.lastNotified = lastNotified;
 	}
+
+	public Date getNextNotifyAt() {
+		return nextNotifyAt;
+	}
+
+	public void setNextNotifyAt(Date nextNotifyAt) {
+		this.nextNotifyAt = nextNotifyAt;
+	}
 }
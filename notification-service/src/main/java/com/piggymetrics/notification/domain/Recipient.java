@@ -2,6 +2,8 @@ package com.piggymetrics.notification.domain;
 
 import org.hibernate.validator.constraints.Email;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.Valid;
@@ -9,6 +11,12 @@ import javax.validation.constraints.NotNull;
 import java.util.Map;
 
 @Document(collection = "recipients")
+@CompoundIndexes({
+		@CompoundIndex(name = "backup_next_notify_at",
+				def = "{'scheduledNotifications.BACKUP.active': 1, 'scheduledNotifications.BACKUP.nextNotifyAt': 1}"),
+		@CompoundIndex(name = "remind_next_notify_at",
+				def = "{'scheduledNotifications.REMIND.active': 1, 'scheduledNotifications.REMIND.nextNotifyAt': 1}")
+})
 public class Recipient {
 
 	@Id
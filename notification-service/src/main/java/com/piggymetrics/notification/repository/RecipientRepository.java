@@ -1,10 +1,12 @@
 package com.piggymetrics.notification.repository;
 
 import com.piggymetrics.notification.domain.Recipient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -12,12 +14,14 @@ public interface RecipientRepository extends CrudRepository<Recipient, String> {
 
 	Recipient findByAccountName(String name);
 
-	@Query("{ $and: [ {'scheduledNotifications.BACKUP.active': true }, { $where: 'this.scheduledNotifications.BACKUP.lastNotified < " +
-			"new Date(new Date().setDate(new Date().getDate() - this.scheduledNotifications.BACKUP.frequency ))' }] }")
-	List<Recipient> findReadyForBackup();
+	@Query("{ 'scheduledNotifications.BACKUP.active': true, 'scheduledNotifications.BACKUP.nextNotifyAt': { $lt: ?0 }, " +
+			"$or: [ { 'scheduledNotifications.BACKUP.nextNotifyAt': { $gt: ?1 } }, " +
+			"{ 'scheduledNotifications.BACKUP.nextNotifyAt': ?1, '_id': { $gt: ?2 } } ] }")
+	List<Recipient> findReadyForBackup(Date date, Date afterNextNotifyAt, String afterAccountName, Pageable pageable);
 
-	@Query("{ $and: [ {'scheduledNotifications.REMIND.active': true }, { $where: 'this.scheduledNotifications.REMIND.lastNotified < " +
-			"new Date(new Date().setDate(new Date().getDate() - this.scheduledNotifications.REMIND.frequency ))' }] }")
-	List<Recipient> findReadyForRemind();
+	@Query("{ 'scheduledNotifications.REMIND.active': true, 'scheduledNotifications.REMIND.nextNotifyAt': { $lt: ?0 }, " +
+			"$or: [ { 'scheduledNotifications.REMIND.nextNotifyAt': { $gt: ?1 } }, " +
+			"{ 'scheduledNotifications.REMIND.nextNotifyAt': ?1, '_id': { $gt: ?2 } } ] }")
+	List<Recipient> findReadyForRemind(Date date, Date afterNextNotifyAt, String afterAccountName, Pageable pageable);
 
 }
@@ -1,16 +1,27 @@
 package com.piggymetrics.notification.service;
 
-import com.piggymetrics.notification.client.AccountServiceClient;
+import com.piggymetrics.notification.client.BatchingAccountClient;
 import com.piggymetrics.notification.domain.NotificationType;
 import com.piggymetrics.notification.domain.Recipient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
@@ -18,7 +29,7 @@ public class NotificationServiceImpl implements NotificationService {
 	private final Logger log = LoggerFactory.getLogger(getClass());
 
 	@Autowired
-	private AccountServiceClient client;
+	private BatchingAccountClient accountClient;
 
 	@Autowired
 	private RecipientService recipientService;
@@ -26,42 +37,137 @@ public class NotificationServiceImpl implements NotificationService {
 	@Autowired
 	private EmailService emailService;
 
+	@Autowired
+	@Qualifier("notificationExecutor")
+	private Executor executor;
+
+	@Value("${notification.page-size:500}")
+	private int pageSize;
+
+	@Value("${notification.concurrency:8}")
+	private int concurrency;
+
 	@Override
 	@Scheduled(cron = "${backup.cron}")
 	public void sendBackupNotifications() {
+		notify(NotificationType.BACKUP, recipients -> accountClient.getAccounts(recipients.stream()
+				.map(Recipient::getAccountName)
+				.collect(Collectors.toList())));
+	}
 
-		final NotificationType type = NotificationType.BACKUP;
+	@Override
+	@Scheduled(cron = "${remind.cron}")
+	public void sendRemindNotifications() {
+		notify(NotificationType.REMIND, recipients -> Collections.emptyMap());
+	}
 
-		List<Recipient> recipients = recipientService.findReadyToNotify(type);
-		log.info("found {} recipients for backup notification", recipients.size());
+	/**
+	 * Streams recipients ready to be notified and hands them over to the executor
+	 * page by page, keeping at most {@code concurrency} notifications in flight.
+	 * Returns when all of them are processed.
+	 *
+	 * @param type
+	 * @param attachments loads attachments for a page of recipients, by account name
+	 */
+	private void notify(NotificationType type, Function<List<Recipient>, Map<String, String>> attachments) {
 
-		recipients.forEach(recipient -> CompletableFuture.runAsync(() -> {
-			try {
-				String attachment = client.getAccount(recipient.getAccountName());
-				emailService.send(type, recipient, attachment);
-				recipientService.markNotified(type, recipient);
-			} catch (Throwable t) {
-				log.error("an error during backup notification for {}", recipient, t);
+		final NotificationRun run = new NotificationRun(type, attachments);
+		final List<Recipient> batch = new ArrayList<>(pageSize);
+
+		log.info("{} notification has been started", type);
+
+		try (Stream<Recipient> recipients = recipientService.findReadyToNotify(type, pageSize)) {
+			recipients.forEach(recipient -> {
+				batch.add(recipient);
+				if (batch.size() == pageSize) {
+					run.dispatch(batch);
+					batch.clear();
+				}
+			});
+
+			if (!batch.isEmpty()) {
+				run.dispatch(batch);
 			}
-		}));
+		} finally {
+			run.await();
+		}
+
+		log.info("{} notification has been finished: {} recipients processed, {} failed, took {} ms",
+				type, run.processed.get(), run.failed.get(), System.currentTimeMillis() - run.startedAt);
 	}
 
-	@Override
-	@Scheduled(cron = "${remind.cron}")
-	public void sendRemindNotifications() {
+	private class NotificationRun {
+
+		private final NotificationType type;
+
+		private final Function<List<Recipient>, Map<String, String>> attachments;
+
+		private final Semaphore permits = new Semaphore(concurrency);
+
+		private final AtomicLong processed = new AtomicLong();
+
+		private final AtomicLong failed = new AtomicLong();
+
+		private final long startedAt = System.currentTimeMillis();
+
+		NotificationRun(NotificationType type, Function<List<Recipient>, Map<String, String>> attachments) {
+			this.type = type;
+			this.attachments = attachments;
+		}
+
+		void dispatch(List<Recipient> batch) {
 
-		final NotificationType type = NotificationType.REMIND;
+			Map<String, String> loaded;
 
-		List<Recipient> recipients = recipientService.findReadyToNotify(type);
-		log.info("found {} recipients for remind notification", recipients.size());
+			try {
+				loaded = attachments.apply(batch);
+			} catch (Throwable t) {
+				failed.addAndGet(batch.size());
+				log.error("an error during {} notification, can't load attachments for {} recipients", type, batch.size(), t);
+				progress(batch.size());
+				return;
+			}
+
+			for (Recipient recipient : batch) {
+				String attachment = loaded.get(recipient.getAccountName());
+				permits.acquireUninterruptibly();
+				try {
+					executor.execute(() -> send(recipient, attachment));
+				} catch (RejectedExecutionException e) {
+					permits.release();
+					throw e;
+				}
+			}
+		}
 
-		recipients.forEach(recipient -> CompletableFuture.runAsync(() -> {
+		void await() {
+			permits.acquireUninterruptibly(concurrency);
+		}
+
+		private void send(Recipient recipient, String attachment) {
 			try {
-				emailService.send(type, recipient, null);
+				if (type.getAttachment() != null && attachment == null) {
+					throw new IllegalStateException("no attachment found for " + recipient.getAccountName());
+				}
+				emailService.send(type, recipient, attachment);
 				recipientService.markNotified(type, recipient);
 			} catch (Throwable t) {
-				log.error("an error during remind notification for {}", recipient, t);
+				failed.incrementAndGet();
+				log.error("an error during {} notification for {}", type, recipient, t);
+			} finally {
+				permits.release();
+				progress(1);
+			}
+		}
+
+		/**
+		 * Counts processed recipients, logging each time another page of them is crossed
+		 */
+		private void progress(long added) {
+			long count = processed.addAndGet(added);
+			if ((count - added) / pageSize != count / pageSize) {
+				log.info("{} notification is in progress: {} recipients processed, {} failed", type, count, failed.get());
 			}
-		}));
+		}
 	}
 }
@@ -0,0 +1,67 @@
+package com.piggymetrics.notification.service;
+
+import com.piggymetrics.notification.domain.NotificationSettings;
+import com.piggymetrics.notification.domain.NotificationType;
+import com.piggymetrics.notification.domain.Recipient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Populates {@code nextNotifyAt} for recipients saved before it was introduced,
+ * so they are found by the due date query. Recipients which already have it
+ * are not touched, hence the migration is a no-op after the first run.
+ */
+@Component
+public class RecipientScheduleMigration {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void migrate() {
+		for (NotificationType type : NotificationType.values()) {
+			migrate(type);
+		}
+	}
+
+	private void migrate(NotificationType type) {
+
+		final String path = "scheduledNotifications." + type;
+
+		Query query = Query.query(Criteria.where(path + ".lastNotified").exists(true)
+				.and(path + ".nextNotifyAt").exists(false));
+
+		int migrated = 0;
+
+		try (CloseableIterator<Recipient> recipients = mongoTemplate.stream(query, Recipient.class)) {
+			while (recipients.hasNext()) {
+
+				Recipient recipient = recipients.next();
+				NotificationSettings settings = recipient.getScheduledNotifications().get(type);
+
+				mongoTemplate.updateFirst(
+						Query.query(Criteria.where("_id").is(recipient.getAccountName())
+								.and(path + ".nextNotifyAt").exists(false)),
+						Update.update(path + ".nextNotifyAt", RecipientServiceImpl.getNextNotifyAt(settings)),
+						Recipient.class);
+
+				migrated++;
+			}
+		}
+
+		if (migrated > 0) {
+			log.info("{} notification has been scheduled for {} existing recipients", type, migrated);
+		}
+	}
+}
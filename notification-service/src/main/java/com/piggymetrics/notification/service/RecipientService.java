@@ -3,7 +3,7 @@ package com.piggymetrics.notification.service;
 import com.piggymetrics.notification.domain.NotificationType;
 import com.piggymetrics.notification.domain.Recipient;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 public interface RecipientService {
 
@@ -16,13 +16,15 @@ public interface RecipientService {
 	Recipient findByAccountName(String accountName);
 
 	/**
-	 * Finds recipients, which are ready to be notified
-	 * at the moment
+	 * Streams recipients, which are ready to be notified
+	 * at the moment. Recipients are fetched lazily, page by page,
+	 * in order of their due date.
 	 *
 	 * @param type
+	 * @param pageSize number of recipients fetched at once
 	 * @return recipients to notify
 	 */
-	List<Recipient> findReadyToNotify(NotificationType type);
+	Stream<Recipient> findReadyToNotify(NotificationType type, int pageSize);
 
 	/**
 	 * Creates or updates recipient settings
@@ -35,7 +37,7 @@ public interface RecipientService {
 
 	/**
 	 * Updates {@link NotificationType} {@code lastNotified} property with current date
-	 * for given recipient.
+	 * and reschedules {@code nextNotifyAt} for given recipient.
 	 *
 	 * @param type
 	 * @param recipient
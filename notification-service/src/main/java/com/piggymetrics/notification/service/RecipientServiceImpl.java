@@ -1,16 +1,28 @@
 package com.piggymetrics.notification.service;
 
+import com.piggymetrics.notification.domain.NotificationSettings;
 import com.piggymetrics.notification.domain.NotificationType;
 import com.piggymetrics.notification.domain.Recipient;
 import com.piggymetrics.notification.repository.RecipientRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.time.ZoneId;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class RecipientServiceImpl implements RecipientService {
@@ -38,6 +50,7 @@ public class RecipientServiceImpl implements RecipientService {
 					if (settings.getLastNotified() == null) {
 						settings.setLastNotified(new Date());
 					}
+					settings.setNextNotifyAt(getNextNotifyAt(settings));
 				});
 
 		repository.save(recipient);
@@ -51,12 +64,23 @@ public class RecipientServiceImpl implements RecipientService {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public List<Recipient> findReadyToNotify(NotificationType type) {
+	public Stream<Recipient> findReadyToNotify(NotificationType type, int pageSize) {
+		Assert.isTrue(pageSize > 0, "page size must be positive");
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+				new ReadyToNotifyIterator(type, pageSize, new Date()), Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	private List<Recipient> findReadyToNotify(NotificationType type, Date date, Date afterNextNotifyAt,
+											  String afterAccountName, int pageSize) {
+
+		Pageable page = PageRequest.of(0, pageSize, Sort.Direction.ASC,
+				"scheduledNotifications." + type + ".nextNotifyAt", "accountName");
+
 		switch (type) {
 			case BACKUP:
-				return repository.findReadyForBackup();
+				return repository.findReadyForBackup(date, afterNextNotifyAt, afterAccountName, page);
 			case REMIND:
-				return repository.findReadyForRemind();
+				return repository.findReadyForRemind(date, afterNextNotifyAt, afterAccountName, page);
 			default:
 				throw new IllegalArgumentException();
 		}
@@ -67,7 +91,81 @@ public class RecipientServiceImpl implements RecipientService {
 	 */
 	@Override
 	public void markNotified(NotificationType type, Recipient recipient) {
-		recipient.getScheduledNotifications().get(type).setLastNotified(new Date());
+		NotificationSettings settings = recipient.getScheduledNotifications().get(type);
+		settings.setLastNotified(new Date());
+		settings.setNextNotifyAt(getNextNotifyAt(settings));
 		repository.save(recipient);
 	}
+
+	/**
+	 * Calculates the date, after which the recipient is ready
+	 * to be notified again
+	 */
+	static Date getNextNotifyAt(NotificationSettings settings) {
+		return Date.from(settings.getLastNotified().toInstant()
+				.atZone(ZoneId.systemDefault())
+				.plusDays(settings.getFrequency().getDays())
+				.toInstant());
+	}
+
+	/**
+	 * Walks through recipients due at the given date, fetching the next page
+	 * once the previous one is consumed. Pages are keyed by the last seen
+	 * {@code (nextNotifyAt, accountName)} rather than skipped by offset, so each
+	 * page query is served by the index and isn't affected by recipients
+	 * marked as notified in the meantime.
+	 */
+	private class ReadyToNotifyIterator implements Iterator<Recipient> {
+
+		private final NotificationType type;
+
+		private final int pageSize;
+
+		private final Date date;
+
+		private Date lastNextNotifyAt = new Date(0);
+
+		private String lastAccountName = "";
+
+		private Iterator<Recipient> page = Collections.emptyIterator();
+
+		private boolean exhausted;
+
+		ReadyToNotifyIterator(NotificationType type, int pageSize, Date date) {
+			this.type = type;
+			this.pageSize = pageSize;
+			this.date = date;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!page.hasNext() && !exhausted) {
+				fetchPage();
+			}
+			return page.hasNext();
+		}
+
+		@Override
+		public Recipient next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return page.next();
+		}
+
+		private void fetchPage() {
+
+			List<Recipient> recipients = findReadyToNotify(type, date, lastNextNotifyAt, lastAccountName, pageSize);
+
+			exhausted = recipients.size() < pageSize;
+
+			if (!recipients.isEmpty()) {
+				Recipient last = recipients.get(recipients.size() - 1);
+				lastNextNotifyAt = last.getScheduledNotifications().get(type).getNextNotifyAt();
+				lastAccountName = last.getAccountName();
+			}
+
+			page = recipients.iterator();
+		}
+	}
 }
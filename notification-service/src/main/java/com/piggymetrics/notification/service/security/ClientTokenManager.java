@@ -0,0 +1,180 @@
+package com.piggymetrics.notification.service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2ClientContext;
+import org.springframework.security.oauth2.client.token.AccessTokenProvider;
+import org.springframework.security.oauth2.client.token.DefaultAccessTokenRequest;
+import org.springframework.security.oauth2.client.token.grant.client.ClientCredentialsAccessTokenProvider;
+import org.springframework.security.oauth2.client.token.grant.client.ClientCredentialsResourceDetails;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a single {@code client_credentials} token of this service, shared
+ * by all Feign clients and the client credentials rest template through
+ * {@link #getClientContext()}.
+ *
+ * The token is obtained on startup and renewed on a background thread
+ * {@code refreshBeforeExpiry} milliseconds before it expires (or at the half of
+ * its lifetime, if that's earlier), so requests don't wait for auth-service.
+ * If auth-service returns the same token again, the next renewal waits until
+ * it expires instead of polling. Failed renewals are retried every {@code retryInterval} milliseconds. Callers
+ * still obtain the token inline, if there is no valid one.
+ */
+public class ClientTokenManager {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final ClientCredentialsResourceDetails resource;
+
+	private final long refreshBeforeExpiry;
+
+	private final long retryInterval;
+
+	private final SharedClientContext context = new SharedClientContext();
+
+	private AccessTokenProvider accessTokenProvider = new ClientCredentialsAccessTokenProvider();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param resource client credentials of this service
+	 * @param refreshBeforeExpiry how long before expiration the token is renewed, in milliseconds
+	 * @param retryInterval delay between failed renewals, in milliseconds
+	 */
+	public ClientTokenManager(ClientCredentialsResourceDetails resource, long refreshBeforeExpiry, long retryInterval) {
+		this.resource = resource;
+		this.refreshBeforeExpiry = refreshBeforeExpiry;
+		this.retryInterval = retryInterval;
+	}
+
+	public void setAccessTokenProvider(AccessTokenProvider accessTokenProvider) {
+		this.accessTokenProvider = accessTokenProvider;
+	}
+
+	@PostConstruct
+	public void start() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("client-token-");
+		threadFactory.setDaemon(true);
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		scheduler.execute(this::refresh);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return context holding the current token of this service
+	 */
+	public OAuth2ClientContext getClientContext() {
+		return context;
+	}
+
+	/**
+	 * Obtains a new token and schedules its renewal
+	 */
+	void refresh() {
+
+		long delay = renew();
+
+		if (delay >= 0 && !scheduler.isShutdown()) {
+			scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Obtains a token and puts it into the shared context
+	 *
+	 * @return delay before the next renewal in milliseconds, or -1 if the token doesn't expire
+	 */
+	long renew() {
+
+		OAuth2AccessToken previous = context.getAccessToken();
+
+		OAuth2AccessToken token;
+		try {
+			token = accessTokenProvider.obtainAccessToken(resource, new DefaultAccessTokenRequest());
+		} catch (RuntimeException e) {
+			log.warn("failed to renew client token of {}, will retry in {} ms", resource.getClientId(), retryInterval, e);
+			return retryInterval;
+		}
+
+		context.setAccessToken(token);
+
+		if (isSame(previous, token)) {
+			// auth-service handed out the token it has already issued, a new one is only available after it expires
+			long delay = getExpirationDelay(token);
+			log.debug("client token of {} hasn't changed, next renewal in {} ms", resource.getClientId(), delay);
+			return delay;
+		}
+
+		long delay = getRefreshDelay(token);
+		log.debug("client token of {} has been renewed, next renewal in {} ms", resource.getClientId(), delay);
+
+		return delay;
+	}
+
+	/**
+	 * @return delay before renewal in milliseconds, or -1 if the token doesn't expire
+	 */
+	long getRefreshDelay(OAuth2AccessToken token) {
+
+		if (token.getExpiration() == null) {
+			return -1;
+		}
+
+		long expiresIn = token.getExpiration().getTime() - System.currentTimeMillis();
+
+		return Math.max(retryInterval, Math.min(expiresIn - refreshBeforeExpiry, expiresIn / 2));
+	}
+
+	/**
+	 * @return delay until the token expires in milliseconds, or -1 if it doesn't expire
+	 */
+	private long getExpirationDelay(OAuth2AccessToken token) {
+
+		if (token.getExpiration() == null) {
+			return -1;
+		}
+
+		return Math.max(retryInterval, token.getExpiration().getTime() - System.currentTimeMillis());
+	}
+
+	private boolean isSame(OAuth2AccessToken previous, OAuth2AccessToken token) {
+		return previous != null && (previous.getValue().equals(token.getValue())
+				|| (previous.getExpiration() != null && previous.getExpiration().equals(token.getExpiration())));
+	}
+
+	/**
+	 * Client context, which token is written by the renewal thread
+	 * and read by request threads
+	 */
+	private static class SharedClientContext extends DefaultOAuth2ClientContext {
+
+		private volatile OAuth2AccessToken accessToken;
+
+		@Override
+		public OAuth2AccessToken getAccessToken() {
+			return accessToken;
+		}
+
+		@Override
+		public void setAccessToken(OAuth2AccessToken accessToken) {
+			this.accessToken = accessToken;
+			super.setAccessToken(accessToken);
+		}
+	}
+}
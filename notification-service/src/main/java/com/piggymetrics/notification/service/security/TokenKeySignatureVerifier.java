@@ -0,0 +1,95 @@
+package com.piggymetrics.notification.service.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.jwt.crypto.sign.InvalidSignatureException;
+import org.springframework.security.jwt.crypto.sign.RsaVerifier;
+import org.springframework.security.jwt.crypto.sign.SignatureVerifier;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestOperations;
+
+import java.util.Map;
+
+/**
+ * Verifies signed tokens locally with the public key served by auth-service
+ * token key endpoint.
+ *
+ * The key is requested on first use and cached. When a signature doesn't match
+ * the cached key, the key is requested again (not more often than once per
+ * {@code minRefreshInterval}), so auth-service key rotation doesn't require
+ * resource server restart.
+ */
+public class TokenKeySignatureVerifier implements SignatureVerifier {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final String keyUri;
+
+	private final RestOperations restTemplate;
+
+	private final long minRefreshInterval;
+
+	private volatile SignatureVerifier verifier;
+
+	private long fetchedAt;
+
+	public TokenKeySignatureVerifier(String keyUri, RestOperations restTemplate, long minRefreshInterval) {
+		Assert.hasLength(keyUri, "token key uri must be specified");
+		this.keyUri = keyUri;
+		this.restTemplate = restTemplate;
+		this.minRefreshInterval = minRefreshInterval;
+	}
+
+	@Override
+	public void verify(byte[] content, byte[] signature) {
+
+		SignatureVerifier current = getVerifier();
+
+		try {
+			current.verify(content, signature);
+		} catch (InvalidSignatureException e) {
+			SignatureVerifier refreshed = refreshVerifier(current);
+			if (refreshed == current) {
+				throw e;
+			}
+			refreshed.verify(content, signature);
+		}
+	}
+
+	@Override
+	public String algorithm() {
+		return getVerifier().algorithm();
+	}
+
+	private SignatureVerifier getVerifier() {
+		SignatureVerifier current = verifier;
+		return current != null ? current : refreshVerifier(null);
+	}
+
+	private synchronized SignatureVerifier refreshVerifier(SignatureVerifier stale) {
+
+		if (verifier != stale) {
+			return verifier;
+		}
+
+		if (verifier != null && System.currentTimeMillis() - fetchedAt < minRefreshInterval) {
+			return verifier;
+		}
+
+		verifier = new RsaVerifier(fetchKey());
+		fetchedAt = System.currentTimeMillis();
+
+		log.info("token verification key has been fetched from {}", keyUri);
+
+		return verifier;
+	}
+
+	@SuppressWarnings("unchecked")
+	private String fetchKey() {
+
+		Map<String, String> key = restTemplate.getForObject(keyUri, Map.class);
+		Assert.state(key != null && key.get("value") != null, "token key endpoint returned no key: " + keyUri);
+
+		return key.get("value");
+	}
+}
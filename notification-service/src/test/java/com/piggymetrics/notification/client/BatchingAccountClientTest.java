@@ -0,0 +1,50 @@
+package com.piggymetrics.notification.client;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class BatchingAccountClientTest {
+
+	@InjectMocks
+	private BatchingAccountClient batchingClient;
+
+	@Mock
+	private AccountServiceClient client;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(batchingClient, "batchSize", 2);
+	}
+
+	@Test
+	public void shouldFetchAccountsInChunks() {
+
+		when(client.getAccounts(ImmutableList.of("first", "second")))
+				.thenReturn("[{\"name\":\"first\",\"saving\":{\"amount\":1500.00}},{\"name\":\"second\"}]");
+		when(client.getAccounts(ImmutableList.of("third")))
+				.thenReturn("[]");
+
+		Map<String, String> accounts = batchingClient.getAccounts(ImmutableList.of("first", "second", "third"));
+
+		verify(client).getAccounts(ImmutableList.of("first", "second"));
+		verify(client).getAccounts(ImmutableList.of("third"));
+
+		assertEquals(2, accounts.size());
+		assertEquals("{\"name\":\"first\",\"saving\":{\"amount\":1500.00}}", accounts.get("first"));
+		assertEquals("{\"name\":\"second\"}", accounts.get("second"));
+		assertFalse(accounts.containsKey("third"));
+	}
+}
@@ -0,0 +1,171 @@
+package com.piggymetrics.notification.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class NotificationExecutorConfigTest {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final NotificationExecutorProperties properties = new NotificationExecutorProperties();
+
+	private final NotificationExecutorConfig config = new NotificationExecutorConfig();
+
+	private final ApplicationContext context = mock(ApplicationContext.class);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(config, "properties", properties);
+		ReflectionTestUtils.setField(config, "registry", registry);
+		ReflectionTestUtils.setField(config, "context", context);
+	}
+
+	@After
+	public void shutdown() throws InterruptedException {
+		release.countDown();
+		properties.setShutdownTimeout(1000);
+		config.drain(new ContextClosedEvent(context));
+	}
+
+	@Test
+	public void shouldFallBackToPlatformThreadsWhenVirtualThreadsAreNotSupported() throws Exception {
+
+		properties.setType(NotificationExecutorProperties.Type.VIRTUAL);
+		properties.setThreads(1);
+
+		Executor executor = config.notificationExecutor();
+
+		AtomicReference<String> threadName = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute(() -> {
+			threadName.set(Thread.currentThread().getName());
+			done.countDown();
+		});
+
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+
+		// named platform threads on Java 8, unnamed virtual ones where supported
+		assertEquals(!isVirtualThreadsSupported(), threadName.get().startsWith("notification-"));
+	}
+
+	@Test
+	public void shouldDrainInFlightNotificationsOnShutdown() throws Exception {
+
+		properties.setThreads(1);
+		properties.setShutdownTimeout(5000);
+
+		Executor executor = config.notificationExecutor();
+		AtomicInteger completed = new AtomicInteger();
+
+		// the first one is in flight, the second one is queued
+		for (int i = 0; i < 2; i++) {
+			executor.execute(() -> {
+				sleep(100);
+				completed.incrementAndGet();
+			});
+		}
+
+		config.drain(new ContextClosedEvent(context));
+
+		assertEquals(2, completed.get());
+		assertEquals(2, registry.timer("notification.executor.latency").count());
+	}
+
+	@Test
+	public void shouldDropQueuedNotificationsWhenShutdownTimeoutExpires() throws Exception {
+
+		properties.setThreads(1);
+		properties.setShutdownTimeout(100);
+
+		Executor executor = config.notificationExecutor();
+		AtomicInteger completed = new AtomicInteger();
+
+		executor.execute(this::awaitRelease);
+		executor.execute(completed::incrementAndGet);
+
+		config.drain(new ContextClosedEvent(context));
+
+		assertEquals(0, completed.get());
+	}
+
+	@Test
+	public void shouldNotDrainOnShutdownOfAnotherContext() throws Exception {
+
+		properties.setThreads(1);
+
+		Executor executor = config.notificationExecutor();
+		config.drain(new ContextClosedEvent(mock(ApplicationContext.class)));
+
+		CountDownLatch done = new CountDownLatch(1);
+		executor.execute(done::countDown);
+
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void shouldCountRejectedNotifications() {
+
+		properties.setThreads(1);
+		properties.setQueueCapacity(1);
+
+		Executor executor = config.notificationExecutor();
+
+		executor.execute(this::awaitRelease);
+		executor.execute(this::awaitRelease);
+
+		try {
+			executor.execute(this::awaitRelease);
+			fail("expected the notification to be rejected");
+		} catch (RejectedExecutionException expected) {
+			// both the thread and the queue are busy
+		}
+
+		assertEquals(1, registry.counter("notification.executor.rejected").count(), 0);
+	}
+
+	private boolean isVirtualThreadsSupported() {
+		try {
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -10,6 +10,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.Date;
@@ -75,6 +76,7 @@ public class RecipientRepositoryTest {
 		remind.setActive(true);
 		remind.setFrequency(Frequency.WEEKLY);
 		remind.setLastNotified(DateUtils.addDays(new Date(), -8));
+		remind.setNextNotifyAt(DateUtils.addDays(remind.getLastNotified(), remind.getFrequency().getDays()));
 
 		Recipient recipient = new Recipient();
 		recipient.setAccountName("test");
@@ -85,7 +87,7 @@ public class RecipientRepositoryTest {
 
 		repository.save(recipient);
 
-		List<Recipient> found = repository.findReadyForRemind();
+		List<Recipient> found = repository.findReadyForRemind(new Date(), new Date(0), "", PageRequest.of(0, 10));
 		assertFalse(found.isEmpty());
 	}
 
@@ -96,6 +98,7 @@ public class RecipientRepositoryTest {
 		remind.setActive(true);
 		remind.setFrequency(Frequency.WEEKLY);
 		remind.setLastNotified(DateUtils.addDays(new Date(), -1));
+		remind.setNextNotifyAt(DateUtils.addDays(remind.getLastNotified(), remind.getFrequency().getDays()));
 
 		Recipient recipient = new Recipient();
 		recipient.setAccountName("test");
@@ -106,7 +109,7 @@ public class RecipientRepositoryTest {
 
 		repository.save(recipient);
 
-		List<Recipient> found = repository.findReadyForRemind();
+		List<Recipient> found = repository.findReadyForRemind(new Date(), new Date(0), "", PageRequest.of(0, 10));
 		assertTrue(found.isEmpty());
 	}
 
@@ -117,6 +120,7 @@ public class RecipientRepositoryTest {
 		remind.setActive(false);
 		remind.setFrequency(Frequency.WEEKLY);
 		remind.setLastNotified(DateUtils.addDays(new Date(), -30));
+		remind.setNextNotifyAt(DateUtils.addDays(remind.getLastNotified(), remind.getFrequency().getDays()));
 
 		Recipient recipient = new Recipient();
 		recipient.setAccountName("test");
@@ -127,7 +131,7 @@ public class RecipientRepositoryTest {
 
 		repository.save(recipient);
 
-		List<Recipient> found = repository.findReadyForRemind();
+		List<Recipient> found = repository.findReadyForRemind(new Date(), new Date(0), "", PageRequest.of(0, 10));
 		assertTrue(found.isEmpty());
 	}
 
@@ -138,6 +142,7 @@ public class RecipientRepositoryTest {
 		remind.setActive(true);
 		remind.setFrequency(Frequency.QUARTERLY);
 		remind.setLastNotified(DateUtils.addDays(new Date(), -91));
+		remind.setNextNotifyAt(DateUtils.addDays(remind.getLastNotified(), remind.getFrequency().getDays()));
 
 		Recipient recipient = new Recipient();
 		recipient.setAccountName("test");
@@ -148,7 +153,7 @@ public class RecipientRepositoryTest {
 
 		repository.save(recipient);
 
-		List<Recipient> found = repository.findReadyForBackup();
+		List<Recipient> found = repository.findReadyForBackup(new Date(), new Date(0), "", PageRequest.of(0, 10));
 		assertFalse(found.isEmpty());
 	}
 }
\ No newline at end of file
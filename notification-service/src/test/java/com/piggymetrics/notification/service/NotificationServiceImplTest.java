@@ -1,17 +1,31 @@
 package com.piggymetrics.notification.service;
 
 import com.google.common.collect.ImmutableList;
-import com.piggymetrics.notification.client.AccountServiceClient;
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.notification.client.BatchingAccountClient;
 import com.piggymetrics.notification.domain.NotificationType;
 import com.piggymetrics.notification.domain.Recipient;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.mail.MessagingException;
 import java.io.IOException;
-
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -24,7 +38,7 @@ public class NotificationServiceImplTest {
 	private RecipientService recipientService;
 
 	@Mock
-	private AccountServiceClient client;
+	private BatchingAccountClient accountClient;
 
 	@Mock
 	private EmailService emailService;
@@ -32,6 +46,9 @@ public class NotificationServiceImplTest {
 	@Before
 	public void setup() {
 		initMocks(this);
+		ReflectionTestUtils.setField(notificationService, "executor", Executors.newFixedThreadPool(2));
+		ReflectionTestUtils.setField(notificationService, "pageSize", 10);
+		ReflectionTestUtils.setField(notificationService, "concurrency", 2);
 	}
 
 	@Test
@@ -45,10 +62,10 @@ public class NotificationServiceImplTest {
 		Recipient withNoError = new Recipient();
 		withNoError.setAccountName("with-no-error");
 
-		when(client.getAccount(withError.getAccountName())).thenThrow(new RuntimeException());
-		when(client.getAccount(withNoError.getAccountName())).thenReturn(attachment);
+		when(accountClient.getAccounts(ImmutableList.of(withNoError.getAccountName(), withError.getAccountName())))
+				.thenReturn(ImmutableMap.of(withNoError.getAccountName(), attachment));
 
-		when(recipientService.findReadyToNotify(NotificationType.BACKUP)).thenReturn(ImmutableList.of(withNoError, withError));
+		when(recipientService.findReadyToNotify(NotificationType.BACKUP, 10)).thenReturn(Stream.of(withNoError, withError));
 
 		notificationService.sendBackupNotifications();
 
@@ -60,6 +77,45 @@ public class NotificationServiceImplTest {
 		verify(recipientService, never()).markNotified(NotificationType.BACKUP, withError);
 	}
 
+	@Test
+	public void shouldFetchAccountsPageByPage() throws IOException, MessagingException, InterruptedException {
+
+		List<Recipient> recipients = IntStream.range(0, 12)
+				.mapToObj(i -> {
+					Recipient recipient = new Recipient();
+					recipient.setAccountName("test-" + i);
+					return recipient;
+				})
+				.collect(Collectors.toList());
+
+		when(recipientService.findReadyToNotify(NotificationType.BACKUP, 10)).thenReturn(recipients.stream());
+		when(accountClient.getAccounts(anyList())).thenAnswer(invocation -> {
+			List<String> names = invocation.getArgument(0);
+			return names.stream().collect(Collectors.toMap(Function.identity(), name -> "json"));
+		});
+
+		notificationService.sendBackupNotifications();
+
+		verify(accountClient, times(2)).getAccounts(anyList());
+		verify(emailService, times(12)).send(eq(NotificationType.BACKUP), any(Recipient.class), eq("json"));
+		verify(recipientService, times(12)).markNotified(eq(NotificationType.BACKUP), any(Recipient.class));
+	}
+
+	@Test
+	public void shouldNotSendBackupNotificationsWhenAccountsCanNotBeFetched() throws IOException, MessagingException, InterruptedException {
+
+		Recipient recipient = new Recipient();
+		recipient.setAccountName("test");
+
+		when(recipientService.findReadyToNotify(NotificationType.BACKUP, 10)).thenReturn(Stream.of(recipient));
+		when(accountClient.getAccounts(anyList())).thenThrow(new RuntimeException());
+
+		notificationService.sendBackupNotifications();
+
+		verify(emailService, never()).send(any(NotificationType.class), any(Recipient.class), any());
+		verify(recipientService, never()).markNotified(any(NotificationType.class), any(Recipient.class));
+	}
+
 	@Test
 	public void shouldSendRemindNotificationsEvenWhenErrorsOccursForSomeRecipients() throws IOException, MessagingException, InterruptedException {
 
@@ -71,7 +127,7 @@ public class NotificationServiceImplTest {
 		Recipient withNoError = new Recipient();
 		withNoError.setAccountName("with-no-error");
 
-		when(recipientService.findReadyToNotify(NotificationType.REMIND)).thenReturn(ImmutableList.of(withNoError, withError));
+		when(recipientService.findReadyToNotify(NotificationType.REMIND, 10)).thenReturn(Stream.of(withNoError, withError));
 		doThrow(new RuntimeException()).when(emailService).send(NotificationType.REMIND, withError, null);
 
 		notificationService.sendRemindNotifications();
@@ -83,4 +139,30 @@ public class NotificationServiceImplTest {
 
 		verify(recipientService, never()).markNotified(NotificationType.REMIND, withError);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void shouldNotExceedConcurrencyLimit() throws IOException, MessagingException, InterruptedException {
+
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		when(recipientService.findReadyToNotify(NotificationType.REMIND, 10)).thenReturn(IntStream.range(0, 20)
+				.mapToObj(i -> {
+					Recipient recipient = new Recipient();
+					recipient.setAccountName("test-" + i);
+					return recipient;
+				}));
+
+		doAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(5);
+			inFlight.decrementAndGet();
+			return null;
+		}).when(emailService).send(eq(NotificationType.REMIND), any(Recipient.class), isNull());
+
+		notificationService.sendRemindNotifications();
+
+		verify(recipientService, times(20)).markNotified(eq(NotificationType.REMIND), any(Recipient.class));
+		assertTrue(maxInFlight.get() <= 2);
+	}
+}
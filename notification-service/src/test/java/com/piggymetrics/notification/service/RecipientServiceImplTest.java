@@ -7,16 +7,23 @@ import com.piggymetrics.notification.domain.NotificationSettings;
 import com.piggymetrics.notification.domain.NotificationType;
 import com.piggymetrics.notification.domain.Recipient;
 import com.piggymetrics.notification.repository.RecipientRepository;
+import org.apache.commons.lang.time.DateUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -75,26 +82,47 @@ public class RecipientServiceImplTest {
 		verify(repository).save(recipient);
 		assertNotNull(saved.getScheduledNotifications().get(NotificationType.REMIND).getLastNotified());
 		assertEquals("test", saved.getAccountName());
+
+		assertEquals(DateUtils.addDays(backup.getLastNotified(), Frequency.MONTHLY.getDays()), backup.getNextNotifyAt());
+		assertEquals(DateUtils.addDays(remind.getLastNotified(), Frequency.WEEKLY.getDays()), remind.getNextNotifyAt());
 	}
 
 	@Test
 	public void shouldFindReadyToNotifyWhenNotificationTypeIsBackup() {
-		final List<Recipient> recipients = ImmutableList.of(new Recipient());
-		when(repository.findReadyForBackup()).thenReturn(recipients);
+		final List<Recipient> recipients = ImmutableList.of(getStubRecipient(NotificationType.BACKUP, "test", new Date()));
+		when(repository.findReadyForBackup(any(Date.class), eq(new Date(0)), eq(""), any(Pageable.class))).thenReturn(recipients);
 
-		List<Recipient> found = recipientService.findReadyToNotify(NotificationType.BACKUP);
+		List<Recipient> found = recipientService.findReadyToNotify(NotificationType.BACKUP, 10).collect(Collectors.toList());
 		assertEquals(recipients, found);
+		verify(repository, times(1)).findReadyForBackup(any(Date.class), any(Date.class), anyString(), any(Pageable.class));
 	}
 
 	@Test
 	public void shouldFindReadyToNotifyWhenNotificationTypeIsRemind() {
-		final List<Recipient> recipients = ImmutableList.of(new Recipient());
-		when(repository.findReadyForRemind()).thenReturn(recipients);
+		final List<Recipient> recipients = ImmutableList.of(getStubRecipient(NotificationType.REMIND, "test", new Date()));
+		when(repository.findReadyForRemind(any(Date.class), eq(new Date(0)), eq(""), any(Pageable.class))).thenReturn(recipients);
 
-		List<Recipient> found = recipientService.findReadyToNotify(NotificationType.REMIND);
+		List<Recipient> found = recipientService.findReadyToNotify(NotificationType.REMIND, 10).collect(Collectors.toList());
 		assertEquals(recipients, found);
 	}
 
+	@Test
+	public void shouldFetchNextPageAfterLastRecipientOfPreviousOne() {
+
+		final Date date = new Date();
+		final Recipient first = getStubRecipient(NotificationType.REMIND, "first", date);
+		final Recipient second = getStubRecipient(NotificationType.REMIND, "second", date);
+		final Recipient third = getStubRecipient(NotificationType.REMIND, "third", date);
+
+		when(repository.findReadyForRemind(any(Date.class), eq(new Date(0)), eq(""), any(Pageable.class)))
+				.thenReturn(ImmutableList.of(first, second));
+		when(repository.findReadyForRemind(any(Date.class), eq(date), eq("second"), any(Pageable.class)))
+				.thenReturn(ImmutableList.of(third));
+
+		List<Recipient> found = recipientService.findReadyToNotify(NotificationType.REMIND, 2).collect(Collectors.toList());
+		assertEquals(ImmutableList.of(first, second, third), found);
+	}
+
 	@Test
 	public void shouldMarkAsNotified() {
 
@@ -112,6 +140,21 @@ public class RecipientServiceImplTest {
 
 		recipientService.markNotified(NotificationType.REMIND, recipient);
 		assertNotNull(recipient.getScheduledNotifications().get(NotificationType.REMIND).getLastNotified());
+		assertEquals(DateUtils.addDays(remind.getLastNotified(), Frequency.WEEKLY.getDays()), remind.getNextNotifyAt());
 		verify(repository).save(recipient);
 	}
-}
\ No newline at end of file
+
+	private Recipient getStubRecipient(NotificationType type, String accountName, Date nextNotifyAt) {
+
+		NotificationSettings settings = new NotificationSettings();
+		settings.setActive(true);
+		settings.setFrequency(Frequency.WEEKLY);
+		settings.setNextNotifyAt(nextNotifyAt);
+
+		Recipient recipient = new Recipient();
+		recipient.setAccountName(accountName);
+		recipient.setScheduledNotifications(ImmutableMap.of(type, settings));
+
+		return recipient;
+	}
+}
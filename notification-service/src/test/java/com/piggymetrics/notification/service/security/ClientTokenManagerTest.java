@@ -0,0 +1,127 @@
+package com.piggymetrics.notification.service.security;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.oauth2.client.resource.OAuth2AccessDeniedException;
+import org.springframework.security.oauth2.client.token.AccessTokenProvider;
+import org.springframework.security.oauth2.client.token.AccessTokenRequest;
+import org.springframework.security.oauth2.client.token.grant.client.ClientCredentialsResourceDetails;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClientTokenManagerTest {
+
+	private AccessTokenProvider provider;
+
+	private ClientTokenManager manager;
+
+	@Before
+	public void setup() {
+		provider = mock(AccessTokenProvider.class);
+		manager = new ClientTokenManager(new ClientCredentialsResourceDetails(), 60000, 10);
+		manager.setAccessTokenProvider(provider);
+	}
+
+	@After
+	public void shutdown() {
+		manager.stop();
+	}
+
+	@Test
+	public void shouldObtainTokenOnStart() {
+
+		DefaultOAuth2AccessToken token = getToken("token", 3600000);
+		when(provider.obtainAccessToken(any(), any(AccessTokenRequest.class))).thenReturn(token);
+
+		manager.start();
+
+		verify(provider, timeout(1000).times(1)).obtainAccessToken(any(), any(AccessTokenRequest.class));
+		waitForToken();
+		assertEquals(token, manager.getClientContext().getAccessToken());
+	}
+
+	@Test
+	public void shouldRetryWhenTokenCantBeObtained() {
+
+		DefaultOAuth2AccessToken token = getToken("token", 3600000);
+		when(provider.obtainAccessToken(any(), any(AccessTokenRequest.class)))
+				.thenThrow(new OAuth2AccessDeniedException("unavailable"))
+				.thenReturn(token);
+
+		manager.start();
+
+		verify(provider, timeout(1000).times(2)).obtainAccessToken(any(), any(AccessTokenRequest.class));
+		waitForToken();
+		assertEquals(token, manager.getClientContext().getAccessToken());
+	}
+
+	@Test
+	public void shouldRenewTokenBeforeExpiration() {
+
+		long delay = manager.getRefreshDelay(getToken("token", 3600000));
+		assertTrue(delay > 3500000 && delay <= 3540000);
+
+		// short-lived token is renewed at the half of its lifetime
+		delay = manager.getRefreshDelay(getToken("token", 60000));
+		assertTrue(delay > 25000 && delay <= 30000);
+
+		// but never polls auth-service
+		assertEquals(10, manager.getRefreshDelay(getToken("token", 5)));
+
+		assertEquals(-1, manager.getRefreshDelay(new DefaultOAuth2AccessToken("token")));
+	}
+
+	@Test
+	public void shouldWaitForExpirationWhenSameTokenIsReturned() {
+
+		DefaultOAuth2AccessToken token = getToken("token", 30000);
+		when(provider.obtainAccessToken(any(), any(AccessTokenRequest.class))).thenReturn(token);
+
+		// less than refresh-before-expiry is left, so the first renewal is due right away
+		assertEquals(10, manager.renew());
+
+		long delay = manager.renew();
+		assertTrue(delay > 29000 && delay <= 30000);
+		assertEquals(token, manager.getClientContext().getAccessToken());
+	}
+
+	@Test
+	public void shouldScheduleRenewalOfNewToken() {
+
+		when(provider.obtainAccessToken(any(), any(AccessTokenRequest.class)))
+				.thenReturn(getToken("first", 30000))
+				.thenReturn(getToken("second", 3600000));
+
+		manager.renew();
+
+		long delay = manager.renew();
+		assertTrue(delay > 3500000 && delay <= 3540000);
+		assertEquals("second", manager.getClientContext().getAccessToken().getValue());
+	}
+
+	private void waitForToken() {
+		for (int i = 0; i < 100 && manager.getClientContext().getAccessToken() == null; i++) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private DefaultOAuth2AccessToken getToken(String value, long expiresIn) {
+		DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+		token.setExpiration(new Date(System.currentTimeMillis() + expiresIn));
+		return token;
+	}
+}
@@ -2,6 +2,7 @@ package com.piggymetrics.statistics.client;
 
 import com.piggymetrics.statistics.domain.Currency;
 import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.domain.ExchangeRatesHistoryContainer;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -13,4 +14,12 @@ public interface ExchangeRatesClient {
     @RequestMapping(method = RequestMethod.GET, value = "/latest")
     ExchangeRatesContainer getRates(@RequestParam("base") Currency base);
 
+    /**
+     * @param from first date, in ISO format
+     * @param to last date, in ISO format
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/history")
+    ExchangeRatesHistoryContainer getHistory(@RequestParam("start_at") String from, @RequestParam("end_at") String to,
+                                             @RequestParam("base") Currency base);
+
 }
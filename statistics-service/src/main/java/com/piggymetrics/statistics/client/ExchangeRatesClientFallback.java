@@ -2,6 +2,7 @@ package com.piggymetrics.statistics.client;
 
 import com.piggymetrics.statistics.domain.Currency;
 import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.domain.ExchangeRatesHistoryContainer;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -16,4 +17,12 @@ public class ExchangeRatesClientFallback implements ExchangeRatesClient {
         container.setRates(Collections.emptyMap());
         return container;
     }
+
+    @Override
+    public ExchangeRatesHistoryContainer getHistory(String from, String to, Currency base) {
+        ExchangeRatesHistoryContainer container = new ExchangeRatesHistoryContainer();
+        container.setBase(Currency.getBase());
+        container.setRates(Collections.emptyMap());
+        return container;
+    }
 }
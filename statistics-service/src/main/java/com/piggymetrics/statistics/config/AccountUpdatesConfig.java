@@ -0,0 +1,92 @@
+package com.piggymetrics.statistics.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Queue of account changes, published by account-service.
+ * Rejected changes are dead-lettered to {@code <queue>.dlq}
+ */
+@Configuration
+public class AccountUpdatesConfig {
+
+    @Value("${statistics.updates.exchange:statistics.updates}")
+    private String exchange;
+
+    @Value("${statistics.updates.queue:statistics.account-updates}")
+    private String queue;
+
+    @Value("${statistics.updates.routing-key:account}")
+    private String routingKey;
+
+    @Value("${statistics.updates.prefetch:1000}")
+    private int prefetch;
+
+    @Bean
+    public DirectExchange statisticsUpdatesExchange() {
+        return new DirectExchange(exchange);
+    }
+
+    @Bean
+    public Queue accountUpdatesQueue() {
+        return QueueBuilder.durable(queue)
+                .withArgument("x-dead-letter-exchange", "")
+                .withArgument("x-dead-letter-routing-key", deadLetterQueue())
+                .build();
+    }
+
+    @Bean
+    public Queue accountUpdatesDeadLetterQueue() {
+        return QueueBuilder.durable(deadLetterQueue()).build();
+    }
+
+    @Bean
+    public Binding accountUpdatesBinding() {
+        return BindingBuilder.bind(accountUpdatesQueue()).to(statisticsUpdatesExchange()).with(routingKey);
+    }
+
+    /**
+     * Leaves acknowledgement to the listener, which acknowledges
+     * buffered changes only after they are saved. Prefetch limits
+     * how many changes can be buffered per consumer
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory accountUpdatesContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(prefetch);
+        return factory;
+    }
+
+    /**
+     * Reads message payload as listener argument type,
+     * ignoring account-service class name in message headers
+     */
+    @Bean
+    public MessageConverter accountUpdatesMessageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+        converter.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.INFERRED);
+        return converter;
+    }
+
+    private String deadLetterQueue() {
+        return queue + ".dlq";
+    }
+}
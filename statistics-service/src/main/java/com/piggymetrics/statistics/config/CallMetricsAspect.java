@@ -0,0 +1,72 @@
+package com.piggymetrics.statistics.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of repository and outbound Feign client calls, published as
+ * {@code repository.calls} and {@code client.calls} timers with percentile
+ * histograms. Along with {@code http.server.requests} of each controller
+ * method, they show which hop of a request dominates its latency.
+ */
+@Aspect
+@Component
+public class CallMetricsAspect {
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object timeRepositoryCall(ProceedingJoinPoint point) throws Throwable {
+		return time("repository.calls", "repository", point);
+	}
+
+	@Around("@within(org.springframework.cloud.openfeign.FeignClient)")
+	public Object timeClientCall(ProceedingJoinPoint point) throws Throwable {
+		return time("client.calls", "client", point);
+	}
+
+	private Object time(String name, String typeTag, ProceedingJoinPoint point) throws Throwable {
+
+		long start = System.nanoTime();
+		String exception = "None";
+
+		try {
+			return point.proceed();
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			Timer.builder(name)
+					.tag(typeTag, getType(point))
+					.tag("method", point.getSignature().getName())
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.register(registry)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Repositories and clients are interface proxies, inherited methods
+	 * like {@code save} would be attributed to the base interface otherwise
+	 */
+	private static String getType(ProceedingJoinPoint point) {
+
+		Object target = point.getTarget();
+		if (target != null && Proxy.isProxyClass(target.getClass())) {
+			return AopProxyUtils.proxiedUserInterfaces(target)[0].getSimpleName();
+		}
+
+		return point.getSignature().getDeclaringType().getSimpleName();
+	}
+}
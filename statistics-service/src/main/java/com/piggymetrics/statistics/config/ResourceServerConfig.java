@@ -1,13 +1,21 @@
 package com.piggymetrics.statistics.config;
 
+import com.piggymetrics.statistics.service.security.AuthenticationCache;
 import com.piggymetrics.statistics.service.security.CustomUserInfoTokenServices;
+import com.piggymetrics.statistics.service.security.TokenKeySignatureVerifier;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.oauth2.resource.ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * @author cdov
@@ -18,8 +26,57 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
     @Autowired
     private ResourceServerProperties sso;
 
+    @Value("${security.oauth2.token-cache.enabled:true}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${security.oauth2.token-cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${security.oauth2.token-cache.time-to-live:60000}")
+    private long tokenCacheTimeToLive;
+
+    @Value("${security.oauth2.token-cache.negative-time-to-live:5000}")
+    private long tokenCacheNegativeTimeToLive;
+
+    @Value("${security.oauth2.jwt.enabled:false}")
+    private boolean jwtEnabled;
+
+    @Value("${security.oauth2.jwt.key-uri:}")
+    private String jwtKeyUri;
+
+    @Value("${security.oauth2.jwt.key-refresh-interval:60000}")
+    private long jwtKeyRefreshInterval;
+
     @Bean
     public ResourceServerTokenServices tokenServices() {
-        return new CustomUserInfoTokenServices(sso.getUserInfoUri(), sso.getClientId());
+        if (jwtEnabled) {
+            return jwtTokenServices();
+        }
+
+        CustomUserInfoTokenServices tokenServices = new CustomUserInfoTokenServices(sso.getUserInfoUri(), sso.getClientId());
+        if (tokenCacheEnabled) {
+            tokenServices.setAuthenticationCache(new AuthenticationCache(tokenCacheMaximumSize,
+                    tokenCacheTimeToLive, tokenCacheNegativeTimeToLive));
+        }
+        return tokenServices;
+    }
+
+    /**
+     * Verifies signed tokens in-process, using the public key of auth-service
+     */
+    private ResourceServerTokenServices jwtTokenServices() {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setVerifier(new TokenKeySignatureVerifier(jwtKeyUri, new RestTemplate(), jwtKeyRefreshInterval));
+
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(new JwtTokenStore(converter));
+        return tokenServices;
+    }
+
+    @Override
+    public void configure(HttpSecurity http) throws Exception {
+        http.authorizeRequests()
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .anyRequest().authenticated();
     }
 }
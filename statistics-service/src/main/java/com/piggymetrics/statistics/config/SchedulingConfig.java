@@ -0,0 +1,28 @@
+package com.piggymetrics.statistics.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler of {@link org.springframework.scheduling.annotation.Scheduled} tasks.
+ *
+ * Without it all the tasks share a single thread, so a slow exchange rates
+ * refresh or account updates flush delays the data points flush.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Value("${statistics.scheduling.pool-size:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("statistics-scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
+    }
+}
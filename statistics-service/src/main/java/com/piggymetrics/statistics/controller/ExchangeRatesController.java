@@ -0,0 +1,27 @@
+package com.piggymetrics.statistics.controller;
+
+import com.piggymetrics.statistics.service.ExchangeRatesHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/rates")
+public class ExchangeRatesController {
+
+	@Autowired
+	private ExchangeRatesHistoryService historyService;
+
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(value = "/backfill", method = RequestMethod.POST)
+	public int backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+						@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		return historyService.backfill(from, to);
+	}
+}
@@ -0,0 +1,35 @@
+package com.piggymetrics.statistics.controller;
+
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.service.DataPointMigrationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/jobs/migrate")
+public class MigrationController {
+
+	@Autowired
+	private DataPointMigrationService migrationService;
+
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(method = RequestMethod.POST)
+	public Map<String, Object> startMigration() {
+		migrationService.start();
+		return getMigration();
+	}
+
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(method = RequestMethod.GET)
+	public Map<String, Object> getMigration() {
+		return ImmutableMap.of(
+				"format", migrationService.getFormat(),
+				"running", migrationService.isRunning(),
+				"remaining", migrationService.getRemaining());
+	}
+}
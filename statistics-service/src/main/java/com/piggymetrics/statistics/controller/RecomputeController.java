@@ -0,0 +1,29 @@
+package com.piggymetrics.statistics.controller;
+
+import com.piggymetrics.statistics.domain.RecomputeJob;
+import com.piggymetrics.statistics.service.RecomputeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/jobs/recompute")
+public class RecomputeController {
+
+	@Autowired
+	private RecomputeService recomputeService;
+
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(method = RequestMethod.POST)
+	public RecomputeJob startRecompute() {
+		return recomputeService.start();
+	}
+
+	@PreAuthorize("#oauth2.hasScope('server')")
+	@RequestMapping(method = RequestMethod.GET)
+	public RecomputeJob getRecompute() {
+		return recomputeService.getJob();
+	}
+}
@@ -1,14 +1,17 @@
 package com.piggymetrics.statistics.controller;
 
 import com.piggymetrics.statistics.domain.Account;
-import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.service.RollupService;
 import com.piggymetrics.statistics.service.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.security.Principal;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -17,15 +20,28 @@ public class StatisticsController {
 	@Autowired
 	private StatisticsService statisticsService;
 
+	@Autowired
+	private RollupService rollupService;
+
 	@RequestMapping(value = "/current", method = RequestMethod.GET)
-	public List<DataPoint> getCurrentAccountStatistics(Principal principal) {
-		return statisticsService.findByAccountName(principal.getName());
+	public List<?> getCurrentAccountStatistics(Principal principal,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+			@RequestParam(required = false) Integer limit,
+			@RequestParam(defaultValue = "true") boolean details,
+			@RequestParam(defaultValue = "DAY") Resolution resolution) {
+		return findStatistics(principal.getName(), from, to, limit, details, resolution);
 	}
 
 	@PreAuthorize("#oauth2.hasScope('server') or #accountName.equals('demo')")
 	@RequestMapping(value = "/{accountName}", method = RequestMethod.GET)
-	public List<DataPoint> getStatisticsByAccountName(@PathVariable String accountName) {
-		return statisticsService.findByAccountName(accountName);
+	public List<?> getStatisticsByAccountName(@PathVariable String accountName,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+			@RequestParam(required = false) Integer limit,
+			@RequestParam(defaultValue = "true") boolean details,
+			@RequestParam(defaultValue = "DAY") Resolution resolution) {
+		return findStatistics(accountName, from, to, limit, details, resolution);
 	}
 
 	@PreAuthorize("#oauth2.hasScope('server')")
@@ -33,4 +49,18 @@ public class StatisticsController {
 	public void saveAccountStatistics(@PathVariable String accountName, @Valid @RequestBody Account account) {
 		statisticsService.save(accountName, account);
 	}
+
+	/**
+	 * Returns all the data points, as before, unless the range or
+	 * a coarser resolution is requested
+	 */
+	private List<?> findStatistics(String accountName, Date from, Date to, Integer limit, boolean details, Resolution resolution) {
+		if (resolution != Resolution.DAY) {
+			return rollupService.findByAccountName(accountName, resolution, from, to, limit);
+		}
+		if (from == null && to == null && limit == null && details) {
+			return statisticsService.findByAccountName(accountName);
+		}
+		return statisticsService.findByAccountName(accountName, from, to, limit, details);
+	}
 }
@@ -1,20 +1,43 @@
 package com.piggymetrics.statistics.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.Map;
 
+@Document(collection = "rates")
+@CompoundIndex(name = "base_date", def = "{'base': 1, 'date': 1}")
 @JsonIgnoreProperties(ignoreUnknown = true, value = {"date"})
 public class ExchangeRatesContainer {
 
+	@Id
+	@JsonIgnore
+	private String id;
+
 	private LocalDate date = LocalDate.now();
 
 	private Currency base;
 
 	private Map<String, BigDecimal> rates;
 
+	public static String getId(Currency base, LocalDate date) {
+		return base + "/" + date;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
 	public LocalDate getDate() {
 		return date;
 	}
@@ -39,6 +62,45 @@ public class ExchangeRatesContainer {
 		this.rates = rates;
 	}
 
+	/**
+	 * Checks whether there is a positive rate for each currency.
+	 * Hystrix fallback returns an empty container, which must not
+	 * replace the actual rates.
+	 */
+	@JsonIgnore
+	public boolean isComplete() {
+
+		if (rates == null || base != Currency.getBase()) {
+			return false;
+		}
+
+		for (Currency currency : Currency.values()) {
+			if (currency == base) {
+				continue;
+			}
+
+			BigDecimal rate = rates.get(currency.name());
+			if (rate == null || rate.signum() <= 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return rates of complete container, keyed by {@link Currency}
+	 */
+	public Map<Currency, BigDecimal> toCurrencyRates() {
+
+		Map<Currency, BigDecimal> result = new EnumMap<>(Currency.class);
+		for (Currency currency : Currency.values()) {
+			result.put(currency, currency == base ? BigDecimal.ONE : rates.get(currency.name()));
+		}
+
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return "RateList{" +
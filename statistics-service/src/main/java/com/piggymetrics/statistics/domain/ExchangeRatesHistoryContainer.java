@@ -0,0 +1,43 @@
+package com.piggymetrics.statistics.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Daily rates within a date range, as returned by the provider
+ * history endpoint. Rates are keyed by ISO date, days without
+ * published rates (weekends, holidays) are absent.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExchangeRatesHistoryContainer {
+
+	private Currency base;
+
+	private Map<String, Map<String, BigDecimal>> rates;
+
+	public Currency getBase() {
+		return base;
+	}
+
+	public void setBase(Currency base) {
+		this.base = base;
+	}
+
+	public Map<String, Map<String, BigDecimal>> getRates() {
+		return rates;
+	}
+
+	public void setRates(Map<String, Map<String, BigDecimal>> rates) {
+		this.rates = rates;
+	}
+
+	@Override
+	public String toString() {
+		return "RateHistory{" +
+				"base=" + base +
+				", rates=" + rates +
+				'}';
+	}
+}
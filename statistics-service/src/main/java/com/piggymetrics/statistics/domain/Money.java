@@ -0,0 +1,135 @@
+package com.piggymetrics.statistics.domain;
+
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount of money in a given {@link Currency}, kept as a
+ * fixed-point number of minor units with {@link #SCALE} digits after
+ * the decimal point, the same precision statistics are stored with.
+ *
+ * Used for internal aggregation only, API and storage fields
+ * remain {@link BigDecimal}.
+ */
+public final class Money {
+
+	public static final int SCALE = 4;
+
+	/**
+	 * Fixed-point representation of one
+	 */
+	public static final long ONE = 10_000L;
+
+	private final long units;
+
+	private final Currency currency;
+
+	private Money(long units, Currency currency) {
+		Assert.notNull(currency, "currency must be specified");
+		this.units = units;
+		this.currency = currency;
+	}
+
+	public static Money of(BigDecimal amount, Currency currency) {
+		Assert.notNull(amount, "amount must be specified");
+		return new Money(toUnits(amount), currency);
+	}
+
+	public static Money ofUnits(long units, Currency currency) {
+		return new Money(units, currency);
+	}
+
+	public static Money zero(Currency currency) {
+		return new Money(0, currency);
+	}
+
+	/**
+	 * Converts given amount to fixed-point units. Amounts with more
+	 * than {@link #SCALE} decimal digits are rounded half up.
+	 *
+	 * @throws ArithmeticException if the amount is out of the range
+	 */
+	public static long toUnits(BigDecimal amount) {
+		return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Computes {@code value * numerator / denominator} with a single
+	 * half up rounding, same as {@link BigDecimal#divide(BigDecimal, int, RoundingMode)}
+	 * with {@link RoundingMode#HALF_UP} would do. Falls back to arbitrary
+	 * precision only when the intermediate product doesn't fit a long.
+	 *
+	 * @throws ArithmeticException on zero denominator or if the result is out of the range
+	 */
+	public static long mulDiv(long value, long numerator, long denominator) {
+
+		if (denominator == 0) {
+			throw new ArithmeticException("division by zero");
+		}
+
+		long product;
+		try {
+			product = Math.multiplyExact(value, numerator);
+		} catch (ArithmeticException e) {
+			return new BigDecimal(BigInteger.valueOf(value).multiply(BigInteger.valueOf(numerator)))
+					.divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP)
+					.longValueExact();
+		}
+
+		long quotient = product / denominator;
+		long remainder = Math.abs(product % denominator);
+
+		if (remainder != 0 && remainder >= Math.abs(denominator) - remainder) {
+			quotient += (product < 0) == (denominator < 0) ? 1 : -1;
+		}
+
+		return quotient;
+	}
+
+	public long getUnits() {
+		return units;
+	}
+
+	public Currency getCurrency() {
+		return currency;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if currencies differ
+	 * @throws ArithmeticException on overflow
+	 */
+	public Money plus(Money other) {
+		Assert.isTrue(currency == other.currency, "currencies must be the same");
+		return new Money(Math.addExact(units, other.units), currency);
+	}
+
+	/**
+	 * @return exact amount with {@link #SCALE} decimal digits
+	 */
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(units, SCALE);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		Money that = (Money) o;
+
+		return units == that.units && currency == that.currency;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(units) + currency.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return toBigDecimal().toPlainString() + " " + currency;
+	}
+}
@@ -0,0 +1,101 @@
+package com.piggymetrics.statistics.domain;
+
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * State of the data points recomputation job. The checkpoint is
+ * the id of the last data point, which all the preceding ones
+ * (in {@code _id} order) have been recomputed up to.
+ */
+@Document(collection = "jobs")
+public class RecomputeJob {
+
+	public enum Status {
+		RUNNING, COMPLETED, FAILED
+	}
+
+	@Id
+	private String id;
+
+	private Status status;
+
+	private DataPointId checkpoint;
+
+	private long processed;
+
+	private long skipped;
+
+	private Date startedAt;
+
+	private Date finishedAt;
+
+	private String error;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public DataPointId getCheckpoint() {
+		return checkpoint;
+	}
+
+	public void setCheckpoint(DataPointId checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public long getProcessed() {
+		return processed;
+	}
+
+	public void setProcessed(long processed) {
+		this.processed = processed;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	public void setSkipped(long skipped) {
+		this.skipped = skipped;
+	}
+
+	public Date getStartedAt() {
+		return startedAt;
+	}
+
+	public void setStartedAt(Date startedAt) {
+		this.startedAt = startedAt;
+	}
+
+	public Date getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(Date finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+}
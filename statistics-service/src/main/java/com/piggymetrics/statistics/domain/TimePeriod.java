@@ -6,14 +6,24 @@ public enum TimePeriod {
 
 	YEAR(365.2425), QUARTER(91.3106), MONTH(30.4368), DAY(1), HOUR(0.0416);
 
-	private double baseRatio;
+	private final BigDecimal baseRatio;
+
+	private final long baseRatioUnits;
 
 	TimePeriod(double baseRatio) {
-		this.baseRatio = baseRatio;
+		this.baseRatio = BigDecimal.valueOf(baseRatio);
+		this.baseRatioUnits = Money.toUnits(this.baseRatio);
 	}
 
 	public BigDecimal getBaseRatio() {
-		return new BigDecimal(baseRatio);
+		return baseRatio;
+	}
+
+	/**
+	 * @return base ratio as a fixed-point number, see {@link Money#SCALE}
+	 */
+	public long getBaseRatioUnits() {
+		return baseRatioUnits;
 	}
 
 	public static TimePeriod getBase() {
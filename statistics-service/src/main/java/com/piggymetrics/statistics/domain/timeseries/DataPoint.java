@@ -1,7 +1,10 @@
 package com.piggymetrics.statistics.domain.timeseries;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.piggymetrics.statistics.domain.Account;
 import com.piggymetrics.statistics.domain.Currency;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -13,6 +16,7 @@ import java.util.Set;
  * current account state
  */
 @Document(collection = "datapoints")
+@CompoundIndex(name = "account_date", def = "{'_id.account': 1, '_id.date': 1}")
 public class DataPoint {
 
 	@Id
@@ -26,6 +30,20 @@ public class DataPoint {
 
 	private Map<Currency, BigDecimal> rates;
 
+	/**
+	 * Account state the data point has been built from,
+	 * kept for recomputation
+	 */
+	@JsonIgnore
+	private Account source;
+
+	/**
+	 * Hash of the normalized content, which allows to skip
+	 * rewriting of the data point with the same content
+	 */
+	@JsonIgnore
+	private String fingerprint;
+
 	public DataPointId getId() {
 		return id;
 	}
@@ -65,4 +83,20 @@ public class DataPoint {
 	public void setRates(Map<Currency, BigDecimal> rates) {
 		this.rates = rates;
 	}
+
+	public Account getSource() {
+		return source;
+	}
+
+	public void setSource(Account source) {
+		this.source = source;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
 }
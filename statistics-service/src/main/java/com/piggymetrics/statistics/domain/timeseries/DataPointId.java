@@ -2,6 +2,7 @@ package com.piggymetrics.statistics.domain.timeseries;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.Objects;
 
 public class DataPointId implements Serializable {
 
@@ -24,6 +25,21 @@ public class DataPointId implements Serializable {
 		return date;
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		DataPointId that = (DataPointId) o;
+
+		return Objects.equals(account, that.account) && Objects.equals(date, that.date);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(account, date);
+	}
+
 	@Override
 	public String toString() {
 		return "DataPointId{" +
@@ -0,0 +1,34 @@
+package com.piggymetrics.statistics.domain.timeseries;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time series resolution. Daily data points are stored as is,
+ * coarser resolutions are maintained as {@link Rollup} objects
+ */
+public enum Resolution {
+
+	DAY, WEEK, MONTH, YEAR;
+
+	/**
+	 * Returns the first day of the period, which given day belongs to
+	 */
+	public LocalDate getPeriodStart(LocalDate date) {
+		switch (this) {
+			case WEEK:
+				return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+			case MONTH:
+				return date.withDayOfMonth(1);
+			case YEAR:
+				return date.withDayOfYear(1);
+			default:
+				return date;
+		}
+	}
+
+	public static Resolution[] getRollups() {
+		return new Resolution[]{WEEK, MONTH, YEAR};
+	}
+}
@@ -0,0 +1,135 @@
+package com.piggymetrics.statistics.domain.timeseries;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Represents weekly, monthly or yearly aggregate of daily
+ * {@link DataPoint} statistics of an account.
+ *
+ * Statistics of each day within the period are kept as fixed-point numbers
+ * with {@link #SCALE} digits after the decimal point, keyed by ISO date, so
+ * a day is updated by overwriting its entry. Repeated or concurrent writes
+ * of the same day can't be counted twice, sums are calculated on read.
+ */
+@Document(collection = "rollups")
+@CompoundIndex(name = "account_resolution_date", def = "{'account': 1, 'resolution': 1, 'date': 1}")
+public class Rollup {
+
+	public static final int SCALE = 4;
+
+	@Id
+	private String id;
+
+	private String account;
+
+	private Resolution resolution;
+
+	/**
+	 * The first day of the period
+	 */
+	private Date date;
+
+	/**
+	 * Statistics of daily data points within the period, by ISO date
+	 */
+	private Map<String, Map<StatisticMetric, Long>> daily;
+
+	public static String getId(String account, Resolution resolution, Date date) {
+		return account + "/" + resolution + "/" + date.getTime();
+	}
+
+	public static long toFixedPoint(BigDecimal value) {
+		return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getAccount() {
+		return account;
+	}
+
+	public void setAccount(String account) {
+		this.account = account;
+	}
+
+	public Resolution getResolution() {
+		return resolution;
+	}
+
+	public void setResolution(Resolution resolution) {
+		this.resolution = resolution;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	@JsonIgnore
+	public Map<String, Map<StatisticMetric, Long>> getDaily() {
+		return daily;
+	}
+
+	public void setDaily(Map<String, Map<StatisticMetric, Long>> daily) {
+		this.daily = daily;
+	}
+
+	/**
+	 * @return number of daily data points within the period
+	 */
+	public int getDays() {
+		return daily == null ? 0 : daily.size();
+	}
+
+	/**
+	 * @return fixed-point sums of daily statistics within the period
+	 */
+	@JsonIgnore
+	public Map<StatisticMetric, Long> getSums() {
+		Map<StatisticMetric, Long> sums = new EnumMap<>(StatisticMetric.class);
+		if (daily != null) {
+			daily.values().forEach(values -> values.forEach((metric, value) -> sums.merge(metric, value, Long::sum)));
+		}
+		return sums;
+	}
+
+	/**
+	 * @return sums of daily statistics within the period
+	 */
+	public Map<StatisticMetric, BigDecimal> getTotals() {
+		Map<StatisticMetric, BigDecimal> totals = new EnumMap<>(StatisticMetric.class);
+		getSums().forEach((metric, sum) -> totals.put(metric, BigDecimal.valueOf(sum, SCALE)));
+		return totals;
+	}
+
+	/**
+	 * @return daily statistics averaged over the days within the period
+	 */
+	public Map<StatisticMetric, BigDecimal> getAverages() {
+		Map<StatisticMetric, BigDecimal> averages = new EnumMap<>(StatisticMetric.class);
+		int days = getDays();
+		if (days > 0) {
+			getSums().forEach((metric, sum) -> averages.put(metric,
+					BigDecimal.valueOf(sum, SCALE).divide(BigDecimal.valueOf(days), SCALE, RoundingMode.HALF_UP)));
+		}
+		return averages;
+	}
+}
@@ -0,0 +1,36 @@
+package com.piggymetrics.statistics.domain.timeseries;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * Item titles of an account, referenced by their indexes from
+ * compact {@link DataPoint} documents. Titles are only appended,
+ * so an index never changes its title.
+ */
+@Document(collection = "titles")
+public class TitleDictionary {
+
+	@Id
+	private String account;
+
+	private List<String> titles;
+
+	public String getAccount() {
+		return account;
+	}
+
+	public void setAccount(String account) {
+		this.account = account;
+	}
+
+	public List<String> getTitles() {
+		return titles;
+	}
+
+	public void setTitles(List<String> titles) {
+		this.titles = titles;
+	}
+}
@@ -2,9 +2,12 @@ package com.piggymetrics.statistics.repository;
 
 import com.piggymetrics.statistics.domain.timeseries.DataPoint;
 import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,11 @@ public interface DataPointRepository extends CrudRepository<DataPoint, DataPoint
 
 	List<DataPoint> findByIdAccount(String account);
 
+	@Query("{ '_id.account': ?0, '_id.date': { $gte: ?1, $lte: ?2 } }")
+	List<DataPoint> findByIdAccountAndDateBetween(String account, Date from, Date to, Pageable pageable);
+
+	@Query(value = "{ '_id.account': ?0, '_id.date': { $gte: ?1, $lte: ?2 } }", fields = "{ 'incomes': 0, 'expenses': 0, 'source': 0, 'fingerprint': 0, " +
+			"'it': 0, 'ia': 0, 'et': 0, 'ea': 0, 'src': 0, 'f': 0 }")
+	List<DataPoint> findSummaryByIdAccountAndDateBetween(String account, Date from, Date to, Pageable pageable);
+
 }
@@ -0,0 +1,17 @@
+package com.piggymetrics.statistics.repository;
+
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ExchangeRatesRepository extends CrudRepository<ExchangeRatesContainer, String> {
+
+	ExchangeRatesContainer findFirstByBaseOrderByDateDesc(Currency base);
+
+	ExchangeRatesContainer findFirstByBaseAndDateLessThanEqualOrderByDateDesc(Currency base, LocalDate date);
+
+}
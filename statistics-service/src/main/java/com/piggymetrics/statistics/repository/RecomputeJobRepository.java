@@ -0,0 +1,10 @@
+package com.piggymetrics.statistics.repository;
+
+import com.piggymetrics.statistics.domain.RecomputeJob;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecomputeJobRepository extends CrudRepository<RecomputeJob, String> {
+
+}
@@ -0,0 +1,19 @@
+package com.piggymetrics.statistics.repository;
+
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RollupRepository extends CrudRepository<Rollup, String> {
+
+	@Query("{ 'account': ?0, 'resolution': ?1, 'date': { $gte: ?2, $lte: ?3 } }")
+	List<Rollup> findByAccountAndResolutionAndDateBetween(String account, Resolution resolution, Date from, Date to, Pageable pageable);
+
+}
@@ -0,0 +1,391 @@
+package com.piggymetrics.statistics.repository.converter;
+
+import com.google.common.collect.ImmutableSet;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.TimePeriod;
+import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts mapped {@link com.piggymetrics.statistics.domain.timeseries.DataPoint}
+ * documents between the legacy and the compact storage formats.
+ *
+ * Compact documents are marked with a version field, have short field names,
+ * fixed-point amounts and rates, statistics and rates as arrays in enum constants
+ * order, and item titles replaced with indexes in the account {@link TitleDictionaryStore}.
+ * The source account is encoded the same way, with currencies and periods stored
+ * as enum constants ordinals. New enum constants must only be appended.
+ *
+ * {@code _id} is kept as is, since it's queried by account and date.
+ */
+@Component
+public class DataPointCodec {
+
+	public enum Format {
+		LEGACY, COMPACT
+	}
+
+	public static final String VERSION_FIELD = "v";
+
+	public static final int VERSION = 2;
+
+	public static final int AMOUNT_SCALE = 4;
+
+	public static final int RATE_SCALE = 8;
+
+	private static final String ID_FIELD = "_id";
+
+	private static final String CLASS_FIELD = "_class";
+
+	private static final String INCOMES = "incomes";
+	private static final String EXPENSES = "expenses";
+	private static final String STATISTICS = "statistics";
+	private static final String RATES = "rates";
+	private static final String SOURCE = "source";
+	private static final String FINGERPRINT = "fingerprint";
+
+	private static final String TITLE = "title";
+	private static final String AMOUNT = "amount";
+	private static final String CURRENCY = "currency";
+	private static final String PERIOD = "period";
+	private static final String SAVING = "saving";
+	private static final String INTEREST = "interest";
+	private static final String DEPOSIT = "deposit";
+	private static final String CAPITALIZATION = "capitalization";
+
+	private static final String INCOME_TITLES = "it";
+	private static final String INCOME_AMOUNTS = "ia";
+	private static final String EXPENSE_TITLES = "et";
+	private static final String EXPENSE_AMOUNTS = "ea";
+	private static final String COMPACT_STATISTICS = "s";
+	private static final String COMPACT_RATES = "r";
+	private static final String COMPACT_SOURCE = "src";
+	private static final String COMPACT_FINGERPRINT = "f";
+
+	private static final String INCOME_CURRENCIES = "ic";
+	private static final String INCOME_PERIODS = "ip";
+	private static final String EXPENSE_CURRENCIES = "ec";
+	private static final String EXPENSE_PERIODS = "ep";
+	private static final String COMPACT_SAVING = "s";
+	private static final String COMPACT_AMOUNT = "a";
+	private static final String COMPACT_CURRENCY = "c";
+	private static final String COMPACT_INTEREST = "i";
+	private static final String COMPACT_DEPOSIT = "d";
+	private static final String COMPACT_CAPITALIZATION = "k";
+
+	/**
+	 * All the data fields of both formats, except {@code _id}
+	 */
+	public static final Set<String> FIELDS = ImmutableSet.of(CLASS_FIELD, INCOMES, EXPENSES, STATISTICS, RATES,
+			SOURCE, FINGERPRINT, VERSION_FIELD, INCOME_TITLES, INCOME_AMOUNTS, EXPENSE_TITLES, EXPENSE_AMOUNTS,
+			COMPACT_STATISTICS, COMPACT_RATES, COMPACT_SOURCE, COMPACT_FINGERPRINT);
+
+	@Value("${statistics.storage.format:LEGACY}")
+	private Format format;
+
+	@Autowired
+	private TitleDictionaryStore dictionary;
+
+	/**
+	 * @return the format new documents are stored in
+	 */
+	public Format getFormat() {
+		return format;
+	}
+
+	public static boolean isCompact(Document document) {
+		return document.containsKey(VERSION_FIELD);
+	}
+
+	/**
+	 * Converts a mapped (legacy) document to the configured format, in place
+	 */
+	public void toStorageFormat(Document document) {
+		if (format == Format.COMPACT && !isCompact(document)) {
+			encode(document);
+		}
+	}
+
+	/**
+	 * Converts a mapped (legacy) document to the compact format, in place
+	 */
+	public void encode(Document document) {
+
+		String account = getAccount(document);
+
+		List<?> incomes = (List<?>) document.remove(INCOMES);
+		List<?> expenses = (List<?>) document.remove(EXPENSES);
+		Object statistics = document.remove(STATISTICS);
+		Object rates = document.remove(RATES);
+		Map<?, ?> source = (Map<?, ?>) document.remove(SOURCE);
+		Object fingerprint = document.remove(FINGERPRINT);
+
+		document.remove(CLASS_FIELD);
+		document.put(VERSION_FIELD, VERSION);
+
+		Set<String> titles = new LinkedHashSet<>();
+		addTitles(titles, incomes);
+		addTitles(titles, expenses);
+		if (source != null) {
+			addTitles(titles, (List<?>) source.get(INCOMES));
+			addTitles(titles, (List<?>) source.get(EXPENSES));
+		}
+
+		Map<String, Integer> indexes = titles.isEmpty() ? null : dictionary.getIndexes(account, titles);
+
+		encodeItems(document, incomes, indexes, INCOME_TITLES, INCOME_AMOUNTS);
+		encodeItems(document, expenses, indexes, EXPENSE_TITLES, EXPENSE_AMOUNTS);
+
+		if (statistics != null) {
+			document.put(COMPACT_STATISTICS, encodeValues((Map<?, ?>) statistics, StatisticMetric.values(), AMOUNT_SCALE));
+		}
+		if (rates != null) {
+			document.put(COMPACT_RATES, encodeValues((Map<?, ?>) rates, Currency.values(), RATE_SCALE));
+		}
+		if (source != null) {
+			document.put(COMPACT_SOURCE, encodeSource(source, indexes));
+		}
+		putIfNotNull(document, COMPACT_FINGERPRINT, fingerprint);
+	}
+
+	/**
+	 * Converts a compact document back to the mapped (legacy) form, in place.
+	 * Legacy documents are left untouched. Fields, which are missing due to
+	 * a projection, are skipped.
+	 */
+	public void decode(Document document) {
+
+		if (!isCompact(document)) {
+			return;
+		}
+
+		String account = getAccount(document);
+
+		document.remove(VERSION_FIELD);
+
+		List<?> incomeTitles = (List<?>) document.remove(INCOME_TITLES);
+		List<?> incomeAmounts = (List<?>) document.remove(INCOME_AMOUNTS);
+		List<?> expenseTitles = (List<?>) document.remove(EXPENSE_TITLES);
+		List<?> expenseAmounts = (List<?>) document.remove(EXPENSE_AMOUNTS);
+		List<?> statistics = (List<?>) document.remove(COMPACT_STATISTICS);
+		List<?> rates = (List<?>) document.remove(COMPACT_RATES);
+		Map<?, ?> source = (Map<?, ?>) document.remove(COMPACT_SOURCE);
+		Object fingerprint = document.remove(COMPACT_FINGERPRINT);
+
+		if (incomeTitles != null) {
+			document.put(INCOMES, decodeItems(account, incomeTitles, incomeAmounts));
+		}
+		if (expenseTitles != null) {
+			document.put(EXPENSES, decodeItems(account, expenseTitles, expenseAmounts));
+		}
+		if (statistics != null) {
+			document.put(STATISTICS, decodeValues(statistics, StatisticMetric.values(), AMOUNT_SCALE));
+		}
+		if (rates != null) {
+			document.put(RATES, decodeValues(rates, Currency.values(), RATE_SCALE));
+		}
+		if (source != null) {
+			document.put(SOURCE, decodeSource(account, source));
+		}
+		putIfNotNull(document, FINGERPRINT, fingerprint);
+	}
+
+	private void addTitles(Set<String> titles, List<?> items) {
+		if (items != null) {
+			items.forEach(item -> titles.add((String) ((Map<?, ?>) item).get(TITLE)));
+		}
+	}
+
+	private void encodeItems(Document document, List<?> items, Map<String, Integer> indexes,
+							 String titlesField, String amountsField) {
+
+		if (items == null) {
+			return;
+		}
+
+		List<Integer> titles = new ArrayList<>(items.size());
+		List<Long> amounts = new ArrayList<>(items.size());
+
+		for (Object item : items) {
+			Map<?, ?> metric = (Map<?, ?>) item;
+			titles.add(indexes.get(metric.get(TITLE)));
+			amounts.add(toFixedPoint(metric.get(AMOUNT), AMOUNT_SCALE));
+		}
+
+		document.put(titlesField, titles);
+		document.put(amountsField, amounts);
+	}
+
+	/**
+	 * Encodes mapped source {@link com.piggymetrics.statistics.domain.Account}
+	 */
+	private Document encodeSource(Map<?, ?> source, Map<String, Integer> indexes) {
+
+		Document encoded = new Document();
+
+		encodeSourceItems(encoded, (List<?>) source.get(INCOMES), indexes,
+				INCOME_TITLES, INCOME_AMOUNTS, INCOME_CURRENCIES, INCOME_PERIODS);
+		encodeSourceItems(encoded, (List<?>) source.get(EXPENSES), indexes,
+				EXPENSE_TITLES, EXPENSE_AMOUNTS, EXPENSE_CURRENCIES, EXPENSE_PERIODS);
+
+		Map<?, ?> saving = (Map<?, ?>) source.get(SAVING);
+		if (saving != null) {
+			Document compactSaving = new Document();
+			putIfNotNull(compactSaving, COMPACT_AMOUNT, toFixedPoint(saving.get(AMOUNT), AMOUNT_SCALE));
+			putIfNotNull(compactSaving, COMPACT_CURRENCY, toOrdinal(Currency.class, saving.get(CURRENCY)));
+			putIfNotNull(compactSaving, COMPACT_INTEREST, toFixedPoint(saving.get(INTEREST), AMOUNT_SCALE));
+			putIfNotNull(compactSaving, COMPACT_DEPOSIT, saving.get(DEPOSIT));
+			putIfNotNull(compactSaving, COMPACT_CAPITALIZATION, saving.get(CAPITALIZATION));
+			encoded.put(COMPACT_SAVING, compactSaving);
+		}
+
+		return encoded;
+	}
+
+	private void encodeSourceItems(Document document, List<?> items, Map<String, Integer> indexes,
+								   String titlesField, String amountsField, String currenciesField, String periodsField) {
+
+		if (items == null) {
+			return;
+		}
+
+		encodeItems(document, items, indexes, titlesField, amountsField);
+
+		List<Integer> currencies = new ArrayList<>(items.size());
+		List<Integer> periods = new ArrayList<>(items.size());
+
+		for (Object item : items) {
+			Map<?, ?> sourceItem = (Map<?, ?>) item;
+			currencies.add(toOrdinal(Currency.class, sourceItem.get(CURRENCY)));
+			periods.add(toOrdinal(TimePeriod.class, sourceItem.get(PERIOD)));
+		}
+
+		document.put(currenciesField, currencies);
+		document.put(periodsField, periods);
+	}
+
+	/**
+	 * @return source account the way it's mapped in legacy documents
+	 */
+	private Document decodeSource(String account, Map<?, ?> source) {
+
+		Document decoded = new Document();
+
+		decodeSourceItems(decoded, INCOMES, account, source,
+				INCOME_TITLES, INCOME_AMOUNTS, INCOME_CURRENCIES, INCOME_PERIODS);
+		decodeSourceItems(decoded, EXPENSES, account, source,
+				EXPENSE_TITLES, EXPENSE_AMOUNTS, EXPENSE_CURRENCIES, EXPENSE_PERIODS);
+
+		Map<?, ?> saving = (Map<?, ?>) source.get(COMPACT_SAVING);
+		if (saving != null) {
+			Document legacySaving = new Document();
+			putIfNotNull(legacySaving, AMOUNT, fromFixedPoint(saving.get(COMPACT_AMOUNT), AMOUNT_SCALE));
+			putIfNotNull(legacySaving, CURRENCY, fromOrdinal(Currency.values(), saving.get(COMPACT_CURRENCY)));
+			putIfNotNull(legacySaving, INTEREST, fromFixedPoint(saving.get(COMPACT_INTEREST), AMOUNT_SCALE));
+			putIfNotNull(legacySaving, DEPOSIT, saving.get(COMPACT_DEPOSIT));
+			putIfNotNull(legacySaving, CAPITALIZATION, saving.get(COMPACT_CAPITALIZATION));
+			decoded.put(SAVING, legacySaving);
+		}
+
+		return decoded;
+	}
+
+	private void decodeSourceItems(Document document, String field, String account, Map<?, ?> source,
+								   String titlesField, String amountsField, String currenciesField, String periodsField) {
+
+		List<?> titles = (List<?>) source.get(titlesField);
+		if (titles == null) {
+			return;
+		}
+
+		List<Document> items = decodeItems(account, titles, (List<?>) source.get(amountsField));
+		List<?> currencies = (List<?>) source.get(currenciesField);
+		List<?> periods = (List<?>) source.get(periodsField);
+
+		for (int i = 0; i < items.size(); i++) {
+			putIfNotNull(items.get(i), CURRENCY, fromOrdinal(Currency.values(), currencies.get(i)));
+			putIfNotNull(items.get(i), PERIOD, fromOrdinal(TimePeriod.values(), periods.get(i)));
+		}
+
+		document.put(field, items);
+	}
+
+	private List<Document> decodeItems(String account, List<?> titles, List<?> amounts) {
+
+		List<Document> items = new ArrayList<>(titles.size());
+
+		for (int i = 0; i < titles.size(); i++) {
+			items.add(new Document(TITLE, dictionary.getTitle(account, ((Number) titles.get(i)).intValue()))
+					.append(AMOUNT, fromFixedPoint(amounts.get(i), AMOUNT_SCALE)));
+		}
+
+		return items;
+	}
+
+	private List<Long> encodeValues(Map<?, ?> values, Enum<?>[] keys, int scale) {
+
+		List<Long> encoded = new ArrayList<>(keys.length);
+		for (Enum<?> key : keys) {
+			encoded.add(toFixedPoint(values.get(key.name()), scale));
+		}
+
+		return encoded;
+	}
+
+	private Document decodeValues(List<?> values, Enum<?>[] keys, int scale) {
+
+		Document decoded = new Document();
+		for (int i = 0; i < values.size() && i < keys.length; i++) {
+			if (values.get(i) != null) {
+				decoded.put(keys[i].name(), fromFixedPoint(values.get(i), scale));
+			}
+		}
+
+		return decoded;
+	}
+
+	private static Long toFixedPoint(Object value, int scale) {
+		return value == null ? null : new BigDecimal(value.toString())
+				.setScale(scale, RoundingMode.HALF_UP)
+				.unscaledValue()
+				.longValueExact();
+	}
+
+	/**
+	 * @return amount the way it's mapped in legacy documents
+	 */
+	private static String fromFixedPoint(Object value, int scale) {
+		return value == null ? null : BigDecimal.valueOf(((Number) value).longValue(), scale)
+				.stripTrailingZeros()
+				.toPlainString();
+	}
+
+	private static <E extends Enum<E>> Integer toOrdinal(Class<E> type, Object name) {
+		return name == null ? null : Enum.valueOf(type, name.toString()).ordinal();
+	}
+
+	private static String fromOrdinal(Enum<?>[] values, Object ordinal) {
+		return ordinal == null ? null : values[((Number) ordinal).intValue()].name();
+	}
+
+	private static String getAccount(Document document) {
+		return (String) ((Map<?, ?>) document.get(ID_FIELD)).get("account");
+	}
+
+	private static void putIfNotNull(Document document, String field, Object value) {
+		if (value != null) {
+			document.put(field, value);
+		}
+	}
+}
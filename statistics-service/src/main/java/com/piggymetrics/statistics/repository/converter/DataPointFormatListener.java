@@ -0,0 +1,33 @@
+package com.piggymetrics.statistics.repository.converter;
+
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores data points in the configured format and reads both formats,
+ * by converting raw documents around the default mapping
+ */
+@Component
+public class DataPointFormatListener extends AbstractMongoEventListener<DataPoint> {
+
+	@Autowired
+	private DataPointCodec codec;
+
+	@Override
+	public void onBeforeSave(BeforeSaveEvent<DataPoint> event) {
+		Document document = event.getDocument();
+		if (document != null) {
+			codec.toStorageFormat(document);
+		}
+	}
+
+	@Override
+	public void onAfterLoad(AfterLoadEvent<DataPoint> event) {
+		codec.decode(event.getDocument());
+	}
+}
@@ -0,0 +1,123 @@
+package com.piggymetrics.statistics.repository.converter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.piggymetrics.statistics.domain.timeseries.TitleDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-account {@link TitleDictionary} documents, caching them in memory.
+ *
+ * New titles are appended with a conditional {@code $push}, so concurrent
+ * writers never reorder the dictionary, and a cached dictionary is always
+ * a valid prefix of the stored one.
+ */
+@Component
+public class TitleDictionaryStore {
+
+	private static final String ID_FIELD = "_id";
+
+	private static final String TITLES_FIELD = "titles";
+
+	@Value("${statistics.storage.titles-cache-size:10000}")
+	private long cacheSize;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private Cache<String, List<String>> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.build();
+	}
+
+	/**
+	 * @return indexes of the titles, registering the unknown ones
+	 */
+	public Map<String, Integer> getIndexes(String account, Collection<String> titles) {
+
+		List<String> known = getTitles(account);
+
+		List<String> unknown = titles.stream()
+				.filter(title -> !known.contains(title))
+				.distinct()
+				.collect(Collectors.toList());
+
+		List<String> all = unknown.isEmpty() ? known : append(account, unknown);
+
+		Map<String, Integer> indexes = new HashMap<>(titles.size());
+		for (String title : titles) {
+			indexes.put(title, all.indexOf(title));
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * @return title by its index
+	 * @throws IllegalStateException when the index has never been registered
+	 */
+	public String getTitle(String account, int index) {
+
+		List<String> known = getTitles(account);
+
+		if (index >= known.size()) {
+			known = load(account);
+		}
+
+		Assert.state(index < known.size(), "unknown title " + index + " of account " + account);
+
+		return known.get(index);
+	}
+
+	private List<String> getTitles(String account) {
+
+		List<String> known = cache.getIfPresent(account);
+
+		return known != null ? known : load(account);
+	}
+
+	private List<String> append(String account, Collection<String> titles) {
+
+		mongoTemplate.upsert(Query.query(Criteria.where(ID_FIELD).is(account)),
+				new Update().setOnInsert(TITLES_FIELD, ImmutableList.of()), TitleDictionary.class);
+
+		for (String title : titles) {
+			mongoTemplate.updateFirst(Query.query(Criteria.where(ID_FIELD).is(account).and(TITLES_FIELD).ne(title)),
+					new Update().push(TITLES_FIELD, title), TitleDictionary.class);
+		}
+
+		return load(account);
+	}
+
+	private List<String> load(String account) {
+
+		TitleDictionary dictionary = mongoTemplate.findById(account, TitleDictionary.class);
+
+		List<String> titles = dictionary == null || dictionary.getTitles() == null
+				? ImmutableList.of()
+				: ImmutableList.copyOf(dictionary.getTitles());
+
+		cache.put(account, titles);
+
+		return titles;
+	}
+}
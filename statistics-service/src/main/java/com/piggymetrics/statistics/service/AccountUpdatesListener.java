@@ -0,0 +1,204 @@
+package com.piggymetrics.statistics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piggymetrics.statistics.domain.Account;
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumes account changes published by account-service.
+ *
+ * Changes are buffered per account and flushed periodically, so that
+ * a series of rapid edits of the same account results in a single
+ * {@link StatisticsService#saveAll} with the latest state.
+ *
+ * Messages are acknowledged manually, only after the account they carry
+ * has been saved, so buffered changes are redelivered after a crash.
+ * Saves failed because of the database, or because exchange rates haven't
+ * been obtained yet, are retried with the next flush. When a batch fails
+ * otherwise, its accounts are saved one by one, and messages of invalid
+ * updates are rejected to the dead letter queue.
+ */
+@Component
+public class AccountUpdatesListener {
+
+	static final String ACCOUNT_NAME_HEADER = "accountName";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+	@Autowired
+	private StatisticsService statisticsService;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@RabbitListener(queues = "${statistics.updates.queue:statistics.account-updates}",
+			containerFactory = "accountUpdatesContainerFactory")
+	public void onAccountUpdate(Message message, Channel channel) {
+
+		Delivery delivery = new Delivery(channel, message.getMessageProperties().getDeliveryTag());
+
+		Object accountName = message.getMessageProperties().getHeaders().get(ACCOUNT_NAME_HEADER);
+		Account account;
+		try {
+			account = mapper.readValue(message.getBody(), Account.class);
+		} catch (IOException e) {
+			account = null;
+		}
+
+		if (accountName == null || account == null) {
+			log.error("rejecting invalid account update: {}", message);
+			delivery.reject();
+			return;
+		}
+
+		Pending update = new Pending(account, delivery);
+		pending.merge(accountName.toString(), update, Pending::supersede);
+	}
+
+	@PreDestroy
+	@Scheduled(fixedDelayString = "${statistics.updates.flush-interval:1000}")
+	public void flush() {
+
+		Map<String, Pending> batch = new HashMap<>();
+
+		for (String accountName : pending.keySet()) {
+			Pending update = pending.remove(accountName);
+			if (update != null) {
+				batch.put(accountName, update);
+			}
+		}
+
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		Map<String, Account> accounts = new HashMap<>();
+		batch.forEach((accountName, update) -> accounts.put(accountName, update.account));
+
+		try {
+			statisticsService.saveAll(accounts);
+			batch.values().forEach(Pending::ack);
+		} catch (Exception e) {
+			if (isRetryable(e)) {
+				log.warn("can't save statistics for {} accounts, will retry", batch.size(), e);
+				batch.forEach(this::retry);
+			} else {
+				log.warn("an error during statistics update for {} accounts, saving them one by one", batch.size(), e);
+				batch.forEach(this::save);
+			}
+		}
+	}
+
+	private void save(String accountName, Pending update) {
+		try {
+			statisticsService.save(accountName, update.account);
+			update.ack();
+		} catch (Exception e) {
+			if (isRetryable(e)) {
+				log.warn("can't save statistics for {}, will retry", accountName, e);
+				retry(accountName, update);
+			} else {
+				log.error("an error during statistics update for {}, rejecting it", accountName, e);
+				update.reject();
+			}
+		}
+	}
+
+	/**
+	 * Puts the update back to the buffer, unless a newer one has arrived meanwhile
+	 */
+	private void retry(String accountName, Pending update) {
+		pending.merge(accountName, update, (newer, failed) -> failed.supersede(newer));
+	}
+
+	private boolean isRetryable(Exception e) {
+		return e instanceof DataAccessException || e instanceof ExchangeRatesNotAvailableException;
+	}
+
+	/**
+	 * Latest state of an account, along with all the messages it supersedes
+	 */
+	private static class Pending {
+
+		private final Account account;
+
+		private final List<Delivery> deliveries = new ArrayList<>();
+
+		Pending(Account account, Delivery delivery) {
+			this.account = account;
+			this.deliveries.add(delivery);
+		}
+
+		private Pending(Account account, List<Delivery> older, List<Delivery> newer) {
+			this.account = account;
+			this.deliveries.addAll(older);
+			this.deliveries.addAll(newer);
+		}
+
+		/**
+		 * @return the newer state, which acknowledges messages of both
+		 */
+		Pending supersede(Pending newer) {
+			return new Pending(newer.account, deliveries, newer.deliveries);
+		}
+
+		void ack() {
+			deliveries.forEach(Delivery::ack);
+		}
+
+		void reject() {
+			deliveries.forEach(Delivery::reject);
+		}
+	}
+
+	private class Delivery {
+
+		private final Channel channel;
+
+		private final long tag;
+
+		Delivery(Channel channel, long tag) {
+			this.channel = channel;
+			this.tag = tag;
+		}
+
+		void ack() {
+			try {
+				synchronized (channel) {
+					channel.basicAck(tag, false);
+				}
+			} catch (IOException e) {
+				// the channel is gone, so the message is going to be redelivered
+				log.warn("failed to acknowledge message {}", tag, e);
+			}
+		}
+
+		void reject() {
+			try {
+				synchronized (channel) {
+					channel.basicReject(tag, false);
+				}
+			} catch (IOException e) {
+				log.warn("failed to reject message {}", tag, e);
+			}
+		}
+	}
+}
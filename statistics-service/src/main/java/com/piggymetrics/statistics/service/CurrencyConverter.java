@@ -0,0 +1,98 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.Maps;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.Money;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable set of exchange rates along with conversion ratios between
+ * each pair of currencies, indexed by {@link Currency#ordinal()}
+ */
+public final class CurrencyConverter {
+
+	private final Map<Currency, BigDecimal> rates;
+
+	private final BigDecimal[][] ratios;
+
+	private final long[][] ratioUnits;
+
+	/**
+	 * @param rates rate of each currency, relative to {@link Currency#getBase()}
+	 */
+	public CurrencyConverter(Map<Currency, BigDecimal> rates) {
+
+		Currency[] currencies = Currency.values();
+
+		this.rates = Maps.immutableEnumMap(rates);
+		this.ratios = new BigDecimal[currencies.length][currencies.length];
+		this.ratioUnits = new long[currencies.length][currencies.length];
+
+		for (Currency from : currencies) {
+			for (Currency to : currencies) {
+				Assert.isTrue(rates.get(from) != null && rates.get(to) != null, "rates must be specified for all currencies");
+				ratios[from.ordinal()][to.ordinal()] = rates.get(to).divide(rates.get(from), Money.SCALE, RoundingMode.HALF_UP);
+				ratioUnits[from.ordinal()][to.ordinal()] = Money.toUnits(ratios[from.ordinal()][to.ordinal()]);
+			}
+		}
+	}
+
+	public Map<Currency, BigDecimal> getRates() {
+		return rates;
+	}
+
+	/**
+	 * Converts given amount to specified currency
+	 */
+	public BigDecimal convert(Currency from, Currency to, BigDecimal amount) {
+
+		Assert.notNull(amount);
+
+		return amount.multiply(ratios[from.ordinal()][to.ordinal()]);
+	}
+
+	/**
+	 * Converts given amount to specified currency, rounding
+	 * the result to {@link Money#SCALE} digits
+	 */
+	public Money convert(Money amount, Currency to) {
+		return convert(amount, to, Money.ONE);
+	}
+
+	/**
+	 * Converts given amount to specified currency and divides it by
+	 * the fixed-point divisor. The result is rounded only once, so it's
+	 * the same as dividing the exact {@link BigDecimal} conversion
+	 */
+	public Money convert(Money amount, Currency to, long divisor) {
+
+		long ratio = ratioUnits[amount.getCurrency().ordinal()][to.ordinal()];
+
+		return Money.ofUnits(Money.mulDiv(amount.getUnits(), ratio, divisor), to);
+	}
+
+	/**
+	 * Converts amounts of given items to specified currency
+	 *
+	 * @return converted amounts, in the order of items
+	 */
+	public <T> List<BigDecimal> convertAll(Collection<T> items, Function<T, Currency> currency,
+										   Function<T, BigDecimal> amount, Currency to) {
+
+		List<BigDecimal> result = new ArrayList<>(items.size());
+
+		for (T item : items) {
+			result.add(convert(currency.apply(item), to, amount.apply(item)));
+		}
+
+		return result;
+	}
+}
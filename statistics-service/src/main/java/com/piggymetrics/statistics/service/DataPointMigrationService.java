@@ -0,0 +1,33 @@
+package com.piggymetrics.statistics.service;
+
+import com.piggymetrics.statistics.repository.converter.DataPointCodec;
+
+public interface DataPointMigrationService {
+
+	/**
+	 * Starts conversion of the data points, stored in a format other than
+	 * the configured one, in background. Converted data points are not
+	 * selected again, so an interrupted migration continues where it has
+	 * stopped, when started again. Does nothing, when the migration
+	 * is already running.
+	 *
+	 * @return {@code true}, if the migration has been started
+	 */
+	boolean start();
+
+	/**
+	 * @return whether the migration is running
+	 */
+	boolean isRunning();
+
+	/**
+	 * @return the format data points are converted to
+	 */
+	DataPointCodec.Format getFormat();
+
+	/**
+	 * @return number of data points stored in a format other than the configured one
+	 */
+	long getRemaining();
+
+}
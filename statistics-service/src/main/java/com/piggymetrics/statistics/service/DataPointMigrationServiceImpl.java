@@ -0,0 +1,181 @@
+package com.piggymetrics.statistics.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.WriteModel;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.repository.converter.DataPointCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Converts raw data point documents to the configured storage format.
+ *
+ * Documents are read in {@code _id} order in batches and replaced with unordered
+ * bulk writes. A replacement only applies while the document is still in the
+ * other format, so it never overwrites a data point written concurrently.
+ */
+@Service
+public class DataPointMigrationServiceImpl implements DataPointMigrationService {
+
+	private static final String ID_FIELD = "_id";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@Value("${statistics.storage.migration.batch-size:500}")
+	private int batchSize;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private DataPointCodec codec;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private ExecutorService executor;
+
+	private Counter migrated;
+
+	@PostConstruct
+	public void init() {
+		executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("migration-"));
+		migrated = registry.counter("statistics.migration.points");
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean start() {
+
+		if (!running.compareAndSet(false, true)) {
+			return false;
+		}
+
+		executor.execute(() -> {
+			try {
+				run();
+			} catch (Exception e) {
+				log.error("data points migration to {} format has failed, it may be restarted", codec.getFormat(), e);
+			} finally {
+				running.set(false);
+			}
+		});
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isRunning() {
+		return running.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataPointCodec.Format getFormat() {
+		return codec.getFormat();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRemaining() {
+		return getCollection().count(getOtherFormatFilter());
+	}
+
+	/**
+	 * @return number of converted data points
+	 */
+	long run() {
+
+		long startedAt = System.currentTimeMillis();
+		long total = 0;
+
+		MongoCollection<Document> collection = getCollection();
+		Object last = null;
+
+		while (true) {
+
+			Bson filter = last == null
+					? getOtherFormatFilter()
+					: Filters.and(getOtherFormatFilter(), Filters.gt(ID_FIELD, last));
+
+			List<Document> batch = collection.find(filter)
+					.sort(Sorts.ascending(ID_FIELD))
+					.limit(batchSize)
+					.into(new ArrayList<>(batchSize));
+
+			if (batch.isEmpty()) {
+				break;
+			}
+
+			List<WriteModel<Document>> replacements = new ArrayList<>(batch.size());
+			for (Document document : batch) {
+				last = document.get(ID_FIELD);
+				convert(document);
+				replacements.add(new ReplaceOneModel<>(Filters.and(Filters.eq(ID_FIELD, last), getOtherFormatFilter()), document));
+			}
+
+			collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false));
+
+			migrated.increment(batch.size());
+			total += batch.size();
+		}
+
+		log.info("{} data points have been migrated to {} format in {} ms", total, codec.getFormat(),
+				System.currentTimeMillis() - startedAt);
+
+		return total;
+	}
+
+	private void convert(Document document) {
+		if (codec.getFormat() == DataPointCodec.Format.COMPACT) {
+			codec.encode(document);
+		} else {
+			codec.decode(document);
+		}
+	}
+
+	private Bson getOtherFormatFilter() {
+		return Filters.exists(DataPointCodec.VERSION_FIELD, codec.getFormat() != DataPointCodec.Format.COMPACT);
+	}
+
+	private MongoCollection<Document> getCollection() {
+		return mongoTemplate.getCollection(mongoTemplate.getCollectionName(DataPoint.class));
+	}
+}
@@ -0,0 +1,292 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.Lists;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.repository.DataPointRepository;
+import com.piggymetrics.statistics.repository.converter.DataPointCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer of {@link DataPoint} upserts.
+ *
+ * Buffered data points are written with a single unordered bulk operation,
+ * when the buffer reaches the batch size or on a periodic flush. Repeated
+ * writes of the same data point within a batch are collapsed to the latest,
+ * data points with the same fingerprint as the stored ones are not rewritten.
+ *
+ * With {@link AckMode#ACK_AFTER_FLUSH} writers flush the buffer themselves and
+ * get the write error, if any. Data points buffered by concurrent writers are
+ * written with the same batch, so writers never wait for the periodic flush.
+ * With {@link AckMode#ACK_BEFORE_FLUSH} writers return immediately, failed
+ * batches are kept in the buffer and retried with the next flush, but buffered
+ * data points are lost on a crash.
+ */
+@Component
+public class DataPointWriter {
+
+	public enum AckMode {
+		ACK_BEFORE_FLUSH, ACK_AFTER_FLUSH
+	}
+
+	private static final String ID_FIELD = "_id";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final Object lock = new Object();
+
+	private Map<DataPointId, Pending> buffer = new LinkedHashMap<>();
+
+	@Value("${statistics.writes.mode:ACK_AFTER_FLUSH}")
+	private AckMode mode;
+
+	@Value("${statistics.writes.batch-size:100}")
+	private int batchSize;
+
+	@Autowired
+	private DataPointRepository repository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private DataPointCodec codec;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private DistributionSummary batchSizes;
+
+	private Timer flushLatency;
+
+	private Counter failures;
+
+	private Counter unchanged;
+
+	@PostConstruct
+	public void init() {
+		batchSizes = registry.summary("statistics.datapoints.flush.size");
+		flushLatency = registry.timer("statistics.datapoints.flush");
+		failures = registry.counter("statistics.datapoints.flush.failures");
+		unchanged = registry.counter("statistics.datapoints.unchanged");
+	}
+
+	/**
+	 * Buffers the data point, writing it in {@link AckMode#ACK_AFTER_FLUSH} mode
+	 */
+	public void write(DataPoint point) {
+		writeAll(Lists.newArrayList(point));
+	}
+
+	/**
+	 * Buffers data points, writing them in {@link AckMode#ACK_AFTER_FLUSH} mode
+	 */
+	public void writeAll(Collection<DataPoint> points) {
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>(points.size());
+		for (DataPoint point : points) {
+			futures.add(enqueue(point));
+		}
+
+		if (mode == AckMode.ACK_AFTER_FLUSH) {
+
+			// the points are either written by this flush or by a concurrent one,
+			// which holds the monitor until it completes them
+			flush();
+
+			try {
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Writes buffered data points
+	 */
+	@PreDestroy
+	@Scheduled(fixedDelayString = "${statistics.writes.flush-interval:200}")
+	public synchronized void flush() {
+
+		Map<DataPointId, Pending> batch;
+		synchronized (lock) {
+			if (buffer.isEmpty()) {
+				return;
+			}
+			batch = buffer;
+			buffer = new LinkedHashMap<>();
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			List<DataPoint> points = new ArrayList<>(batch.size());
+			batch.values().forEach(pending -> points.add(pending.point));
+
+			List<DataPoint> previous = findPrevious(batch.keySet(), points);
+
+			List<DataPoint> changedPoints = new ArrayList<>(points.size());
+
+			for (int i = 0; i < points.size(); i++) {
+				if (isUnchanged(previous.get(i), points.get(i))) {
+					unchanged.increment();
+				} else {
+					changedPoints.add(points.get(i));
+				}
+			}
+
+			bulkWrite(changedPoints);
+			batch.values().forEach(pending -> pending.future.complete(null));
+
+		} catch (Exception e) {
+
+			failures.increment();
+			batch.values().forEach(pending -> pending.future.completeExceptionally(e));
+
+			if (mode == AckMode.ACK_BEFORE_FLUSH) {
+				log.warn("failed to write {} data points, will retry", batch.size(), e);
+				synchronized (lock) {
+					batch.forEach((id, pending) -> buffer.putIfAbsent(id, new Pending(pending.point)));
+				}
+			}
+
+		} finally {
+			batchSizes.record(batch.size());
+			flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Writes statistics of data points to rollups, then upserts data points
+	 * with a single unordered bulk operation.
+	 *
+	 * Rollups go first, since the stored fingerprint makes a retried data
+	 * point look unchanged. Rollup updates are idempotent per day, so
+	 * rewriting them for a failed upsert is harmless.
+	 *
+	 * @param points data points to write
+	 */
+	public void bulkWrite(List<DataPoint> points) {
+
+		if (points.isEmpty()) {
+			return;
+		}
+
+		BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataPoint.class);
+
+		for (DataPoint point : points) {
+			operations.upsert(new Query(Criteria.where(ID_FIELD).is(point.getId())), createUpdate(point));
+		}
+
+		rollupService.updateAll(points);
+		operations.execute();
+
+		log.debug("{} data points have been written", points.size());
+	}
+
+	private CompletableFuture<Void> enqueue(DataPoint point) {
+
+		CompletableFuture<Void> future;
+		boolean full;
+
+		synchronized (lock) {
+			Pending pending = buffer.get(point.getId());
+			if (pending == null) {
+				pending = new Pending(point);
+				buffer.put(point.getId(), pending);
+			} else {
+				pending.point = point;
+			}
+			future = pending.future;
+			full = buffer.size() >= batchSize;
+		}
+
+		if (full) {
+			flush();
+		}
+
+		return future;
+	}
+
+	private boolean isUnchanged(DataPoint previous, DataPoint point) {
+		return previous != null && point.getFingerprint() != null
+				&& point.getFingerprint().equals(previous.getFingerprint());
+	}
+
+	private List<DataPoint> findPrevious(Collection<DataPointId> ids, List<DataPoint> points) {
+
+		Map<DataPointId, DataPoint> existing = new HashMap<>();
+		repository.findAllById(ids).forEach(point -> existing.put(point.getId(), point));
+
+		List<DataPoint> previous = new ArrayList<>(points.size());
+		points.forEach(point -> previous.add(existing.get(point.getId())));
+
+		return previous;
+	}
+
+	private Update createUpdate(DataPoint point) {
+
+		Document document = new Document();
+		mongoTemplate.getConverter().write(point, document);
+		codec.toStorageFormat(document);
+
+		Update update = new Update();
+		document.forEach((field, value) -> {
+			if (!ID_FIELD.equals(field)) {
+				update.set(field, value);
+			}
+		});
+
+		// fields of the other format and the ones which became null
+		DataPointCodec.FIELDS.stream()
+				.filter(field -> !document.containsKey(field))
+				.forEach(update::unset);
+
+		return update;
+	}
+
+	private static class Pending {
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private DataPoint point;
+
+		Pending(DataPoint point) {
+			this.point = point;
+		}
+	}
+}
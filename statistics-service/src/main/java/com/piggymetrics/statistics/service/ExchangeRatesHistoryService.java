@@ -0,0 +1,33 @@
+package com.piggymetrics.statistics.service;
+
+import com.piggymetrics.statistics.domain.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ExchangeRatesHistoryService {
+
+	/**
+	 * Returns rates of given day from the local history, never
+	 * requesting the provider. For days without published rates
+	 * (weekends, holidays) the latest previous rates are returned.
+	 *
+	 * @param date day
+	 * @return rates of the day
+	 * @throws IllegalStateException if there are no stored rates on or before the day
+	 */
+	Map<Currency, BigDecimal> getRates(LocalDate date);
+
+	/**
+	 * Requests daily rates within given date range from the provider
+	 * and stores them in the local history. Already stored days are
+	 * overwritten, so the job may be safely repeated.
+	 *
+	 * @param from first day
+	 * @param to last day
+	 * @return number of stored days
+	 */
+	int backfill(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,135 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.piggymetrics.statistics.client.ExchangeRatesClient;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.domain.ExchangeRatesHistoryContainer;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+@Service
+public class ExchangeRatesHistoryServiceImpl implements ExchangeRatesHistoryService {
+
+	/**
+	 * Maximum number of days requested from the provider at once
+	 */
+	private static final int BACKFILL_CHUNK_DAYS = 365;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Value("${rates.history.cache-size:1000}")
+	private long cacheSize;
+
+	@Autowired
+	private ExchangeRatesClient client;
+
+	@Autowired
+	private ExchangeRatesRepository repository;
+
+	private Cache<LocalDate, Map<Currency, BigDecimal>> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.build();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only past days are cached, since today's rates may still be
+	 * replaced by the refresh.
+	 */
+	@Override
+	public Map<Currency, BigDecimal> getRates(LocalDate date) {
+
+		Assert.notNull(date, "date must be specified");
+
+		if (!date.isBefore(LocalDate.now())) {
+			return load(date);
+		}
+
+		try {
+			return cache.get(date, () -> load(date));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int backfill(LocalDate from, LocalDate to) {
+
+		Assert.isTrue(from != null && to != null && !from.isAfter(to), "valid date range must be specified");
+
+		int stored = 0;
+
+		for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(BACKFILL_CHUNK_DAYS)) {
+
+			LocalDate end = start.plusDays(BACKFILL_CHUNK_DAYS - 1);
+			if (end.isAfter(to)) {
+				end = to;
+			}
+
+			ExchangeRatesHistoryContainer history = client.getHistory(start.toString(), end.toString(), Currency.getBase());
+			Assert.state(history != null && history.getRates() != null && !history.getRates().isEmpty(),
+					"exchange rates provider returned no rates for " + start + " - " + end);
+
+			List<ExchangeRatesContainer> containers = new ArrayList<>();
+
+			history.getRates().forEach((day, rates) -> {
+				ExchangeRatesContainer container = new ExchangeRatesContainer();
+				container.setDate(LocalDate.parse(day));
+				container.setBase(history.getBase());
+				container.setRates(rates);
+				container.setId(ExchangeRatesContainer.getId(container.getBase(), container.getDate()));
+
+				if (container.isComplete()) {
+					containers.add(container);
+				} else {
+					log.warn("skipping incomplete exchange rates: {}", container);
+				}
+			});
+
+			repository.saveAll(containers);
+			stored += containers.size();
+
+			log.info("exchange rates history has been stored for {} - {}: {} days", start, end, containers.size());
+		}
+
+		cache.invalidateAll();
+
+		return stored;
+	}
+
+	private Map<Currency, BigDecimal> load(LocalDate date) {
+
+		ExchangeRatesContainer container = repository.findFirstByBaseAndDateLessThanEqualOrderByDateDesc(Currency.getBase(), date);
+		Assert.state(container != null && container.isComplete(), "no exchange rates stored on or before " + date);
+
+		return Maps.immutableEnumMap(container.toCurrencyRates());
+	}
+}
@@ -0,0 +1,12 @@
+package com.piggymetrics.statistics.service;
+
+/**
+ * Thrown until exchange rates are obtained for the first time,
+ * so the operation can be retried later
+ */
+public class ExchangeRatesNotAvailableException extends IllegalStateException {
+
+	public ExchangeRatesNotAvailableException(String message) {
+		super(message);
+	}
+}
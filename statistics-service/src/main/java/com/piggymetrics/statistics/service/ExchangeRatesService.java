@@ -3,18 +3,32 @@ package com.piggymetrics.statistics.service;
 import com.piggymetrics.statistics.domain.Currency;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public interface ExchangeRatesService {
 
 	/**
-	 * Requests today's foreign exchange rates from a provider
-	 * or reuses values from the last request (if they are still relevant)
+	 * Returns the latest foreign exchange rates obtained from a provider.
+	 * Never waits for the provider, so the rates may be outdated
+	 * until the background refresh succeeds
 	 *
-	 * @return current date rates
+	 * @return current rates
+	 * @throws ExchangeRatesNotAvailableException if no rates have been obtained yet
 	 */
 	Map<Currency, BigDecimal> getCurrentRates();
 
+	/**
+	 * Returns converter backed by the latest rates,
+	 * see {@link #getCurrentRates()}
+	 *
+	 * @return current rates converter
+	 * @throws ExchangeRatesNotAvailableException if no rates have been obtained yet
+	 */
+	CurrencyConverter getCurrentConverter();
+
 	/**
 	 * Converts given amount to specified currency
 	 *
@@ -24,4 +38,17 @@ public interface ExchangeRatesService {
 	 * @return converted amount
 	 */
 	BigDecimal convert(Currency from, Currency to, BigDecimal amount);
+
+	/**
+	 * Converts amounts of given items to specified currency,
+	 * using the same rates for all of them
+	 *
+	 * @param items to be converted
+	 * @param currency extracts item {@link Currency}
+	 * @param amount extracts item amount
+	 * @param to {@link Currency}
+	 * @return converted amounts, in the order of items
+	 */
+	<T> List<BigDecimal> convertAll(Collection<T> items, Function<T, Currency> currency,
+									Function<T, BigDecimal> amount, Currency to);
 }
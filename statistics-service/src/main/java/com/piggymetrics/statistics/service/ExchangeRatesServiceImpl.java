@@ -1,46 +1,58 @@
 package com.piggymetrics.statistics.service;
 
-import com.google.common.collect.ImmutableMap;
 import com.piggymetrics.statistics.client.ExchangeRatesClient;
 import com.piggymetrics.statistics.domain.Currency;
 import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+/**
+ * Serves exchange rates from an in-memory snapshot, which is replaced
+ * by a background refresh once a day. The last good rates are persisted,
+ * so a restarted instance doesn't need the provider to serve requests.
+ */
 @Service
 public class ExchangeRatesServiceImpl implements ExchangeRatesService {
 
 	private static final Logger log = LoggerFactory.getLogger(ExchangeRatesServiceImpl.class);
 
-	private ExchangeRatesContainer container;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+
+	private volatile Snapshot snapshot;
 
 	@Autowired
 	private ExchangeRatesClient client;
 
+	@Autowired
+	private ExchangeRatesRepository repository;
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Map<Currency, BigDecimal> getCurrentRates() {
+		return getCurrentConverter().getRates();
+	}
 
-		if (container == null || !container.getDate().equals(LocalDate.now())) {
-			container = client.getRates(Currency.getBase());
-			log.info("exchange rates has been updated: {}", container);
-		}
-
-		return ImmutableMap.of(
-				Currency.EUR, container.getRates().get(Currency.EUR.name()),
-				Currency.RUB, container.getRates().get(Currency.RUB.name()),
-				Currency.USD, BigDecimal.ONE
-		);
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CurrencyConverter getCurrentConverter() {
+		return getSnapshot().converter;
 	}
 
 	/**
@@ -51,9 +63,95 @@ public class ExchangeRatesServiceImpl implements ExchangeRatesService {
 
 		Assert.notNull(amount);
 
-		Map<Currency, BigDecimal> rates = getCurrentRates();
-		BigDecimal ratio = rates.get(to).divide(rates.get(from), 4, RoundingMode.HALF_UP);
+		return getCurrentConverter().convert(from, to, amount);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> List<BigDecimal> convertAll(Collection<T> items, Function<T, Currency> currency,
+										   Function<T, BigDecimal> amount, Currency to) {
+
+		return getCurrentConverter().convertAll(items, currency, amount, to);
+	}
+
+	/**
+	 * Requests today's rates from the provider, unless they have already
+	 * been obtained. Runs on startup and then periodically, so a failed
+	 * request is retried with the next run, while the previous rates
+	 * keep being served.
+	 *
+	 * Concurrent invocations return immediately instead of waiting
+	 * for the one in progress.
+	 */
+	@Scheduled(fixedDelayString = "${rates.refresh-interval:600000}")
+	public void refresh() {
+
+		if (!refreshing.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			if (snapshot == null) {
+				restore();
+			}
 
-		return amount.multiply(ratio);
+			if (snapshot != null && snapshot.date.equals(LocalDate.now())) {
+				return;
+			}
+
+			ExchangeRatesContainer container = client.getRates(Currency.getBase());
+			if (container == null || !container.isComplete()) {
+				log.warn("exchange rates provider returned incomplete rates, keeping previous ones: {}", container);
+				return;
+			}
+
+			container.setId(ExchangeRatesContainer.getId(container.getBase(), container.getDate()));
+			repository.save(container);
+
+			snapshot = new Snapshot(container);
+			log.info("exchange rates has been updated: {}", container);
+
+		} catch (Exception e) {
+			log.error("failed to refresh exchange rates, keeping previous ones", e);
+		} finally {
+			refreshing.set(false);
+		}
+	}
+
+	/**
+	 * Loads the last persisted rates
+	 */
+	private void restore() {
+
+		ExchangeRatesContainer container = repository.findFirstByBaseOrderByDateDesc(Currency.getBase());
+
+		if (container != null && container.isComplete()) {
+			snapshot = new Snapshot(container);
+			log.info("exchange rates has been restored: {}", container);
+		}
+	}
+
+	private Snapshot getSnapshot() {
+
+		Snapshot current = snapshot;
+		if (current == null) {
+			throw new ExchangeRatesNotAvailableException("exchange rates have not been obtained yet");
+		}
+
+		return current;
+	}
+
+	private static class Snapshot {
+
+		private final LocalDate date;
+
+		private final CurrencyConverter converter;
+
+		Snapshot(ExchangeRatesContainer container) {
+			this.date = container.getDate();
+			this.converter = new CurrencyConverter(container.toCurrencyRates());
+		}
 	}
 }
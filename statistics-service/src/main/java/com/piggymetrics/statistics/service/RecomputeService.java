@@ -0,0 +1,22 @@
+package com.piggymetrics.statistics.service;
+
+import com.piggymetrics.statistics.domain.RecomputeJob;
+
+public interface RecomputeService {
+
+	/**
+	 * Starts recomputation of all the data points in background.
+	 * A failed or interrupted job is resumed from its checkpoint,
+	 * a completed one is started over. Does nothing, when the job
+	 * is already running.
+	 *
+	 * @return job state
+	 */
+	RecomputeJob start();
+
+	/**
+	 * @return the last job state, or {@code null} if the job has never been started
+	 */
+	RecomputeJob getJob();
+
+}
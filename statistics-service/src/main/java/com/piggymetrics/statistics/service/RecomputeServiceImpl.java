@@ -0,0 +1,297 @@
+package com.piggymetrics.statistics.service;
+
+import com.piggymetrics.statistics.domain.RecomputeJob;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.repository.RecomputeJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recomputes data points from their source account snapshots.
+ *
+ * Data points are streamed in {@code _id} order and split into batches,
+ * which are recomputed in parallel and written with unordered bulk upserts
+ * (see {@link DataPointWriter#bulkWrite}).
+ * The checkpoint is advanced only past contiguous completed batches, so
+ * a resumed job never misses a data point.
+ */
+@Service
+public class RecomputeServiceImpl implements RecomputeService {
+
+	static final String JOB_ID = "recompute";
+
+	private static final String ID_FIELD = "_id";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Value("${statistics.recompute.batch-size:500}")
+	private int batchSize;
+
+	@Value("${statistics.recompute.parallelism:4}")
+	private int parallelism;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private RecomputeJobRepository jobRepository;
+
+	@Autowired
+	private StatisticsService statisticsService;
+
+	@Autowired
+	private DataPointWriter writer;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	private ExecutorService coordinator;
+
+	private Counter recomputed;
+
+	private Counter skipped;
+
+	private Timer batchLatency;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void init() {
+		coordinator = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("recompute-"));
+		recomputed = registry.counter("statistics.recompute.points", "result", "recomputed");
+		skipped = registry.counter("statistics.recompute.points", "result", "skipped");
+		batchLatency = registry.timer("statistics.recompute.batch");
+	}
+
+	@PreDestroy
+	public void destroy() {
+		coordinator.shutdownNow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized RecomputeJob start() {
+
+		RecomputeJob job = getJob();
+
+		if (running) {
+			return job;
+		}
+
+		if (job == null || job.getStatus() == RecomputeJob.Status.COMPLETED) {
+			job = new RecomputeJob();
+			job.setId(JOB_ID);
+		}
+
+		job.setStatus(RecomputeJob.Status.RUNNING);
+		job.setStartedAt(new Date());
+		job.setFinishedAt(null);
+		job.setError(null);
+		jobRepository.save(job);
+
+		log.info("data points recomputation has been started from {}", job.getCheckpoint());
+
+		running = true;
+
+		final RecomputeJob started = job;
+		coordinator.execute(() -> run(started));
+
+		return job;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public RecomputeJob getJob() {
+		return jobRepository.findById(JOB_ID).orElse(null);
+	}
+
+	void run(RecomputeJob job) {
+
+		long startedAt = System.currentTimeMillis();
+		long processedBefore = job.getProcessed();
+
+		Checkpoints checkpoints = new Checkpoints(job);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		ExecutorService workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("recompute-worker-"));
+		Semaphore permits = new Semaphore(parallelism * 2);
+
+		Query query = new Query().with(Sort.by(Sort.Direction.ASC, ID_FIELD));
+		if (job.getCheckpoint() != null) {
+			query.addCriteria(Criteria.where(ID_FIELD).gt(job.getCheckpoint()));
+		}
+
+		try (CloseableIterator<DataPoint> points = mongoTemplate.stream(query, DataPoint.class)) {
+
+			long sequence = 0;
+			List<DataPoint> batch = new ArrayList<>(batchSize);
+
+			while (points.hasNext() && failure.get() == null) {
+				batch.add(points.next());
+				if (batch.size() == batchSize) {
+					submit(workers, permits, sequence++, batch, checkpoints, failure);
+					batch = new ArrayList<>(batchSize);
+				}
+			}
+
+			if (!batch.isEmpty() && failure.get() == null) {
+				submit(workers, permits, sequence, batch, checkpoints, failure);
+			}
+
+			workers.shutdown();
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+		} catch (Exception e) {
+			failure.compareAndSet(null, e);
+		} finally {
+			workers.shutdownNow();
+		}
+
+		finish(checkpoints, failure.get(), job.getProcessed() - processedBefore, System.currentTimeMillis() - startedAt);
+	}
+
+	private void submit(ExecutorService workers, Semaphore permits, long sequence, List<DataPoint> batch,
+						Checkpoints checkpoints, AtomicReference<Throwable> failure) throws InterruptedException {
+
+		permits.acquire();
+
+		try {
+			workers.execute(() -> {
+				try {
+					int recomputedPoints = batchLatency.recordCallable(() -> recompute(batch));
+					checkpoints.complete(sequence, batch.get(batch.size() - 1).getId(),
+							recomputedPoints, batch.size() - recomputedPoints);
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					permits.release();
+				}
+			});
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return number of recomputed data points, the ones without
+	 * source account snapshot are skipped
+	 */
+	private int recompute(List<DataPoint> batch) {
+
+		List<DataPoint> current = new ArrayList<>(batch.size());
+
+		for (DataPoint point : batch) {
+			if (point.getSource() != null) {
+				current.add(statisticsService.recompute(point));
+			}
+		}
+
+		writer.bulkWrite(current);
+
+		recomputed.increment(current.size());
+		skipped.increment(batch.size() - current.size());
+
+		return current.size();
+	}
+
+	private void finish(Checkpoints checkpoints, Throwable failure, long processed, long duration) {
+
+		RecomputeJob job = checkpoints.job;
+
+		synchronized (checkpoints) {
+			job.setStatus(failure == null ? RecomputeJob.Status.COMPLETED : RecomputeJob.Status.FAILED);
+			job.setError(failure == null ? null : failure.toString());
+			job.setFinishedAt(new Date());
+			jobRepository.save(job);
+		}
+
+		running = false;
+
+		if (failure == null) {
+			log.info("data points recomputation has been completed: {} points in {} ms ({} points/s)",
+					processed, duration, duration > 0 ? processed * 1000 / duration : processed);
+		} else {
+			log.error("data points recomputation has failed at {}, it may be resumed", job.getCheckpoint(), failure);
+		}
+	}
+
+	/**
+	 * Advances job checkpoint as batches complete, possibly out of order
+	 */
+	private class Checkpoints {
+
+		private final RecomputeJob job;
+
+		private final Map<Long, Batch> completed = new TreeMap<>();
+
+		private long next;
+
+		Checkpoints(RecomputeJob job) {
+			this.job = job;
+		}
+
+		synchronized void complete(long sequence, DataPointId last, int recomputedPoints, int skippedPoints) {
+
+			completed.put(sequence, new Batch(last, recomputedPoints, skippedPoints));
+
+			Batch batch;
+			while ((batch = completed.remove(next)) != null) {
+				job.setCheckpoint(batch.last);
+				job.setProcessed(job.getProcessed() + batch.recomputed);
+				job.setSkipped(job.getSkipped() + batch.skipped);
+				next++;
+			}
+
+			jobRepository.save(job);
+		}
+	}
+
+	private static class Batch {
+
+		private final DataPointId last;
+
+		private final int recomputed;
+
+		private final int skipped;
+
+		Batch(DataPointId last, int recomputed, int skipped) {
+			this.last = last;
+			this.recomputed = recomputed;
+			this.skipped = skipped;
+		}
+	}
+}
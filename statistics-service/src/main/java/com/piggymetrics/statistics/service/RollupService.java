@@ -0,0 +1,41 @@
+package com.piggymetrics.statistics.service;
+
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RollupService {
+
+	/**
+	 * Finds account rollups of given resolution, which periods start
+	 * within given date range, ordered by date
+	 *
+	 * @param accountName
+	 * @param resolution any resolution except {@link Resolution#DAY}
+	 * @param from first date to include, or {@code null} for no lower bound
+	 * @param to last date to include, or {@code null} for no upper bound
+	 * @param limit maximum number of the latest rollups to return, or {@code null} for all
+	 * @return found rollups
+	 */
+	List<Rollup> findByAccountName(String accountName, Resolution resolution, Date from, Date to, Integer limit);
+
+	/**
+	 * Writes statistics of the daily data point into all the rollups
+	 * containing its date, replacing the ones written for that day before
+	 *
+	 * @param point saved data point
+	 */
+	void update(DataPoint point);
+
+	/**
+	 * Same as {@link #update(DataPoint)} for a batch of
+	 * data points, written with a single bulk operation
+	 *
+	 * @param points saved data points
+	 */
+	void updateAll(List<DataPoint> points);
+
+}
@@ -0,0 +1,164 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.Lists;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
+import com.piggymetrics.statistics.repository.RollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class RollupServiceImpl implements RollupService {
+
+	private static final String DATE_FIELD = "date";
+
+	private static final String DAILY_FIELD = "daily";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private RollupRepository repository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Rollup> findByAccountName(String accountName, Resolution resolution, Date from, Date to, Integer limit) {
+
+		Assert.hasLength(accountName);
+		Assert.isTrue(resolution != null && resolution != Resolution.DAY, "rollup resolution must be specified");
+		Assert.isTrue(limit == null || limit > 0, "limit must be positive");
+
+		// the period, which lower bound belongs to, is included as well
+		from = from == null ? new Date(0) : toDate(resolution.getPeriodStart(toLocalDate(from)));
+
+		if (to == null) {
+			to = new Date(Long.MAX_VALUE);
+		}
+
+		Assert.isTrue(!from.after(to), "from must not be after to");
+
+		Pageable pageable = limit == null
+				? PageRequest.of(0, Integer.MAX_VALUE, Sort.Direction.ASC, DATE_FIELD)
+				: PageRequest.of(0, limit, Sort.Direction.DESC, DATE_FIELD);
+
+		List<Rollup> rollups = repository.findByAccountAndResolutionAndDateBetween(accountName, resolution, from, to, pageable);
+
+		if (limit != null) {
+			rollups = Lists.reverse(rollups);
+		}
+
+		return rollups;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Rollups are upserted with {@code $set} of the day entry only, so
+	 * concurrent updates of different days of the same period don't
+	 * overwrite each other, and repeated updates of the same day are
+	 * idempotent.
+	 */
+	@Override
+	public void update(DataPoint point) {
+
+		Assert.notNull(point, "data point must be specified");
+
+		for (Resolution resolution : Resolution.getRollups()) {
+			mongoTemplate.upsert(createQuery(resolution, point), createUpdate(resolution, point), Rollup.class);
+		}
+
+		log.debug("rollups have been updated: {}", point.getId());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateAll(List<DataPoint> points) {
+
+		if (points.isEmpty()) {
+			return;
+		}
+
+		BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Rollup.class);
+
+		for (DataPoint point : points) {
+			for (Resolution resolution : Resolution.getRollups()) {
+				operations.upsert(createQuery(resolution, point), createUpdate(resolution, point));
+			}
+		}
+
+		operations.execute();
+	}
+
+	private Query createQuery(Resolution resolution, DataPoint point) {
+
+		DataPointId pointId = point.getId();
+		Date periodStart = toDate(resolution.getPeriodStart(toLocalDate(pointId.getDate())));
+
+		return new Query(Criteria.where("_id").is(Rollup.getId(pointId.getAccount(), resolution, periodStart)));
+	}
+
+	private Update createUpdate(Resolution resolution, DataPoint point) {
+
+		DataPointId pointId = point.getId();
+		LocalDate day = toLocalDate(pointId.getDate());
+		Date periodStart = toDate(resolution.getPeriodStart(day));
+
+		Map<StatisticMetric, Long> values = new EnumMap<>(StatisticMetric.class);
+		for (StatisticMetric metric : StatisticMetric.values()) {
+			values.put(metric, getValue(point, metric));
+		}
+
+		return new Update()
+				.setOnInsert("account", pointId.getAccount())
+				.setOnInsert("resolution", resolution)
+				.setOnInsert(DATE_FIELD, periodStart)
+				.set(DAILY_FIELD + "." + day.format(DateTimeFormatter.ISO_LOCAL_DATE), values);
+	}
+
+	private long getValue(DataPoint point, StatisticMetric metric) {
+
+		if (point.getStatistics() == null) {
+			return 0;
+		}
+
+		BigDecimal value = point.getStatistics().get(metric);
+		return value == null ? 0 : Rollup.toFixedPoint(value);
+	}
+
+	private LocalDate toLocalDate(Date date) {
+		return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+
+	private Date toDate(LocalDate date) {
+		return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -3,7 +3,9 @@ package com.piggymetrics.statistics.service;
 import com.piggymetrics.statistics.domain.Account;
 import com.piggymetrics.statistics.domain.timeseries.DataPoint;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface StatisticsService {
 
@@ -15,16 +17,49 @@ public interface StatisticsService {
 	 */
 	List<DataPoint> findByAccountName(String accountName);
 
+	/**
+	 * Finds account data points within given date range,
+	 * ordered by date
+	 *
+	 * @param accountName
+	 * @param from first date to include, or {@code null} for no lower bound
+	 * @param to last date to include, or {@code null} for no upper bound
+	 * @param limit maximum number of the latest data points to return, or {@code null} for all
+	 * @param details whether to include incomes and expenses of each data point
+	 * @return found data points
+	 */
+	List<DataPoint> findByAccountName(String accountName, Date from, Date to, Integer limit, boolean details);
+
 	/**
 	 * Converts given {@link Account} object to {@link DataPoint} with
 	 * a set of significant statistic metrics.
 	 *
 	 * Compound {@link DataPoint#id} forces to rewrite the object
-	 * for each account within a day.
+	 * for each account within a day. Weekly, monthly and yearly
+	 * rollups are updated with the difference.
+	 *
+	 * The object is written in batches, see {@link DataPointWriter}.
 	 *
 	 * @param accountName
 	 * @param account
 	 */
 	DataPoint save(String accountName, Account account);
 
+	/**
+	 * Same as {@link #save(String, Account)} for several accounts
+	 *
+	 * @param accounts accounts by name
+	 * @return created data points
+	 */
+	List<DataPoint> saveAll(Map<String, Account> accounts);
+
+	/**
+	 * Builds {@link DataPoint} again from the source account snapshot
+	 * of the given one, using the rates of its day. The result is not saved.
+	 *
+	 * @param point data point with source account
+	 * @return recomputed data point with the same id
+	 */
+	DataPoint recompute(DataPoint point);
+
 }
@@ -1,6 +1,9 @@
 package com.piggymetrics.statistics.service;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.piggymetrics.statistics.domain.*;
 import com.piggymetrics.statistics.domain.timeseries.DataPoint;
 import com.piggymetrics.statistics.domain.timeseries.DataPointId;
@@ -10,23 +13,30 @@ import com.piggymetrics.statistics.repository.DataPointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class StatisticsServiceImpl implements StatisticsService {
 
+	private static final String DATE_FIELD = "_id.date";
+
 	private final Logger log = LoggerFactory.getLogger(getClass());
 
 	@Autowired
@@ -35,6 +45,12 @@ public class StatisticsServiceImpl implements StatisticsService {
 	@Autowired
 	private ExchangeRatesService ratesService;
 
+	@Autowired
+	private ExchangeRatesHistoryService historyService;
+
+	@Autowired
+	private DataPointWriter writer;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -44,68 +60,191 @@ public class StatisticsServiceImpl implements StatisticsService {
 		return repository.findByIdAccount(accountName);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DataPoint> findByAccountName(String accountName, Date from, Date to, Integer limit, boolean details) {
+
+		Assert.hasLength(accountName);
+		Assert.isTrue(limit == null || limit > 0, "limit must be positive");
+
+		if (from == null) {
+			from = new Date(0);
+		}
+
+		if (to == null) {
+			to = new Date(Long.MAX_VALUE);
+		}
+
+		Assert.isTrue(!from.after(to), "from must not be after to");
+
+		// the latest points are taken, when limited
+		Pageable pageable = limit == null
+				? PageRequest.of(0, Integer.MAX_VALUE, Sort.Direction.ASC, DATE_FIELD)
+				: PageRequest.of(0, limit, Sort.Direction.DESC, DATE_FIELD);
+
+		List<DataPoint> points = details
+				? repository.findByIdAccountAndDateBetween(accountName, from, to, pageable)
+				: repository.findSummaryByIdAccountAndDateBetween(accountName, from, to, pageable);
+
+		if (limit != null) {
+			points = Lists.reverse(points);
+		}
+
+		return points;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public DataPoint save(String accountName, Account account) {
 
+		DataPoint dataPoint = createDataPoint(getTodayPointId(accountName), account, ratesService.getCurrentConverter());
+
+		log.debug("new datapoint has been created: {}", dataPoint.getId());
+
+		writer.write(dataPoint);
+
+		return dataPoint;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<DataPoint> saveAll(Map<String, Account> accounts) {
+
+		CurrencyConverter converter = ratesService.getCurrentConverter();
+
+		List<DataPoint> points = new ArrayList<>(accounts.size());
+		accounts.forEach((accountName, account) -> points.add(createDataPoint(getTodayPointId(accountName), account, converter)));
+
+		log.debug("{} new datapoints have been created", points.size());
+
+		writer.writeAll(points);
+
+		return points;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DataPoint recompute(DataPoint point) {
+
+		Assert.notNull(point.getSource(), "data point has no source account: " + point.getId());
+
+		LocalDate day = point.getId().getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+
+		Map<Currency, BigDecimal> rates;
+		try {
+			rates = historyService.getRates(day);
+		} catch (IllegalStateException e) {
+			log.debug("no stored rates for {}, using rates of the data point", day);
+			rates = point.getRates();
+		}
+
+		return createDataPoint(point.getId(), point.getSource(), new CurrencyConverter(rates));
+	}
+
+	private DataPointId getTodayPointId(String accountName) {
+
 		Instant instant = LocalDate.now().atStartOfDay()
 				.atZone(ZoneId.systemDefault()).toInstant();
 
-		DataPointId pointId = new DataPointId(accountName, Date.from(instant));
+		return new DataPointId(accountName, Date.from(instant));
+	}
+
+	private DataPoint createDataPoint(DataPointId pointId, Account account, CurrencyConverter converter) {
+
+		Set<ItemMetric> incomes = new HashSet<>(account.getIncomes().size());
+		Set<ItemMetric> expenses = new HashSet<>(account.getExpenses().size());
 
-		Set<ItemMetric> incomes = account.getIncomes().stream()
-				.map(this::createItemMetric)
-				.collect(Collectors.toSet());
+		Money incomesAmount = createItemMetrics(account.getIncomes(), converter, incomes);
+		Money expensesAmount = createItemMetrics(account.getExpenses(), converter, expenses);
 
-		Set<ItemMetric> expenses = account.getExpenses().stream()
-				.map(this::createItemMetric)
-				.collect(Collectors.toSet());
+		Saving saving = account.getSaving();
+		Money savingAmount = converter.convert(Money.of(saving.getAmount(), saving.getCurrency()), Currency.getBase());
 
-		Map<StatisticMetric, BigDecimal> statistics = createStatisticMetrics(incomes, expenses, account.getSaving());
+		Map<StatisticMetric, BigDecimal> statistics = ImmutableMap.of(
+				StatisticMetric.EXPENSES_AMOUNT, expensesAmount.toBigDecimal(),
+				StatisticMetric.INCOMES_AMOUNT, incomesAmount.toBigDecimal(),
+				StatisticMetric.SAVING_AMOUNT, savingAmount.toBigDecimal()
+		);
 
 		DataPoint dataPoint = new DataPoint();
 		dataPoint.setId(pointId);
 		dataPoint.setIncomes(incomes);
 		dataPoint.setExpenses(expenses);
 		dataPoint.setStatistics(statistics);
-		dataPoint.setRates(ratesService.getCurrentRates());
-
-		log.debug("new datapoint has been created: {}", pointId);
+		dataPoint.setRates(converter.getRates());
+		dataPoint.setSource(account);
+		dataPoint.setFingerprint(getFingerprint(dataPoint));
 
-		return repository.save(dataPoint);
+		return dataPoint;
 	}
 
-	private Map<StatisticMetric, BigDecimal> createStatisticMetrics(Set<ItemMetric> incomes, Set<ItemMetric> expenses, Saving saving) {
+	/**
+	 * Hashes normalized items, statistics and rates of the data point,
+	 * regardless of items order and amounts scale
+	 */
+	private String getFingerprint(DataPoint dataPoint) {
 
-		BigDecimal savingAmount = ratesService.convert(saving.getCurrency(), Currency.getBase(), saving.getAmount());
+		Hasher hasher = Hashing.murmur3_128().newHasher();
 
-		BigDecimal expensesAmount = expenses.stream()
-				.map(ItemMetric::getAmount)
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		putItemMetrics(hasher, dataPoint.getIncomes());
+		putItemMetrics(hasher, dataPoint.getExpenses());
 
-		BigDecimal incomesAmount = incomes.stream()
-				.map(ItemMetric::getAmount)
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		for (StatisticMetric metric : StatisticMetric.values()) {
+			putAmount(hasher, dataPoint.getStatistics().get(metric));
+		}
 
-		return ImmutableMap.of(
-				StatisticMetric.EXPENSES_AMOUNT, expensesAmount,
-				StatisticMetric.INCOMES_AMOUNT, incomesAmount,
-				StatisticMetric.SAVING_AMOUNT, savingAmount
-		);
+		for (Currency currency : Currency.values()) {
+			putAmount(hasher, dataPoint.getRates().get(currency));
+		}
+
+		return hasher.hash().toString();
+	}
+
+	private void putItemMetrics(Hasher hasher, Set<ItemMetric> metrics) {
+
+		List<ItemMetric> sorted = new ArrayList<>(metrics);
+		sorted.sort(Comparator.comparing(ItemMetric::getTitle));
+
+		hasher.putInt(sorted.size());
+		for (ItemMetric metric : sorted) {
+			hasher.putString(metric.getTitle(), StandardCharsets.UTF_8);
+			putAmount(hasher, metric.getAmount());
+		}
+	}
+
+	private void putAmount(Hasher hasher, BigDecimal amount) {
+		hasher.putString(amount == null ? "" : amount.stripTrailingZeros().toPlainString(), StandardCharsets.UTF_8);
+		hasher.putChar(';');
 	}
 
 	/**
-	 * Normalizes given item amount to {@link Currency#getBase()} currency with
-	 * {@link TimePeriod#getBase()} time period
+	 * Normalizes given items amounts to {@link Currency#getBase()} currency with
+	 * {@link TimePeriod#getBase()} time period. Items with duplicate titles are skipped.
+	 *
+	 * @param metrics collects normalized items
+	 * @return total amount of the collected items
 	 */
-	private ItemMetric createItemMetric(Item item) {
+	private Money createItemMetrics(List<Item> items, CurrencyConverter converter, Set<ItemMetric> metrics) {
+
+		long total = 0;
+
+		for (Item item : items) {
+			Money amount = converter.convert(Money.of(item.getAmount(), item.getCurrency()),
+					Currency.getBase(), item.getPeriod().getBaseRatioUnits());
 
-		BigDecimal amount = ratesService
-				.convert(item.getCurrency(), Currency.getBase(), item.getAmount())
-				.divide(item.getPeriod().getBaseRatio(), 4, RoundingMode.HALF_UP);
+			if (metrics.add(new ItemMetric(item.getTitle(), amount.toBigDecimal()))) {
+				total = Math.addExact(total, amount.getUnits());
+			}
+		}
 
-		return new ItemMetric(item.getTitle(), amount);
+		return Money.ofUnits(total, Currency.getBase());
 	}
 }
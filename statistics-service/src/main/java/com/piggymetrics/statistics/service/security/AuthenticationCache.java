@@ -0,0 +1,145 @@
+package com.piggymetrics.statistics.service.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of {@link OAuth2Authentication} objects resolved by access token value.
+ *
+ * Entry lives for the configured time to live, or until the token expiration time
+ * reported by auth-service (if any), whichever comes first. Rejected tokens are
+ * remembered for a shorter period, while other resolution errors are propagated
+ * without being cached. Concurrent lookups of the same token wait for a single
+ * resolution instead of calling auth-service each.
+ *
+ * Note, that token revocation becomes visible to the resource server only after
+ * the cached entry expires.
+ */
+public class AuthenticationCache {
+
+	private static final String EXPIRATION_KEY = "exp";
+
+	private final Cache<String, Entry> cache;
+
+	private final long timeToLive;
+
+	private final long negativeTimeToLive;
+
+	/**
+	 * @param maximumSize maximum number of cached tokens
+	 * @param timeToLive time to live of resolved authentication, in milliseconds
+	 * @param negativeTimeToLive time to live of rejected token, in milliseconds
+	 */
+	public AuthenticationCache(long maximumSize, long timeToLive, long negativeTimeToLive) {
+		this.timeToLive = timeToLive;
+		this.negativeTimeToLive = negativeTimeToLive;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(Math.max(timeToLive, negativeTimeToLive), TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * Returns authentication for given access token, invoking the loader
+	 * if there is no live entry in the cache
+	 *
+	 * @param accessToken token value
+	 * @param loader resolves authentication or throws {@link InvalidTokenException}
+	 * @return resolved authentication
+	 * @throws InvalidTokenException if the token has been rejected
+	 * @throws RuntimeException thrown by the loader, other than {@link InvalidTokenException}
+	 */
+	public OAuth2Authentication get(String accessToken, Callable<OAuth2Authentication> loader) throws InvalidTokenException {
+
+		Entry entry = cache.getIfPresent(accessToken);
+
+		if (entry == null || entry.isExpired()) {
+			if (entry != null) {
+				cache.asMap().remove(accessToken, entry);
+			}
+			entry = load(accessToken, loader);
+		}
+
+		if (entry.authentication == null) {
+			throw new InvalidTokenException(accessToken);
+		}
+
+		return entry.authentication;
+	}
+
+	private Entry load(String accessToken, Callable<OAuth2Authentication> loader) {
+		try {
+			return cache.get(accessToken, () -> resolve(loader));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private Entry resolve(Callable<OAuth2Authentication> loader) throws Exception {
+
+		final long now = System.currentTimeMillis();
+
+		OAuth2Authentication authentication;
+		try {
+			authentication = loader.call();
+		} catch (InvalidTokenException e) {
+			return new Entry(null, now + negativeTimeToLive);
+		}
+
+		long expiresAt = now + timeToLive;
+
+		Long tokenExpiresAt = getTokenExpiration(authentication);
+		if (tokenExpiresAt != null) {
+			expiresAt = Math.min(expiresAt, tokenExpiresAt);
+		}
+
+		return new Entry(authentication, expiresAt);
+	}
+
+	/**
+	 * Extracts token expiration time, which auth-service may report
+	 * as {@code exp} (seconds since epoch) within the user info
+	 */
+	private Long getTokenExpiration(OAuth2Authentication authentication) {
+
+		Authentication user = authentication.getUserAuthentication();
+		if (user == null || !(user.getDetails() instanceof Map)) {
+			return null;
+		}
+
+		Object expiration = ((Map<?, ?>) user.getDetails()).get(EXPIRATION_KEY);
+		if (expiration instanceof Number) {
+			return TimeUnit.SECONDS.toMillis(((Number) expiration).longValue());
+		}
+
+		return null;
+	}
+
+	private static class Entry {
+
+		private final OAuth2Authentication authentication;
+
+		private final long expiresAt;
+
+		Entry(OAuth2Authentication authentication, long expiresAt) {
+			this.authentication = authentication;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.piggymetrics.statistics.service.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+
+/**
+ * Thrown when auth-service can't tell whether an access token is valid,
+ * e.g. while it's restarting. Results in {@code 503 temporarily_unavailable}
+ * instead of {@code 401}, and isn't remembered by {@link AuthenticationCache}.
+ */
+public class UserInfoUnavailableException extends OAuth2Exception {
+
+	public UserInfoUnavailableException(String msg, Throwable t) {
+		super(msg, t);
+	}
+
+	@Override
+	public String getOAuth2ErrorCode() {
+		return "temporarily_unavailable";
+	}
+
+	@Override
+	public int getHttpErrorCode() {
+		return HttpStatus.SERVICE_UNAVAILABLE.value();
+	}
+}
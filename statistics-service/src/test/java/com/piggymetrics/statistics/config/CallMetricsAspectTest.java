@@ -0,0 +1,82 @@
+package com.piggymetrics.statistics.config;
+
+import com.piggymetrics.statistics.client.ExchangeRatesClient;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class CallMetricsAspectTest {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final CallMetricsAspect aspect = new CallMetricsAspect();
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(aspect, "registry", registry);
+	}
+
+	@Test
+	public void shouldTimeClientCalls() {
+
+		ExchangeRatesClient client = proxy(ExchangeRatesClient.class, null);
+
+		client.getRates(Currency.USD);
+
+		Timer timer = registry.find("client.calls")
+				.tags("client", "ExchangeRatesClient", "method", "getRates", "exception", "None")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	@Test
+	public void shouldAttributeInheritedRepositoryMethodsToRepository() {
+
+		ExchangeRatesRepository repository = proxy(ExchangeRatesRepository.class, new IllegalStateException());
+
+		try {
+			repository.findById("USD/2018-06-15");
+		} catch (IllegalStateException expected) {
+		}
+
+		Timer timer = registry.find("repository.calls")
+				.tags("repository", "ExchangeRatesRepository", "method", "findById", "exception", "IllegalStateException")
+				.timer();
+
+		assertNotNull(timer);
+		assertEquals(1, timer.count());
+	}
+
+	/**
+	 * Interface proxy, like the ones Feign and Spring Data create,
+	 * advised with the aspect
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, RuntimeException failure) {
+
+		Object target = Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+			if (failure != null) {
+				throw failure;
+			}
+			return null;
+		});
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(aspect);
+
+		return (T) factory.getProxy();
+	}
+}
@@ -0,0 +1,49 @@
+package com.piggymetrics.statistics.controller;
+
+import com.piggymetrics.statistics.service.ExchangeRatesHistoryService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ExchangeRatesControllerTest {
+
+	@InjectMocks
+	private ExchangeRatesController ratesController;
+
+	@Mock
+	private ExchangeRatesHistoryService historyService;
+
+	private MockMvc mockMvc;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		this.mockMvc = MockMvcBuilders.standaloneSetup(ratesController).build();
+	}
+
+	@Test
+	public void shouldBackfillRatesHistory() throws Exception {
+
+		when(historyService.backfill(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 12, 31))).thenReturn(250);
+
+		mockMvc.perform(post("/rates/backfill?from=2018-01-01&to=2018-12-31"))
+				.andExpect(content().string("250"))
+				.andExpect(status().isOk());
+	}
+}
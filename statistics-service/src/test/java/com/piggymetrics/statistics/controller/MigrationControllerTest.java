@@ -0,0 +1,55 @@
+package com.piggymetrics.statistics.controller;
+
+import com.piggymetrics.statistics.repository.converter.DataPointCodec;
+import com.piggymetrics.statistics.service.DataPointMigrationService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class MigrationControllerTest {
+
+	@InjectMocks
+	private MigrationController migrationController;
+
+	@Mock
+	private DataPointMigrationService migrationService;
+
+	private MockMvc mockMvc;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		this.mockMvc = MockMvcBuilders.standaloneSetup(migrationController).build();
+	}
+
+	@Test
+	public void shouldStartMigration() throws Exception {
+
+		when(migrationService.isRunning()).thenReturn(true);
+		when(migrationService.getFormat()).thenReturn(DataPointCodec.Format.COMPACT);
+		when(migrationService.getRemaining()).thenReturn(42L);
+
+		mockMvc.perform(post("/jobs/migrate"))
+				.andExpect(jsonPath("$.format").value("COMPACT"))
+				.andExpect(jsonPath("$.running").value(true))
+				.andExpect(jsonPath("$.remaining").value(42))
+				.andExpect(status().isOk());
+
+		verify(migrationService).start();
+	}
+}
@@ -0,0 +1,67 @@
+package com.piggymetrics.statistics.controller;
+
+import com.piggymetrics.statistics.domain.RecomputeJob;
+import com.piggymetrics.statistics.service.RecomputeService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RecomputeControllerTest {
+
+	@InjectMocks
+	private RecomputeController recomputeController;
+
+	@Mock
+	private RecomputeService recomputeService;
+
+	private MockMvc mockMvc;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		this.mockMvc = MockMvcBuilders.standaloneSetup(recomputeController).build();
+	}
+
+	@Test
+	public void shouldStartRecompute() throws Exception {
+
+		RecomputeJob job = new RecomputeJob();
+		job.setStatus(RecomputeJob.Status.RUNNING);
+
+		when(recomputeService.start()).thenReturn(job);
+
+		mockMvc.perform(post("/jobs/recompute"))
+				.andExpect(jsonPath("$.status").value("RUNNING"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void shouldGetRecomputeState() throws Exception {
+
+		RecomputeJob job = new RecomputeJob();
+		job.setStatus(RecomputeJob.Status.COMPLETED);
+		job.setProcessed(42);
+
+		when(recomputeService.getJob()).thenReturn(job);
+
+		mockMvc.perform(get("/jobs/recompute"))
+				.andExpect(jsonPath("$.status").value("COMPLETED"))
+				.andExpect(jsonPath("$.processed").value(42))
+				.andExpect(status().isOk());
+	}
+}
@@ -9,6 +9,9 @@ import com.piggymetrics.statistics.domain.Saving;
 import com.piggymetrics.statistics.domain.TimePeriod;
 import com.piggymetrics.statistics.domain.timeseries.DataPoint;
 import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+import com.piggymetrics.statistics.service.RollupService;
 import com.piggymetrics.statistics.service.StatisticsService;
 import com.sun.security.auth.UserPrincipal;
 import org.junit.Before;
@@ -27,6 +30,8 @@ import java.util.Date;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -48,12 +53,17 @@ public class StatisticsControllerTest {
 	@Mock
 	private StatisticsService statisticsService;
 
+	@Mock
+	private RollupService rollupService;
+
 	private MockMvc mockMvc;
 
 	@Before
 	public void setup() {
 		initMocks(this);
-		this.mockMvc = MockMvcBuilders.standaloneSetup(statisticsController).build();
+		this.mockMvc = MockMvcBuilders.standaloneSetup(statisticsController)
+				.setControllerAdvice(new ErrorHandler())
+				.build();
 	}
 
 	@Test
@@ -84,6 +94,47 @@ public class StatisticsControllerTest {
 				.andExpect(status().isOk());
 	}
 
+	@Test
+	public void shouldGetCurrentAccountStatisticsWithinRange() throws Exception {
+
+		final DataPoint dataPoint = new DataPoint();
+		dataPoint.setId(new DataPointId("test", new Date()));
+
+		when(statisticsService.findByAccountName(eq("test"), any(Date.class), any(Date.class), eq(30), eq(false)))
+				.thenReturn(ImmutableList.of(dataPoint));
+
+		mockMvc.perform(get("/current?from=2018-01-01&to=2018-12-31&limit=30&details=false").principal(new UserPrincipal("test")))
+				.andExpect(jsonPath("$[0].id.account").value(dataPoint.getId().getAccount()))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void shouldFailToGetStatisticsWithinInvalidRange() throws Exception {
+
+		when(statisticsService.findByAccountName(eq("test"), any(Date.class), any(Date.class), isNull(), eq(true)))
+				.thenThrow(new IllegalArgumentException("from must not be after to"));
+
+		mockMvc.perform(get("/current?from=2018-12-31&to=2018-01-01").principal(new UserPrincipal("test")))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void shouldGetMonthlyRollups() throws Exception {
+
+		final Rollup rollup = new Rollup();
+		rollup.setAccount("test");
+		rollup.setResolution(Resolution.MONTH);
+		rollup.setDate(new Date());
+
+		when(rollupService.findByAccountName(eq("test"), eq(Resolution.MONTH), any(Date.class), isNull(), isNull()))
+				.thenReturn(ImmutableList.of(rollup));
+
+		mockMvc.perform(get("/current?from=2018-01-01&resolution=MONTH").principal(new UserPrincipal("test")))
+				.andExpect(jsonPath("$[0].account").value(rollup.getAccount()))
+				.andExpect(jsonPath("$[0].resolution").value("MONTH"))
+				.andExpect(status().isOk());
+	}
+
 	@Test
 	public void shouldSaveAccountStatistics() throws Exception {
 
@@ -0,0 +1,73 @@
+package com.piggymetrics.statistics.domain;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyTest {
+
+	@Test
+	public void shouldConvertToAndFromBigDecimalExactly() {
+
+		Money money = Money.of(new BigDecimal("1234.5678"), Currency.EUR);
+
+		assertEquals(12345678L, money.getUnits());
+		assertEquals(new BigDecimal("1234.5678"), money.toBigDecimal());
+		assertEquals(Money.of(new BigDecimal("1234.56780"), Currency.EUR), money);
+	}
+
+	@Test
+	public void shouldRoundHalfUpAmountsWithMoreDigits() {
+		assertEquals(12346L, Money.of(new BigDecimal("1.23455"), Currency.USD).getUnits());
+		assertEquals(-12346L, Money.of(new BigDecimal("-1.23455"), Currency.USD).getUnits());
+	}
+
+	@Test
+	public void shouldMultiplyAndDivideSameAsBigDecimal() {
+
+		long[] values = {0, 1, 5, 9_100_0000L, -3_400_0000L, 123_456_789L, 100_000_000_000_000L};
+		long[] numerators = {1, 125, 12_500, 10_000, 599_990};
+		long[] denominators = {10_000, 416, 304_368, 3_652_425, -7};
+
+		for (long value : values) {
+			for (long numerator : numerators) {
+				for (long denominator : denominators) {
+
+					long expected = BigDecimal.valueOf(value)
+							.multiply(BigDecimal.valueOf(numerator))
+							.divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP)
+							.longValueExact();
+
+					assertEquals(value + " * " + numerator + " / " + denominator,
+							expected, Money.mulDiv(value, numerator, denominator));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void shouldRoundHalfAwayFromZero() {
+		assertEquals(3, Money.mulDiv(5, 1, 2));
+		assertEquals(-3, Money.mulDiv(-5, 1, 2));
+		assertEquals(2, Money.mulDiv(7, 1, 4));
+	}
+
+	@Test
+	public void shouldAddAmounts() {
+		Money sum = Money.ofUnits(15_000, Currency.USD).plus(Money.ofUnits(2_500, Currency.USD));
+		assertEquals(new BigDecimal("1.7500"), sum.toBigDecimal());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToAddAmountsInDifferentCurrencies() {
+		Money.zero(Currency.USD).plus(Money.zero(Currency.EUR));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void shouldFailWhenAmountIsOutOfRange() {
+		Money.of(new BigDecimal("1e20"), Currency.USD);
+	}
+}
@@ -10,13 +10,17 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 @RunWith(SpringRunner.class)
 @DataMongoTest
@@ -84,4 +88,25 @@ public class DataPointRepositoryTest {
 		assertEquals(1, points.size());
 		assertEquals(lateAmount, points.get(0).getStatistics().get(StatisticMetric.SAVING_AMOUNT));
 	}
+
+	@Test
+	public void shouldFindDataPointsWithinRangeWithoutDetails() {
+
+		for (int day = 0; day < 5; day++) {
+			DataPoint point = new DataPoint();
+			point.setId(new DataPointId("test-account", new Date(TimeUnit.DAYS.toMillis(day))));
+			point.setIncomes(Sets.newHashSet(new ItemMetric("salary", new BigDecimal(20_000))));
+			point.setStatistics(ImmutableMap.of(StatisticMetric.INCOMES_AMOUNT, new BigDecimal(20_000)));
+			repository.save(point);
+		}
+
+		List<DataPoint> points = repository.findSummaryByIdAccountAndDateBetween("test-account",
+				new Date(TimeUnit.DAYS.toMillis(1)), new Date(TimeUnit.DAYS.toMillis(3)),
+				PageRequest.of(0, 10, Sort.Direction.ASC, "_id.date"));
+
+		assertEquals(3, points.size());
+		assertEquals(new Date(TimeUnit.DAYS.toMillis(1)), points.get(0).getId().getDate());
+		assertEquals(1, points.get(0).getStatistics().size());
+		assertNull(points.get(0).getIncomes());
+	}
 }
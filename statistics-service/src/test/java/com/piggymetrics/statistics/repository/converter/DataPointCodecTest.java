@@ -0,0 +1,180 @@
+package com.piggymetrics.statistics.repository.converter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.TimePeriod;
+import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class DataPointCodecTest {
+
+	@InjectMocks
+	private DataPointCodec codec;
+
+	@Mock
+	private TitleDictionaryStore dictionary;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(codec, "format", DataPointCodec.Format.COMPACT);
+
+		when(dictionary.getIndexes(eq("test"), any())).thenReturn(ImmutableMap.of("Salary", 0, "Grocery", 1));
+		when(dictionary.getTitle("test", 0)).thenReturn("Salary");
+		when(dictionary.getTitle("test", 1)).thenReturn("Grocery");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldEncodeDataPointCompactly() {
+
+		Document document = getLegacyDocument();
+
+		codec.toStorageFormat(document);
+
+		assertTrue(DataPointCodec.isCompact(document));
+		assertNull(document.get("incomes"));
+		assertNull(document.get("_class"));
+
+		assertEquals(ImmutableList.of(0), document.get("it"));
+		assertEquals(ImmutableList.of(2989802L), document.get("ia"));
+		assertEquals(ImmutableList.of(1), document.get("et"));
+		assertEquals(ImmutableList.of(62500L), document.get("ea"));
+		assertEquals(80_00000000L, ((List<Long>) document.get("r")).get(Currency.RUB.ordinal()).longValue());
+		assertEquals("fingerprint", document.get("f"));
+
+		Document source = (Document) document.get("src");
+		assertEquals(ImmutableList.of(0, 0), source.get("it"));
+		assertEquals(ImmutableList.of(90_000_000L, 12_345L), source.get("ia"));
+		assertEquals(ImmutableList.of(Currency.RUB.ordinal(), Currency.USD.ordinal()), source.get("ic"));
+		assertEquals(ImmutableList.of(TimePeriod.MONTH.ordinal(), TimePeriod.DAY.ordinal()), source.get("ip"));
+		assertEquals(ImmutableList.of(1), source.get("et"));
+		assertEquals(5_000_000L, ((Document) source.get("s")).get("a"));
+		assertEquals(true, ((Document) source.get("s")).get("d"));
+	}
+
+	@Test
+	public void shouldEncodeDataPointSmallerThanLegacyOne() {
+
+		Document document = getLegacyDocument();
+		int legacySize = getBsonSize(document);
+		int legacySourceSize = getBsonSize((Document) document.get("source"));
+
+		codec.encode(document);
+
+		assertTrue(getBsonSize(document) < legacySize * 2 / 3);
+		assertTrue(getBsonSize((Document) document.get("src")) < legacySourceSize * 2 / 3);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldDecodeCompactDataPoint() {
+
+		Document document = getLegacyDocument();
+		codec.encode(document);
+		codec.decode(document);
+
+		assertFalse(DataPointCodec.isCompact(document));
+
+		Document salary = ((List<Document>) document.get("incomes")).get(0);
+		assertEquals("Salary", salary.get("title"));
+		assertEquals("298.9802", salary.get("amount"));
+
+		Document grocery = ((List<Document>) document.get("expenses")).get(0);
+		assertEquals("Grocery", grocery.get("title"));
+		assertEquals("6.25", grocery.get("amount"));
+
+		assertEquals("298.9802", ((Document) document.get("statistics")).get(StatisticMetric.INCOMES_AMOUNT.name()));
+		assertNull(((Document) document.get("statistics")).get(StatisticMetric.SAVING_AMOUNT.name()));
+		assertEquals("0.8", ((Document) document.get("rates")).get("EUR"));
+		assertEquals("fingerprint", document.get("fingerprint"));
+
+		Document source = (Document) document.get("source");
+		assertEquals(new Document("title", "Salary").append("amount", "9000").append("currency", "RUB").append("period", "MONTH"),
+				((List<Document>) source.get("incomes")).get(0));
+		assertEquals(new Document("title", "Salary").append("amount", "1.2345").append("currency", "USD").append("period", "DAY"),
+				((List<Document>) source.get("incomes")).get(1));
+		assertEquals(new Document("title", "Grocery").append("amount", "10").append("currency", "EUR").append("period", "DAY"),
+				((List<Document>) source.get("expenses")).get(0));
+		assertEquals(new Document("amount", "500").append("currency", "USD").append("interest", "3.5")
+				.append("deposit", true).append("capitalization", false), source.get("saving"));
+	}
+
+	@Test
+	public void shouldLeaveLegacyDataPointAsIs() {
+
+		ReflectionTestUtils.setField(codec, "format", DataPointCodec.Format.LEGACY);
+
+		Document document = getLegacyDocument();
+		codec.toStorageFormat(document);
+		codec.decode(document);
+
+		assertEquals(getLegacyDocument(), document);
+		verify(dictionary, never()).getTitle(any(), anyInt());
+	}
+
+	@Test
+	public void shouldDecodeProjectedCompactDataPoint() {
+
+		Document document = getLegacyDocument();
+		codec.encode(document);
+
+		Arrays.asList("it", "ia", "et", "ea", "src", "f").forEach(document::remove);
+		codec.decode(document);
+
+		assertNull(document.get("incomes"));
+		assertNull(document.get("source"));
+		assertEquals("0.8", ((Document) document.get("rates")).get("EUR"));
+		verify(dictionary, never()).getTitle(any(), anyInt());
+	}
+
+	private Document getLegacyDocument() {
+		return new Document("_id", new Document("date", new Date(0)).append("account", "test"))
+				.append("_class", "com.piggymetrics.statistics.domain.timeseries.DataPoint")
+				.append("incomes", ImmutableList.of(new Document("title", "Salary").append("amount", "298.9802")))
+				.append("expenses", ImmutableList.of(new Document("title", "Grocery").append("amount", "6.2500")))
+				.append("statistics", new Document(StatisticMetric.INCOMES_AMOUNT.name(), "298.9802")
+						.append(StatisticMetric.EXPENSES_AMOUNT.name(), "6.25"))
+				.append("rates", new Document("EUR", "0.8").append("RUB", "80").append("USD", "1"))
+				.append("source", getLegacySource())
+				.append("fingerprint", "fingerprint");
+	}
+
+	private Document getLegacySource() {
+		return new Document("incomes", ImmutableList.of(
+						new Document("title", "Salary").append("amount", "9000.00").append("currency", "RUB").append("period", "MONTH"),
+						new Document("title", "Salary").append("amount", "1.2345").append("currency", "USD").append("period", "DAY")))
+				.append("expenses", ImmutableList.of(
+						new Document("title", "Grocery").append("amount", "10").append("currency", "EUR").append("period", "DAY")))
+				.append("saving", new Document("amount", "500").append("currency", "USD").append("interest", "3.5")
+						.append("deposit", true).append("capitalization", false));
+	}
+
+	private int getBsonSize(Document document) {
+		return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+	}
+}
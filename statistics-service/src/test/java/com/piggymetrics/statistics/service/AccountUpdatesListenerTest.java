@@ -0,0 +1,179 @@
+package com.piggymetrics.statistics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piggymetrics.statistics.domain.Account;
+import com.piggymetrics.statistics.domain.Saving;
+import com.rabbitmq.client.Channel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class AccountUpdatesListenerTest {
+
+	@InjectMocks
+	private AccountUpdatesListener listener;
+
+	@Mock
+	private StatisticsService statisticsService;
+
+	@Mock
+	private Channel channel;
+
+	@Spy
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private long deliveryTag;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+	}
+
+	@Test
+	public void shouldSaveOnlyLatestUpdateOfAccountAndAcknowledgeAll() throws Exception {
+
+		listener.onAccountUpdate(message("test", 1), channel);
+		listener.onAccountUpdate(message("test", 2), channel);
+		listener.onAccountUpdate(message("another", 3), channel);
+
+		verify(statisticsService, never()).saveAll(anyMap());
+		verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+		listener.flush();
+
+		verify(statisticsService, times(1)).saveAll(argThat(accounts -> accounts.size() == 2
+				&& amount(accounts.get("test")) == 2 && amount(accounts.get("another")) == 3));
+		verify(channel).basicAck(1, false);
+		verify(channel).basicAck(2, false);
+		verify(channel).basicAck(3, false);
+
+		listener.flush();
+
+		verify(statisticsService, times(1)).saveAll(anyMap());
+	}
+
+	@Test
+	public void shouldNotAcknowledgeUntilSavedWhenDatabaseIsNotAvailable() throws Exception {
+
+		when(statisticsService.saveAll(anyMap()))
+				.thenThrow(new DataAccessResourceFailureException("unavailable"))
+				.thenReturn(null);
+
+		listener.onAccountUpdate(message("test", 1), channel);
+		listener.flush();
+
+		verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+		listener.flush();
+		listener.flush();
+
+		verify(statisticsService, times(2)).saveAll(anyMap());
+		verify(channel, times(1)).basicAck(1, false);
+	}
+
+	@Test
+	public void shouldRetryWhenExchangeRatesAreNotObtainedYet() throws Exception {
+
+		when(statisticsService.saveAll(anyMap()))
+				.thenThrow(new ExchangeRatesNotAvailableException("not yet"))
+				.thenReturn(null);
+
+		listener.onAccountUpdate(message("test", 1), channel);
+		listener.flush();
+		listener.flush();
+
+		verify(statisticsService, times(2)).saveAll(anyMap());
+		verify(statisticsService, never()).save(any(), any());
+		verify(channel, times(1)).basicAck(1, false);
+		verify(channel, never()).basicReject(anyLong(), anyBoolean());
+	}
+
+	@Test
+	public void shouldKeepNewerUpdateWhenRetrying() throws Exception {
+
+		when(statisticsService.saveAll(anyMap()))
+				.thenThrow(new DataAccessResourceFailureException("unavailable"))
+				.thenReturn(null);
+
+		listener.onAccountUpdate(message("test", 1), channel);
+		listener.flush();
+		listener.onAccountUpdate(message("test", 2), channel);
+		listener.flush();
+
+		verify(statisticsService, times(1)).saveAll(argThat(accounts -> amount(accounts.get("test")) == 2));
+		verify(channel).basicAck(1, false);
+		verify(channel).basicAck(2, false);
+	}
+
+	@Test
+	public void shouldRejectInvalidUpdate() throws Exception {
+
+		when(statisticsService.saveAll(anyMap())).thenThrow(new NullPointerException());
+		when(statisticsService.save(eq("invalid"), any())).thenThrow(new NullPointerException());
+
+		listener.onAccountUpdate(message("invalid", 1), channel);
+		listener.onAccountUpdate(message("valid", 2), channel);
+		listener.flush();
+		listener.flush();
+
+		verify(statisticsService, times(1)).saveAll(anyMap());
+		verify(statisticsService, times(1)).save(eq("invalid"), any());
+		verify(statisticsService, times(1)).save(eq("valid"), any());
+		verify(channel).basicReject(1, false);
+		verify(channel).basicAck(2, false);
+	}
+
+	@Test
+	public void shouldRejectUnreadableMessage() throws Exception {
+
+		MessageProperties properties = new MessageProperties();
+		properties.setDeliveryTag(1);
+		properties.setHeader(AccountUpdatesListener.ACCOUNT_NAME_HEADER, "test");
+
+		listener.onAccountUpdate(new Message("{".getBytes(), properties), channel);
+		listener.flush();
+
+		verify(channel).basicReject(eq(1L), eq(false));
+		verify(statisticsService, never()).saveAll(anyMap());
+	}
+
+	private Message message(String accountName, long amount) throws Exception {
+		MessageProperties properties = new MessageProperties();
+		properties.setDeliveryTag(++deliveryTag);
+		properties.setHeader(AccountUpdatesListener.ACCOUNT_NAME_HEADER, accountName);
+		return new Message(mapper.writeValueAsBytes(account(amount)), properties);
+	}
+
+	/**
+	 * @return account, which saving amount tells one update from another
+	 */
+	private Account account(long amount) {
+		Account account = new Account();
+		account.setSaving(new Saving());
+		account.getSaving().setAmount(BigDecimal.valueOf(amount));
+		return account;
+	}
+
+	private long amount(Account account) {
+		return account.getSaving().getAmount().longValue();
+	}
+}
@@ -0,0 +1,214 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.ImmutableList;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.repository.DataPointRepository;
+import com.piggymetrics.statistics.repository.converter.DataPointCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class DataPointWriterTest {
+
+	@InjectMocks
+	private DataPointWriter writer;
+
+	@Mock
+	private DataPointRepository repository;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private RollupService rollupService;
+
+	@Mock
+	private DataPointCodec codec;
+
+	@Mock
+	private BulkOperations operations;
+
+	@Spy
+	private MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(writer, "mode", DataPointWriter.AckMode.ACK_BEFORE_FLUSH);
+		ReflectionTestUtils.setField(writer, "batchSize", 100);
+		writer.init();
+
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DataPoint.class)).thenReturn(operations);
+		when(mongoTemplate.getConverter()).thenReturn(mock(MongoConverter.class));
+		when(repository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+	}
+
+	@Test
+	public void shouldWriteOnlyLatestStateOfDataPointWithinBatch() {
+
+		DataPointId id = new DataPointId("test", new Date(0));
+		DataPoint first = getDataPoint(id);
+		DataPoint latest = getDataPoint(id);
+		DataPoint previous = getDataPoint(id);
+
+		when(repository.findAllById(anyIterable())).thenReturn(ImmutableList.of(previous));
+
+		writer.write(first);
+		writer.write(latest);
+
+		verify(operations, never()).execute();
+
+		writer.flush();
+
+		verify(operations, times(1)).upsert(any(Query.class), any(Update.class));
+		verify(operations, times(1)).execute();
+		verify(rollupService, times(1)).updateAll(ImmutableList.of(latest));
+
+		assertEquals(1, registry.summary("statistics.datapoints.flush.size").count());
+		assertEquals(1, registry.summary("statistics.datapoints.flush.size").totalAmount(), 0);
+	}
+
+	@Test
+	public void shouldFlushWhenBatchIsFull() {
+
+		ReflectionTestUtils.setField(writer, "batchSize", 2);
+
+		DataPoint first = getDataPoint(new DataPointId("first", new Date(0)));
+		DataPoint second = getDataPoint(new DataPointId("second", new Date(0)));
+
+		writer.write(first);
+		verify(operations, never()).execute();
+
+		writer.write(second);
+		verify(operations, times(2)).upsert(any(Query.class), any(Update.class));
+		verify(operations, times(1)).execute();
+		verify(rollupService, times(1)).updateAll(ImmutableList.of(first, second));
+	}
+
+	@Test
+	public void shouldNotRewriteDataPointWithSameFingerprint() {
+
+		DataPoint unchanged = getDataPoint(new DataPointId("unchanged", new Date(0)));
+		unchanged.setFingerprint("same");
+
+		DataPoint stored = getDataPoint(unchanged.getId());
+		stored.setFingerprint("same");
+
+		DataPoint changed = getDataPoint(new DataPointId("changed", new Date(0)));
+		changed.setFingerprint("new");
+
+		DataPoint outdated = getDataPoint(changed.getId());
+		outdated.setFingerprint("old");
+
+		when(repository.findAllById(anyIterable())).thenReturn(ImmutableList.of(stored, outdated));
+
+		writer.write(unchanged);
+		writer.write(changed);
+		writer.flush();
+
+		verify(operations, times(1)).upsert(any(Query.class), any(Update.class));
+		verify(rollupService, times(1)).updateAll(ImmutableList.of(changed));
+		assertEquals(1, registry.counter("statistics.datapoints.unchanged").count(), 0);
+	}
+
+	@Test
+	public void shouldRetryFailedBatchWhenAcknowledgedBeforeFlush() {
+
+		when(operations.execute())
+				.thenThrow(new DataAccessResourceFailureException("unavailable"))
+				.thenReturn(null);
+
+		writer.write(getDataPoint(new DataPointId("test", new Date(0))));
+		writer.flush();
+		writer.flush();
+		writer.flush();
+
+		verify(operations, times(2)).execute();
+		assertEquals(1, registry.counter("statistics.datapoints.flush.failures").count(), 0);
+	}
+
+	@Test
+	public void shouldUpdateRollupsOfRetriedDataPointWhenRollupWriteFailed() {
+
+		DataPoint point = getDataPoint(new DataPointId("test", new Date(0)));
+		point.setFingerprint("new");
+
+		// the data point is found with its fingerprint once it has been upserted
+		AtomicBoolean upserted = new AtomicBoolean();
+		when(operations.execute()).then(i -> {
+			upserted.set(true);
+			return null;
+		});
+		when(repository.findAllById(anyIterable())).then(i -> upserted.get()
+				? ImmutableList.of(point) : Collections.emptyList());
+
+		doThrow(new DataAccessResourceFailureException("unavailable"))
+				.doNothing()
+				.when(rollupService).updateAll(anyList());
+
+		writer.write(point);
+		writer.flush();
+		writer.flush();
+
+		verify(rollupService, times(2)).updateAll(ImmutableList.of(point));
+		verify(operations, times(1)).execute();
+		assertEquals(0, registry.counter("statistics.datapoints.unchanged").count(), 0);
+	}
+
+	@Test(timeout = 5000)
+	public void shouldWriteWithoutWaitingForPeriodicFlushWhenAcknowledgedAfterFlush() {
+
+		ReflectionTestUtils.setField(writer, "mode", DataPointWriter.AckMode.ACK_AFTER_FLUSH);
+
+		DataPoint point = getDataPoint(new DataPointId("test", new Date(0)));
+		writer.write(point);
+
+		verify(operations, times(1)).execute();
+		verify(rollupService, times(1)).updateAll(ImmutableList.of(point));
+	}
+
+	@Test(expected = DataAccessResourceFailureException.class)
+	public void shouldFailWriteWhenAcknowledgedAfterFlush() {
+
+		ReflectionTestUtils.setField(writer, "mode", DataPointWriter.AckMode.ACK_AFTER_FLUSH);
+		ReflectionTestUtils.setField(writer, "batchSize", 1);
+
+		when(operations.execute()).thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+		writer.write(getDataPoint(new DataPointId("test", new Date(0))));
+	}
+
+	private DataPoint getDataPoint(DataPointId id) {
+		DataPoint point = new DataPoint();
+		point.setId(id);
+		return point;
+	}
+}
@@ -0,0 +1,127 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.client.ExchangeRatesClient;
+import com.piggymetrics.statistics.domain.Currency;
+import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.domain.ExchangeRatesHistoryContainer;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ExchangeRatesHistoryServiceImplTest {
+
+	@InjectMocks
+	private ExchangeRatesHistoryServiceImpl historyService;
+
+	@Mock
+	private ExchangeRatesClient client;
+
+	@Mock
+	private ExchangeRatesRepository repository;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(historyService, "cacheSize", 100L);
+		historyService.init();
+	}
+
+	@Test
+	public void shouldReadPastRatesFromStoreOnlyOnce() {
+
+		LocalDate date = LocalDate.of(2018, 6, 15);
+		when(repository.findFirstByBaseAndDateLessThanEqualOrderByDateDesc(Currency.getBase(), date))
+				.thenReturn(getStubContainer(date));
+
+		Map<Currency, BigDecimal> first = historyService.getRates(date);
+		Map<Currency, BigDecimal> second = historyService.getRates(date);
+
+		assertEquals(new BigDecimal("0.8"), first.get(Currency.EUR));
+		assertEquals(BigDecimal.ONE, first.get(Currency.USD));
+		assertEquals(first, second);
+
+		verify(repository, times(1)).findFirstByBaseAndDateLessThanEqualOrderByDateDesc(Currency.getBase(), date);
+		verify(client, never()).getRates(any(Currency.class));
+		verify(client, never()).getHistory(anyString(), anyString(), any(Currency.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailWhenThereAreNoStoredRates() {
+		historyService.getRates(LocalDate.of(2018, 6, 15));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldBackfillCompleteDaysInChunks() {
+
+		ExchangeRatesHistoryContainer history = new ExchangeRatesHistoryContainer();
+		history.setBase(Currency.getBase());
+		history.setRates(ImmutableMap.of(
+				"2018-01-02", ImmutableMap.of(Currency.EUR.name(), new BigDecimal("0.83"), Currency.RUB.name(), new BigDecimal("57.6")),
+				"2018-01-03", ImmutableMap.of(Currency.EUR.name(), new BigDecimal("0.83"))
+		));
+
+		when(client.getHistory(anyString(), anyString(), eq(Currency.getBase()))).thenReturn(history);
+
+		int stored = historyService.backfill(LocalDate.of(2018, 1, 1), LocalDate.of(2019, 1, 1));
+
+		// 2018-01-01 - 2018-12-31 and 2019-01-01 - 2019-01-01
+		verify(client, times(1)).getHistory("2018-01-01", "2018-12-31", Currency.getBase());
+		verify(client, times(1)).getHistory("2019-01-01", "2019-01-01", Currency.getBase());
+
+		ArgumentCaptor<List> saved = ArgumentCaptor.forClass(List.class);
+		verify(repository, times(2)).saveAll(saved.capture());
+
+		assertEquals(2, stored);
+
+		ExchangeRatesContainer container = (ExchangeRatesContainer) saved.getValue().get(0);
+		assertEquals(LocalDate.of(2018, 1, 2), container.getDate());
+		assertEquals("USD/2018-01-02", container.getId());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailToBackfillWhenProviderIsUnavailable() {
+
+		ExchangeRatesHistoryContainer fallback = new ExchangeRatesHistoryContainer();
+		fallback.setBase(Currency.getBase());
+		fallback.setRates(Collections.emptyMap());
+
+		when(client.getHistory(anyString(), anyString(), eq(Currency.getBase()))).thenReturn(fallback);
+
+		historyService.backfill(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 2, 1));
+	}
+
+	private ExchangeRatesContainer getStubContainer(LocalDate date) {
+
+		ExchangeRatesContainer container = new ExchangeRatesContainer();
+		container.setDate(date);
+		container.setBase(Currency.getBase());
+		container.setRates(ImmutableMap.of(
+				Currency.EUR.name(), new BigDecimal("0.8"),
+				Currency.RUB.name(), new BigDecimal("80")
+		));
+
+		return container;
+	}
+}
@@ -1,16 +1,22 @@
 package com.piggymetrics.statistics.service;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.piggymetrics.statistics.client.ExchangeRatesClient;
 import com.piggymetrics.statistics.domain.Currency;
 import com.piggymetrics.statistics.domain.ExchangeRatesContainer;
+import com.piggymetrics.statistics.repository.ExchangeRatesRepository;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -25,6 +31,9 @@ public class ExchangeRatesServiceImplTest {
 	@Mock
 	private ExchangeRatesClient client;
 
+	@Mock
+	private ExchangeRatesRepository repository;
+
 	@Before
 	public void setup() {
 		initMocks(this);
@@ -33,16 +42,15 @@ public class ExchangeRatesServiceImplTest {
 	@Test
 	public void shouldReturnCurrentRatesWhenContainerIsEmptySoFar() {
 
-		ExchangeRatesContainer container = new ExchangeRatesContainer();
-		container.setRates(ImmutableMap.of(
-				Currency.EUR.name(), new BigDecimal("0.8"),
-				Currency.RUB.name(), new BigDecimal("80")
-		));
+		ExchangeRatesContainer container = getStubContainer(LocalDate.now());
 
 		when(client.getRates(Currency.getBase())).thenReturn(container);
 
+		ratesService.refresh();
+
 		Map<Currency, BigDecimal> result = ratesService.getCurrentRates();
 		verify(client, times(1)).getRates(Currency.getBase());
+		verify(repository, times(1)).save(container);
 
 		assertEquals(container.getRates().get(Currency.EUR.name()), result.get(Currency.EUR));
 		assertEquals(container.getRates().get(Currency.RUB.name()), result.get(Currency.RUB));
@@ -52,34 +60,63 @@ public class ExchangeRatesServiceImplTest {
 	@Test
 	public void shouldNotRequestRatesWhenTodaysContainerAlreadyExists() {
 
-		ExchangeRatesContainer container = new ExchangeRatesContainer();
-		container.setRates(ImmutableMap.of(
-				Currency.EUR.name(), new BigDecimal("0.8"),
-				Currency.RUB.name(), new BigDecimal("80")
-		));
+		ExchangeRatesContainer container = getStubContainer(LocalDate.now());
 
 		when(client.getRates(Currency.getBase())).thenReturn(container);
 
 		// initialize container
-		ratesService.getCurrentRates();
+		ratesService.refresh();
 
 		// use existing container
+		ratesService.refresh();
 		ratesService.getCurrentRates();
 
 		verify(client, times(1)).getRates(Currency.getBase());
 	}
 
+	@Test
+	public void shouldRestorePersistedRatesWithoutRequestingProvider() {
+
+		ExchangeRatesContainer persisted = getStubContainer(LocalDate.now());
+		when(repository.findFirstByBaseOrderByDateDesc(Currency.getBase())).thenReturn(persisted);
+
+		ratesService.refresh();
+
+		assertEquals(persisted.getRates().get(Currency.EUR.name()), ratesService.getCurrentRates().get(Currency.EUR));
+		verify(client, never()).getRates(any(Currency.class));
+	}
+
+	@Test
+	public void shouldKeepPreviousRatesWhenProviderFails() {
+
+		ExchangeRatesContainer persisted = getStubContainer(LocalDate.now().minusDays(1));
+		when(repository.findFirstByBaseOrderByDateDesc(Currency.getBase())).thenReturn(persisted);
+
+		ExchangeRatesContainer fallback = new ExchangeRatesContainer();
+		fallback.setBase(Currency.getBase());
+		fallback.setRates(Collections.emptyMap());
+		when(client.getRates(Currency.getBase())).thenReturn(fallback);
+
+		ratesService.refresh();
+
+		assertEquals(persisted.getRates().get(Currency.RUB.name()), ratesService.getCurrentRates().get(Currency.RUB));
+		verify(repository, never()).save(any(ExchangeRatesContainer.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailToReturnRatesWhenTheyHaveNotBeenObtainedYet() {
+		ratesService.getCurrentRates();
+	}
+
 	@Test
 	public void shouldConvertCurrency() {
 
-		ExchangeRatesContainer container = new ExchangeRatesContainer();
-		container.setRates(ImmutableMap.of(
-				Currency.EUR.name(), new BigDecimal("0.8"),
-				Currency.RUB.name(), new BigDecimal("80")
-		));
+		ExchangeRatesContainer container = getStubContainer(LocalDate.now());
 
 		when(client.getRates(Currency.getBase())).thenReturn(container);
 
+		ratesService.refresh();
+
 		final BigDecimal amount = new BigDecimal(100);
 		final BigDecimal expectedConvertionResult = new BigDecimal("1.25");
 
@@ -88,8 +125,38 @@ public class ExchangeRatesServiceImplTest {
 		assertTrue(expectedConvertionResult.compareTo(result) == 0);
 	}
 
+	@Test
+	public void shouldConvertAllItemsWithSameRates() {
+
+		when(client.getRates(Currency.getBase())).thenReturn(getStubContainer(LocalDate.now()));
+
+		ratesService.refresh();
+
+		List<BigDecimal> result = ratesService.convertAll(
+				ImmutableList.of(Currency.RUB, Currency.EUR, Currency.USD),
+				Function.identity(), currency -> new BigDecimal(100), Currency.USD);
+
+		assertEquals(3, result.size());
+		assertTrue(new BigDecimal("1.25").compareTo(result.get(0)) == 0);
+		assertTrue(new BigDecimal("125").compareTo(result.get(1)) == 0);
+		assertTrue(new BigDecimal("100").compareTo(result.get(2)) == 0);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void shouldFailToConvertWhenAmountIsNull() {
 		ratesService.convert(Currency.EUR, Currency.RUB, null);
 	}
-}
\ No newline at end of file
+
+	private ExchangeRatesContainer getStubContainer(LocalDate date) {
+
+		ExchangeRatesContainer container = new ExchangeRatesContainer();
+		container.setDate(date);
+		container.setBase(Currency.getBase());
+		container.setRates(ImmutableMap.of(
+				Currency.EUR.name(), new BigDecimal("0.8"),
+				Currency.RUB.name(), new BigDecimal("80")
+		));
+
+		return container;
+	}
+}
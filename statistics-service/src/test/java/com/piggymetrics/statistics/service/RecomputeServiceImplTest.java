@@ -0,0 +1,187 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.ImmutableList;
+import com.piggymetrics.statistics.domain.Account;
+import com.piggymetrics.statistics.domain.RecomputeJob;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.repository.RecomputeJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RecomputeServiceImplTest {
+
+	@InjectMocks
+	private RecomputeServiceImpl recomputeService;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Mock
+	private RecomputeJobRepository jobRepository;
+
+	@Mock
+	private StatisticsService statisticsService;
+
+	@Mock
+	private DataPointWriter writer;
+
+	@Spy
+	private MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Before
+	public void setup() {
+		initMocks(this);
+		ReflectionTestUtils.setField(recomputeService, "batchSize", 2);
+		ReflectionTestUtils.setField(recomputeService, "parallelism", 2);
+		recomputeService.init();
+
+		when(statisticsService.recompute(any(DataPoint.class))).then(i -> {
+			DataPoint recomputed = new DataPoint();
+			recomputed.setId(((DataPoint) i.getArgument(0)).getId());
+			return recomputed;
+		});
+	}
+
+	@After
+	public void destroy() {
+		recomputeService.destroy();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldRecomputeDataPointsWithSourceInBulk() {
+
+		DataPoint first = getDataPoint("first", true);
+		DataPoint withoutSource = getDataPoint("without-source", false);
+		DataPoint last = getDataPoint("last", true);
+
+		stream(first, withoutSource, last);
+
+		RecomputeJob job = new RecomputeJob();
+		job.setId(RecomputeServiceImpl.JOB_ID);
+
+		recomputeService.run(job);
+
+		verify(statisticsService, times(2)).recompute(any(DataPoint.class));
+
+		ArgumentCaptor<List> current = ArgumentCaptor.forClass(List.class);
+		verify(writer, times(2)).bulkWrite(current.capture());
+
+		// batches are written in parallel, so in any order
+		List<DataPointId> written = new ArrayList<>();
+		current.getAllValues().forEach(points -> {
+			assertEquals(1, points.size());
+			written.add(((DataPoint) points.get(0)).getId());
+		});
+		assertTrue(written.contains(first.getId()));
+		assertTrue(written.contains(last.getId()));
+
+		assertEquals(RecomputeJob.Status.COMPLETED, job.getStatus());
+		assertEquals(last.getId(), job.getCheckpoint());
+		assertEquals(2, job.getProcessed());
+		assertEquals(1, job.getSkipped());
+		assertNull(job.getError());
+
+		assertEquals(2, registry.counter("statistics.recompute.points", "result", "recomputed").count(), 0);
+		assertEquals(1, registry.counter("statistics.recompute.points", "result", "skipped").count(), 0);
+	}
+
+	@Test
+	public void shouldResumeFromCheckpoint() {
+
+		DataPointId checkpoint = new DataPointId("checkpoint", new Date());
+
+		RecomputeJob job = new RecomputeJob();
+		job.setId(RecomputeServiceImpl.JOB_ID);
+		job.setCheckpoint(checkpoint);
+
+		stream();
+		recomputeService.run(job);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).stream(query.capture(), eq(DataPoint.class));
+
+		assertEquals(checkpoint, ((org.bson.Document) query.getValue().getQueryObject().get("_id")).get("$gt"));
+		assertEquals(checkpoint, job.getCheckpoint());
+		assertEquals(RecomputeJob.Status.COMPLETED, job.getStatus());
+	}
+
+	@Test
+	public void shouldNotAdvanceCheckpointPastFailedBatch() {
+
+		DataPoint first = getDataPoint("first", true);
+		DataPoint second = getDataPoint("second", true);
+
+		stream(first, second);
+		doThrow(new IllegalStateException("bulk write failed")).when(writer).bulkWrite(anyList());
+
+		RecomputeJob job = new RecomputeJob();
+		job.setId(RecomputeServiceImpl.JOB_ID);
+
+		recomputeService.run(job);
+
+		assertEquals(RecomputeJob.Status.FAILED, job.getStatus());
+		assertNull(job.getCheckpoint());
+		assertEquals(0, job.getProcessed());
+	}
+
+	private void stream(DataPoint... points) {
+
+		Iterator<DataPoint> iterator = ImmutableList.copyOf(points).iterator();
+
+		when(mongoTemplate.stream(any(Query.class), eq(DataPoint.class))).thenReturn(new CloseableIterator<DataPoint>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public DataPoint next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+	}
+
+	private DataPoint getDataPoint(String account, boolean withSource) {
+
+		DataPoint point = new DataPoint();
+		point.setId(new DataPointId(account, new Date()));
+		point.setSource(withSource ? new Account() : null);
+
+		return point;
+	}
+}
@@ -0,0 +1,118 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DataMongoTest
+@Import(RollupServiceImpl.class)
+public class RollupServiceImplIntegrationTest {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Test
+	public void shouldNotDriftWhenSameDayIsUpdatedConcurrently() throws Exception {
+
+		LocalDate monday = LocalDate.of(2018, 8, 13);
+		LocalDate tuesday = LocalDate.of(2018, 8, 14);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				// the same day is written with different values, the last one wins
+				DataPoint point = getDataPoint(monday, String.valueOf(100 + i));
+				futures.add(executor.submit(() -> {
+					start.await();
+					rollupService.update(point);
+					rollupService.update(point);
+					return null;
+				}));
+			}
+
+			futures.add(executor.submit(() -> {
+				start.await();
+				rollupService.update(getDataPoint(tuesday, "20.5"));
+				return null;
+			}));
+
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		List<Rollup> rollups = rollupService.findByAccountName("test", Resolution.WEEK, toDate(monday), toDate(tuesday), null);
+
+		assertEquals(1, rollups.size());
+		assertEquals(2, rollups.get(0).getDays());
+
+		// one of the monday values plus the tuesday one, no matter how many times they were written
+		BigDecimal mondayTotal = rollups.get(0).getTotals().get(StatisticMetric.EXPENSES_AMOUNT).subtract(new BigDecimal("20.5"));
+		assertTrue(mondayTotal.compareTo(new BigDecimal(100)) >= 0 && mondayTotal.compareTo(new BigDecimal(100 + THREADS)) < 0);
+		assertEquals(0, mondayTotal.remainder(BigDecimal.ONE).signum());
+	}
+
+	@Test
+	public void shouldReplaceStatisticsOfOverwrittenDay() {
+
+		LocalDate day = LocalDate.of(2018, 9, 3);
+
+		rollupService.update(getDataPoint(day, "10"));
+		rollupService.update(getDataPoint(day, "12.25"));
+
+		List<Rollup> rollups = rollupService.findByAccountName("test", Resolution.MONTH, toDate(day), toDate(day), null);
+
+		assertEquals(1, rollups.size());
+		assertEquals(1, rollups.get(0).getDays());
+		assertEquals(new BigDecimal("12.2500"), rollups.get(0).getTotals().get(StatisticMetric.EXPENSES_AMOUNT));
+	}
+
+	private DataPoint getDataPoint(LocalDate day, String expenses) {
+
+		DataPoint point = new DataPoint();
+		point.setId(new DataPointId("test", toDate(day)));
+		point.setStatistics(ImmutableMap.of(
+				StatisticMetric.INCOMES_AMOUNT, BigDecimal.ZERO,
+				StatisticMetric.EXPENSES_AMOUNT, new BigDecimal(expenses),
+				StatisticMetric.SAVING_AMOUNT, BigDecimal.ZERO
+		));
+
+		return point;
+	}
+
+	private Date toDate(LocalDate day) {
+		return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -0,0 +1,144 @@
+package com.piggymetrics.statistics.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
+import com.piggymetrics.statistics.domain.timeseries.Resolution;
+import com.piggymetrics.statistics.domain.timeseries.Rollup;
+import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
+import com.piggymetrics.statistics.repository.RollupRepository;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class RollupServiceImplTest {
+
+	@InjectMocks
+	private RollupServiceImpl rollupService;
+
+	@Mock
+	private RollupRepository repository;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Before
+	public void setup() {
+		initMocks(this);
+	}
+
+	@Test
+	public void shouldSetDailyEntryOfRollupsOfAllResolutions() {
+
+		// Wednesday
+		DataPoint point = getDataPoint(LocalDate.of(2018, 8, 15), "10.5", "2", "100");
+
+		rollupService.update(point);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, times(3)).upsert(query.capture(), update.capture(), eq(Rollup.class));
+
+		assertEquals(Rollup.getId("test", Resolution.WEEK, toDate(LocalDate.of(2018, 8, 13))),
+				query.getAllValues().get(0).getQueryObject().get("_id"));
+		assertEquals(Rollup.getId("test", Resolution.MONTH, toDate(LocalDate.of(2018, 8, 1))),
+				query.getAllValues().get(1).getQueryObject().get("_id"));
+		assertEquals(Rollup.getId("test", Resolution.YEAR, toDate(LocalDate.of(2018, 1, 1))),
+				query.getAllValues().get(2).getQueryObject().get("_id"));
+
+		Document updateObject = update.getValue().getUpdateObject();
+		assertNull(updateObject.get("$inc"));
+
+		Map<?, ?> daily = (Map<?, ?>) ((Document) updateObject.get("$set")).get("daily.2018-08-15");
+		assertEquals(105_000L, daily.get(StatisticMetric.INCOMES_AMOUNT));
+		assertEquals(20_000L, daily.get(StatisticMetric.EXPENSES_AMOUNT));
+		assertEquals(1_000_000L, daily.get(StatisticMetric.SAVING_AMOUNT));
+	}
+
+	@Test
+	public void shouldFindLatestRollupsStartingFromPeriodOfLowerBound() {
+
+		final Rollup older = new Rollup();
+		final Rollup newer = new Rollup();
+		final Date to = new Date();
+
+		when(repository.findByAccountAndResolutionAndDateBetween(eq("test"), eq(Resolution.MONTH), any(Date.class), eq(to), any(Pageable.class)))
+				.thenReturn(ImmutableList.of(newer, older));
+
+		List<Rollup> result = rollupService.findByAccountName("test", Resolution.MONTH, toDate(LocalDate.of(2018, 3, 20)), to, 2);
+
+		assertEquals(ImmutableList.of(older, newer), result);
+
+		ArgumentCaptor<Date> from = ArgumentCaptor.forClass(Date.class);
+		ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+		verify(repository).findByAccountAndResolutionAndDateBetween(eq("test"), eq(Resolution.MONTH), from.capture(), eq(to), pageable.capture());
+
+		assertEquals(toDate(LocalDate.of(2018, 3, 1)), from.getValue());
+		assertEquals(2, pageable.getValue().getPageSize());
+		assertEquals(Sort.Direction.DESC, pageable.getValue().getSort().getOrderFor("date").getDirection());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToFindDailyRollups() {
+		rollupService.findByAccountName("test", Resolution.DAY, null, null, null);
+	}
+
+	@Test
+	public void shouldCalculateTotalsAndAverages() {
+
+		Rollup rollup = new Rollup();
+		rollup.setDaily(ImmutableMap.of(
+				"2018-08-13", ImmutableMap.of(StatisticMetric.EXPENSES_AMOUNT, 100_000L),
+				"2018-08-14", ImmutableMap.of(StatisticMetric.EXPENSES_AMOUNT, 2L),
+				"2018-08-15", ImmutableMap.of(),
+				"2018-08-16", ImmutableMap.of()
+		));
+
+		assertEquals(4, rollup.getDays());
+
+		assertEquals(new BigDecimal("10.0002"), rollup.getTotals().get(StatisticMetric.EXPENSES_AMOUNT));
+		assertEquals(new BigDecimal("2.5001"), rollup.getAverages().get(StatisticMetric.EXPENSES_AMOUNT));
+	}
+
+	private DataPoint getDataPoint(LocalDate day, String incomes, String expenses, String saving) {
+
+		DataPoint point = new DataPoint();
+		point.setId(new DataPointId("test", toDate(day)));
+		point.setStatistics(ImmutableMap.of(
+				StatisticMetric.INCOMES_AMOUNT, new BigDecimal(incomes),
+				StatisticMetric.EXPENSES_AMOUNT, new BigDecimal(expenses),
+				StatisticMetric.SAVING_AMOUNT, new BigDecimal(saving)
+		));
+
+		return point;
+	}
+
+	private Date toDate(LocalDate day) {
+		return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+}
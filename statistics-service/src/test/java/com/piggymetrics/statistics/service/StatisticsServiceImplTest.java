@@ -8,26 +8,33 @@ import com.piggymetrics.statistics.domain.Item;
 import com.piggymetrics.statistics.domain.Saving;
 import com.piggymetrics.statistics.domain.TimePeriod;
 import com.piggymetrics.statistics.domain.timeseries.DataPoint;
+import com.piggymetrics.statistics.domain.timeseries.DataPointId;
 import com.piggymetrics.statistics.domain.timeseries.ItemMetric;
 import com.piggymetrics.statistics.domain.timeseries.StatisticMetric;
 import com.piggymetrics.statistics.repository.DataPointRepository;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,6 +51,12 @@ public class StatisticsServiceImplTest {
 	@Mock
 	private DataPointRepository repository;
 
+	@Mock
+	private ExchangeRatesHistoryService historyService;
+
+	@Mock
+	private DataPointWriter writer;
+
 	@Before
 	public void setup() {
 		initMocks(this);
@@ -68,6 +81,45 @@ public class StatisticsServiceImplTest {
 		statisticsService.findByAccountName("");
 	}
 
+	@Test
+	public void shouldFindLatestDataPointsWithinRange() {
+
+		final DataPoint older = new DataPoint();
+		final DataPoint newer = new DataPoint();
+		final Date from = new Date(0);
+		final Date to = new Date();
+
+		when(repository.findByIdAccountAndDateBetween(eq("test"), eq(from), eq(to), any(Pageable.class)))
+				.thenReturn(ImmutableList.of(newer, older));
+
+		List<DataPoint> result = statisticsService.findByAccountName("test", from, to, 2, true);
+
+		assertEquals(ImmutableList.of(older, newer), result);
+
+		ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+		verify(repository).findByIdAccountAndDateBetween(eq("test"), eq(from), eq(to), pageable.capture());
+		assertEquals(2, pageable.getValue().getPageSize());
+		assertEquals(Sort.Direction.DESC, pageable.getValue().getSort().getOrderFor("_id.date").getDirection());
+	}
+
+	@Test
+	public void shouldFindDataPointsWithoutDetails() {
+
+		final List<DataPoint> list = ImmutableList.of(new DataPoint());
+		when(repository.findSummaryByIdAccountAndDateBetween(eq("test"), any(Date.class), any(Date.class), any(Pageable.class)))
+				.thenReturn(list);
+
+		List<DataPoint> result = statisticsService.findByAccountName("test", null, null, null, false);
+
+		assertEquals(list, result);
+		verify(repository, never()).findByIdAccountAndDateBetween(anyString(), any(Date.class), any(Date.class), any(Pageable.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldFailToFindDataPointsWhenLimitIsNotPositive() {
+		statisticsService.findByAccountName("test", null, null, 0, true);
+	}
+
 	@Test
 	public void shouldSaveDataPoint() {
 
@@ -115,13 +167,7 @@ public class StatisticsServiceImplTest {
 		 * When
 		 */
 
-		when(ratesService.convert(any(Currency.class),any(Currency.class),any(BigDecimal.class)))
-				.then(i -> ((BigDecimal)i.getArgument(2))
-						.divide(rates.get(i.getArgument(0)), 4, RoundingMode.HALF_UP));
-
-		when(ratesService.getCurrentRates()).thenReturn(rates);
-
-		when(repository.save(any(DataPoint.class))).then(returnsFirstArg());
+		when(ratesService.getCurrentConverter()).thenReturn(new CurrencyConverter(rates));
 
 		DataPoint dataPoint = statisticsService.save("test", account);
 
@@ -161,7 +207,135 @@ public class StatisticsServiceImplTest {
 		assertTrue(expectedNormalizedGroceryAmount.compareTo(groceryItemMetric.getAmount()) == 0);
 
 		assertEquals(rates, dataPoint.getRates());
+		assertEquals(account, dataPoint.getSource());
+
+		verify(writer, times(1)).write(dataPoint);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void shouldSaveAllAccountsAtOnce() {
+
+		Saving saving = new Saving();
+		saving.setAmount(new BigDecimal(1000));
+		saving.setCurrency(Currency.USD);
+
+		Account account = new Account();
+		account.setIncomes(ImmutableList.of());
+		account.setExpenses(ImmutableList.of());
+		account.setSaving(saving);
+
+		when(ratesService.getCurrentConverter()).thenReturn(new CurrencyConverter(ImmutableMap.of(
+				Currency.EUR, new BigDecimal("0.8"),
+				Currency.RUB, new BigDecimal("80"),
+				Currency.USD, BigDecimal.ONE
+		)));
+
+		List<DataPoint> points = statisticsService.saveAll(ImmutableMap.of("first", account, "second", account));
+
+		assertEquals(2, points.size());
+		assertEquals("first", points.get(0).getId().getAccount());
+		assertEquals("second", points.get(1).getId().getAccount());
+
+		ArgumentCaptor<Collection> written = ArgumentCaptor.forClass(Collection.class);
+		verify(writer, times(1)).writeAll(written.capture());
+		verify(ratesService, times(1)).getCurrentConverter();
+
+		assertEquals(points, written.getValue());
+	}
+
+	@Test
+	public void shouldComputeSameFingerprintForSameContent() {
+
+		Item grocery = new Item();
+		grocery.setTitle("Grocery");
+		grocery.setAmount(new BigDecimal("500"));
+		grocery.setCurrency(Currency.RUB);
+		grocery.setPeriod(TimePeriod.DAY);
+
+		Item rent = new Item();
+		rent.setTitle("Rent");
+		rent.setAmount(new BigDecimal("1000"));
+		rent.setCurrency(Currency.USD);
+		rent.setPeriod(TimePeriod.MONTH);
+
+		Item rescaledGrocery = new Item();
+		rescaledGrocery.setTitle("Grocery");
+		rescaledGrocery.setAmount(new BigDecimal("500.00"));
+		rescaledGrocery.setCurrency(Currency.RUB);
+		rescaledGrocery.setPeriod(TimePeriod.DAY);
+
+		Saving saving = new Saving();
+		saving.setAmount(new BigDecimal(1000));
+		saving.setCurrency(Currency.USD);
+
+		Account account = new Account();
+		account.setIncomes(ImmutableList.of());
+		account.setExpenses(ImmutableList.of(grocery, rent));
+		account.setSaving(saving);
+
+		Account reordered = new Account();
+		reordered.setIncomes(ImmutableList.of());
+		reordered.setExpenses(ImmutableList.of(rent, rescaledGrocery));
+		reordered.setSaving(saving);
+
+		Account changed = new Account();
+		changed.setIncomes(ImmutableList.of());
+		changed.setExpenses(ImmutableList.of(rent));
+		changed.setSaving(saving);
+
+		when(ratesService.getCurrentConverter()).thenReturn(new CurrencyConverter(ImmutableMap.of(
+				Currency.EUR, new BigDecimal("0.8"),
+				Currency.RUB, new BigDecimal("80"),
+				Currency.USD, BigDecimal.ONE
+		)));
+
+		DataPoint point = statisticsService.save("test", account);
+
+		assertEquals(point.getFingerprint(), statisticsService.save("test", reordered).getFingerprint());
+		assertNotEquals(point.getFingerprint(), statisticsService.save("test", changed).getFingerprint());
+	}
+
+	@Test
+	public void shouldRecomputeDataPointWithRatesOfItsDay() {
+
+		Item grocery = new Item();
+		grocery.setTitle("Grocery");
+		grocery.setAmount(new BigDecimal(500));
+		grocery.setCurrency(Currency.RUB);
+		grocery.setPeriod(TimePeriod.DAY);
+
+		Saving saving = new Saving();
+		saving.setAmount(new BigDecimal(100));
+		saving.setCurrency(Currency.EUR);
+
+		Account account = new Account();
+		account.setIncomes(ImmutableList.of());
+		account.setExpenses(ImmutableList.of(grocery));
+		account.setSaving(saving);
+
+		LocalDate day = LocalDate.of(2018, 6, 15);
+
+		DataPoint point = new DataPoint();
+		point.setId(new DataPointId("test", Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant())));
+		point.setSource(account);
+
+		final Map<Currency, BigDecimal> rates = ImmutableMap.of(
+				Currency.EUR, new BigDecimal("0.5"),
+				Currency.RUB, new BigDecimal("50"),
+				Currency.USD, BigDecimal.ONE
+		);
+
+		when(historyService.getRates(day)).thenReturn(rates);
+
+		DataPoint recomputed = statisticsService.recompute(point);
+
+		assertEquals(point.getId(), recomputed.getId());
+		assertEquals(rates, recomputed.getRates());
+		assertTrue(new BigDecimal("10").compareTo(recomputed.getStatistics().get(StatisticMetric.EXPENSES_AMOUNT)) == 0);
+		assertTrue(new BigDecimal("200").compareTo(recomputed.getStatistics().get(StatisticMetric.SAVING_AMOUNT)) == 0);
 
-		verify(repository, times(1)).save(dataPoint);
+		verify(ratesService, never()).getCurrentConverter();
+		verify(writer, never()).write(any(DataPoint.class));
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.piggymetrics.statistics.service.security;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.DefaultOAuth2ClientContext;
+import org.springframework.security.oauth2.client.OAuth2RestOperations;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CustomUserInfoTokenServicesTest {
+
+	private static final String USER_INFO_URI = "http://auth-service/uaa/tokens/current";
+
+	private OAuth2RestOperations restTemplate;
+
+	private CustomUserInfoTokenServices tokenServices;
+
+	@Before
+	public void setup() {
+		restTemplate = mock(OAuth2RestOperations.class);
+		when(restTemplate.getOAuth2ClientContext()).thenReturn(new DefaultOAuth2ClientContext());
+
+		tokenServices = new CustomUserInfoTokenServices(USER_INFO_URI, "statistics-service");
+		tokenServices.setRestTemplate(restTemplate);
+		tokenServices.setAuthenticationCache(new AuthenticationCache(100, 60_000, 5_000));
+	}
+
+	@Test
+	public void shouldLoadAuthenticationFromTokenDescription() {
+
+		when(restTemplate.getForEntity(eq(USER_INFO_URI), eq(Map.class))).thenReturn(getTokenDescription(true));
+
+		OAuth2Authentication authentication = tokenServices.loadAuthentication("token");
+
+		assertEquals("test", authentication.getName());
+		assertEquals("browser", authentication.getOAuth2Request().getClientId());
+		assertTrue(authentication.getOAuth2Request().getScope().contains("ui"));
+		assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), new ArrayList<>(authentication.getAuthorities()));
+	}
+
+	@Test(expected = InvalidTokenException.class)
+	public void shouldRejectInactiveToken() {
+
+		when(restTemplate.getForEntity(eq(USER_INFO_URI), eq(Map.class))).thenReturn(getTokenDescription(false));
+
+		tokenServices.loadAuthentication("token");
+	}
+
+	@Test
+	public void shouldRememberTokenRejectedByAuthService() {
+
+		when(restTemplate.getForEntity(eq(USER_INFO_URI), eq(Map.class)))
+				.thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED));
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				tokenServices.loadAuthentication("invalid");
+				fail("expected the token to be rejected");
+			} catch (InvalidTokenException expected) {
+				// rejected token is rethrown on every call
+			}
+		}
+
+		verify(restTemplate, times(1)).getForEntity(eq(USER_INFO_URI), eq(Map.class));
+	}
+
+	@Test
+	public void shouldNotRememberTokenWhenAuthServiceIsUnavailable() {
+
+		when(restTemplate.getForEntity(eq(USER_INFO_URI), eq(Map.class)))
+				.thenThrow(new ResourceAccessException("Connection refused"))
+				.thenReturn(getTokenDescription(true));
+
+		try {
+			tokenServices.loadAuthentication("token");
+			fail("expected auth-service to be unavailable");
+		} catch (UserInfoUnavailableException e) {
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getHttpErrorCode());
+		}
+
+		assertEquals("test", tokenServices.loadAuthentication("token").getName());
+		verify(restTemplate, times(2)).getForEntity(eq(USER_INFO_URI), eq(Map.class));
+	}
+
+	@SuppressWarnings("rawtypes")
+	private ResponseEntity<Map> getTokenDescription(boolean active) {
+
+		Map<String, Object> description = active
+				? ImmutableMap.of("active", true, "username", "test", "client_id", "browser", "scope", ImmutableList.of("ui"),
+						"authorities", ImmutableList.of("ROLE_USER"))
+				: ImmutableMap.of("active", false);
+
+		return new ResponseEntity<>(description, HttpStatus.OK);
+	}
+}